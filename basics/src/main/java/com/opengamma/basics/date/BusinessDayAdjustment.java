@@ -97,6 +97,20 @@ public final class BusinessDayAdjustment
     return convention.adjust(date, calendar);
   }
 
+  /**
+   * Adjusts each date in an array as necessary if it is not a business day.
+   * <p>
+   * The result is equivalent to calling {@link #adjust(LocalDate)} for each date.
+   * Only the dates that are not business days are passed to the convention.
+   * 
+   * @param dates  the dates to adjust, typically sorted, not altered
+   * @return the adjusted dates, in the same order as the input
+   */
+  @Override
+  public LocalDate[] adjustAll(LocalDate[] dates) {
+    return convention.adjustAll(dates, calendar);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns a string describing the adjustment.
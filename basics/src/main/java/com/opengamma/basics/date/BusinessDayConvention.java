@@ -69,6 +69,28 @@ public interface BusinessDayConvention
    */
   public LocalDate adjust(LocalDate date, HolidayCalendar calendar);
 
+  /**
+   * Adjusts each date in an array as necessary if it is not a business day.
+   * <p>
+   * The result is equivalent to calling {@link #adjust(LocalDate, HolidayCalendar)} for each date.
+   * The default implementation calls {@code adjust} for each date.
+   * Implementations may override this to avoid applying the convention to business days,
+   * but only if the convention always consults the calendar for every date.
+   * 
+   * @param dates  the dates to adjust, typically sorted, not altered
+   * @param calendar  the calendar that defines holidays and business days
+   * @return the adjusted dates, in the same order as the input
+   */
+  public default LocalDate[] adjustAll(LocalDate[] dates, HolidayCalendar calendar) {
+    ArgChecker.noNulls(dates, "dates");
+    ArgChecker.notNull(calendar, "calendar");
+    LocalDate[] adjusted = new LocalDate[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      adjusted[i] = adjust(dates[i], calendar);
+    }
+    return adjusted;
+  }
+
   /**
    * Gets the name that uniquely identifies this convention.
    * <p>
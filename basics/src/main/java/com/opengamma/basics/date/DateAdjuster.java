@@ -34,6 +34,27 @@ public interface DateAdjuster
    */
   public LocalDate adjust(LocalDate date);
 
+  /**
+   * Adjusts each date in an array according to the rules of the implementation.
+   * <p>
+   * The result is equivalent to calling {@link #adjust(LocalDate)} for each date in turn.
+   * Implementations may override this method to process the dates more efficiently,
+   * particularly when the dates are sorted.
+   * 
+   * @param dates  the dates to adjust, typically sorted, not altered
+   * @return the adjusted dates, in the same order as the input
+   * @throws DateTimeException if unable to make the adjustment
+   * @throws ArithmeticException if numeric overflow occurs
+   */
+  public default LocalDate[] adjustAll(LocalDate[] dates) {
+    ArgChecker.noNulls(dates, "dates");
+    LocalDate[] adjusted = new LocalDate[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      adjusted[i] = adjust(dates[i]);
+    }
+    return adjusted;
+  }
+
   /**
    * Adjusts the temporal according to the rules of the implementation.
    * <p>
@@ -89,6 +89,50 @@ public interface DayCount
    */
   public double yearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo);
 
+  /**
+   * Gets the year fraction between the specified dates, expressed as epoch-days.
+   * <p>
+   * The dates are expressed as epoch-days, as per {@link LocalDate#toEpochDay()}.
+   * The result is identical to that of {@link #yearFraction(LocalDate, LocalDate, ScheduleInfo)}.
+   * Implementations may override this method to avoid creating {@code LocalDate} instances.
+   * 
+   * @param firstEpochDay  the first date, as an epoch-day
+   * @param secondEpochDay  the second date, as an epoch-day, on or after the first date
+   * @param scheduleInfo  the schedule information
+   * @return the year fraction
+   * @throws UnsupportedOperationException if the year fraction cannot be obtained
+   */
+  public default double yearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+    return yearFraction(LocalDate.ofEpochDay(firstEpochDay), LocalDate.ofEpochDay(secondEpochDay), scheduleInfo);
+  }
+
+  /**
+   * Gets the year fractions between pairs of dates, expressed as epoch-days.
+   * <p>
+   * The year fraction between each matching pair of first and second epoch-days
+   * is calculated using {@link #yearFraction(long, long, ScheduleInfo)},
+   * with the result stored in the same index of the result array.
+   * All three arrays must be the same length.
+   * 
+   * @param firstEpochDays  the first dates, as epoch-days
+   * @param secondEpochDays  the second dates, as epoch-days, each on or after the matching first date
+   * @param scheduleInfo  the schedule information
+   * @param result  the array to populate with the year fractions
+   * @throws UnsupportedOperationException if the year fraction cannot be obtained
+   */
+  public default void yearFractions(
+      long[] firstEpochDays, long[] secondEpochDays, ScheduleInfo scheduleInfo, double[] result) {
+    ArgChecker.notNull(firstEpochDays, "firstEpochDays");
+    ArgChecker.notNull(secondEpochDays, "secondEpochDays");
+    ArgChecker.notNull(result, "result");
+    ArgChecker.isTrue(
+        firstEpochDays.length == secondEpochDays.length && firstEpochDays.length == result.length,
+        "Arrays must be the same length");
+    for (int i = 0; i < result.length; i++) {
+      result[i] = yearFraction(firstEpochDays[i], secondEpochDays[i], scheduleInfo);
+    }
+  }
+
   /**
    * Gets the name that uniquely identifies this convention.
    * <p>
@@ -154,6 +198,23 @@ public interface DayCount
       throw new UnsupportedOperationException("The end date of the schedule period is required");
     }
 
+    /**
+     * Gets the end date of the schedule period, expressed as epoch-days.
+     * <p>
+     * This is equivalent to {@link #getPeriodEndDate(LocalDate)}, but expressed using
+     * epoch-days, as per {@link LocalDate#toEpochDay()}.
+     * Implementations may override this method to avoid creating {@code LocalDate} instances.
+     * <p>
+     * By default, this converts the epoch-day and calls {@link #getPeriodEndDate(LocalDate)}.
+     * 
+     * @param epochDay  the date to find the period end date for, as an epoch-day
+     * @return the period end date, as an epoch-day
+     * @throws UnsupportedOperationException if the date cannot be obtained
+     */
+    public default long getPeriodEndEpochDay(long epochDay) {
+      return getPeriodEndDate(LocalDate.ofEpochDay(epochDay)).toEpochDay();
+    }
+
     /**
      * Gets the periodic frequency of the schedule period.
      * <p>
@@ -206,6 +206,26 @@ public final class DaysAdjustment
     return adjustment.adjust(added);
   }
 
+  /**
+   * Adjusts each date in an array, adding the period in days using the holiday calendar
+   * and then applying a business day adjustment.
+   * <p>
+   * The result is equivalent to calling {@link #adjust(LocalDate)} for each date.
+   * The business day adjustment is applied to all the results of step one in a single call.
+   * 
+   * @param dates  the dates to adjust, typically sorted, not altered
+   * @return the adjusted dates, in the same order as the input
+   */
+  @Override
+  public LocalDate[] adjustAll(LocalDate[] dates) {
+    ArgChecker.noNulls(dates, "dates");
+    LocalDate[] added = new LocalDate[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      added[i] = calendar.shift(dates[i], days);
+    }
+    return adjustment.adjustAll(added);
+  }
+
   /**
    * Gets the holiday calendar that will be applied to the result.
    * <p>
@@ -17,7 +17,11 @@ import static java.time.temporal.TemporalAdjusters.lastInMonth;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.IntFunction;
+
+import com.google.common.collect.ImmutableList;
 
 /**
  * Implementation of some common global holiday calendars.
@@ -25,6 +29,13 @@ import java.util.List;
  * The data provided here has been identified through direct research and is not
  * derived from a vendor of holiday calendar data.
  * This data may or may not be sufficient for your production needs.
+ * <p>
+ * Each calendar is defined by rules that generate the holidays of a single year.
+ * The holidays of a year are only generated when a date in that year is first queried,
+ * thus any date may be queried, with dates outside the researched range being
+ * an extrapolation of the rules.
+ * If a {@linkplain HolidayCalendarSnapshot snapshot} is available on the classpath,
+ * the years it covers are loaded from it rather than being generated from the rules.
  */
 final class GlobalHolidayCalendars {
 
@@ -33,90 +44,90 @@ final class GlobalHolidayCalendars {
    * <p>
    * This constant provides the calendar for London bank holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    */
-  public static final HolidayCalendar GBLO = generateLondon();
+  public static final HolidayCalendar GBLO = rules("GBLO", GlobalHolidayCalendars::london);
   /**
    * The holiday calendar for Paris, France, with code 'FRPA'.
    * <p>
    * This constant provides the calendar for Paris public holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    */
-  public static final HolidayCalendar FRPA = generateParis();
+  public static final HolidayCalendar FRPA = rules("FRPA", GlobalHolidayCalendars::paris);
   /**
    * The holiday calendar for Zurich, Switzerland, with code 'EUTA'.
    * <p>
    * This constant provides the calendar for Zurich public holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    */
-  public static final HolidayCalendar CHZU = generateZurich();
+  public static final HolidayCalendar CHZU = rules("CHZU", GlobalHolidayCalendars::zurich);
   /**
    * The holiday calendar for the European Union TARGET system, with code 'EUTA'.
    * <p>
    * This constant provides the calendar for the TARGET interbank payment system holidays.
    * <p>
-   * The default implementation is based on original research and covers 1997 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1997 to 2099.
+   * Years before 1997 have no holidays other than weekends, and later years are an extrapolation.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.8.
    */
-  public static final HolidayCalendar EUTA = generateEuropeanTarget();
+  public static final HolidayCalendar EUTA = rules("EUTA", GlobalHolidayCalendars::europeanTarget);
   /**
    * The holiday calendar for United States Government Securities, with code 'USGS'.
    * <p>
    * This constant provides the calendar for United States Government Securities as per SIFMA.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.11.
    */
-  public static final HolidayCalendar USGS = generateUsGovtSecurities();
+  public static final HolidayCalendar USGS = rules("USGS", GlobalHolidayCalendars::usGovtSecurities);
   /**
    * The holiday calendar for New York, United States, with code 'USNY'.
    * <p>
    * This constant provides the calendar for New York holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    */
-  public static final HolidayCalendar USNY = generateUsNewYork();
+  public static final HolidayCalendar USNY = rules("USNY", GlobalHolidayCalendars::usNewYork);
   /**
    * The holiday calendar for the Federal Reserve Bank of New York, with code 'NYFD'.
    * <p>
    * This constant provides the calendar for the Federal Reserve Bank of New York holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.9.
    */
-  public static final HolidayCalendar NYFD = generateNewYorkFed();
+  public static final HolidayCalendar NYFD = rules("NYFD", GlobalHolidayCalendars::newYorkFed);
   /**
    * The holiday calendar for the New York Stock Exchange, with code 'NYSE'.
    * <p>
    * This constant provides the calendar for the New York Stock Exchange.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.10.
    */
-  public static final HolidayCalendar NYSE = generateNewYorkStockExchange();
+  public static final HolidayCalendar NYSE = rules("NYSE", GlobalHolidayCalendars::newYorkStockExchange);
   /**
    * The holiday calendar for Tokyo, Japan, with code 'JPTO'.
    * <p>
    * This constant provides the calendar for Tokyo bank holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    */
-  public static final HolidayCalendar JPTO = generateTokyo();
+  public static final HolidayCalendar JPTO = rules("JPTO", GlobalHolidayCalendars::tokyo);
 
   //-------------------------------------------------------------------------
   /**
@@ -125,6 +136,44 @@ final class GlobalHolidayCalendars {
   private GlobalHolidayCalendars() {
   }
 
+  //-------------------------------------------------------------------------
+  // creates a calendar that generates each year when first queried, preferring the snapshot
+  private static HolidayCalendar rules(String name, IntFunction<List<LocalDate>> rules) {
+    return new RuleBasedHolidayCalendar(
+        name,
+        EnumSet.of(SATURDAY, SUNDAY),
+        year -> SnapshotHolder.SNAPSHOT.find(name, year).orElseGet(() -> rules.apply(year)));
+  }
+
+  // generates a calendar from the rules, covering the specified years
+  private static ImmutableHolidayCalendar generate(
+      String name, int firstYear, int lastYear, IntFunction<List<LocalDate>> rules) {
+    List<LocalDate> holidays = new ArrayList<>(2000);
+    for (int year = firstYear; year <= lastYear; year++) {
+      holidays.addAll(rules.apply(year));
+    }
+    return ImmutableHolidayCalendar.of(name, holidays, SATURDAY, SUNDAY);
+  }
+
+  // generates all the calendars from the rules, ignoring any snapshot
+  static List<ImmutableHolidayCalendar> generateAll() {
+    return ImmutableList.of(
+        generateLondon(),
+        generateParis(),
+        generateZurich(),
+        generateEuropeanTarget(),
+        generateUsGovtSecurities(),
+        generateUsNewYork(),
+        generateNewYorkFed(),
+        generateNewYorkStockExchange(),
+        generateTokyo());
+  }
+
+  // holder for the snapshot, only loaded when the first year is generated
+  private static final class SnapshotHolder {
+    private static final HolidayCalendarSnapshot SNAPSHOT = HolidayCalendarSnapshot.load();
+  }
+
   //-------------------------------------------------------------------------
   // generate GBLO
   // common law (including before 1871) good friday and christmas day (unadjusted for weekends)
@@ -142,60 +191,63 @@ final class GlobalHolidayCalendars {
   // 1969, 26th May, 1st Sep - http://hansard.millbanksystems.com/written_answers/1967/mar/21/bank-holidays-1969-dates
   // 1970, 25th May, 31st Aug - http://hansard.millbanksystems.com/written_answers/1967/jul/28/bank-holidays
   static ImmutableHolidayCalendar generateLondon() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      // new year
-      if (year >= 1974) {
-        holidays.add(bumpToMon(first(year, 1)));
-      }
-      // easter
-      holidays.add(easter(year).minusDays(2));
-      holidays.add(easter(year).plusDays(1));
-      // early May
-      if (year == 1995) {
-        // ve day
-        holidays.add(date(1995, 5, 8));
-      } else if (year >= 1978) {
-        holidays.add(first(year, 5).with(firstInMonth(MONDAY)));
-      }
-      // spring
-      if (year == 2002) {
-        // golden jubilee
-        holidays.add(date(2002, 6, 3));
-        holidays.add(date(2002, 6, 4));
-      } else if (year == 2012) {
-        // diamond jubilee
-        holidays.add(date(2012, 6, 4));
-        holidays.add(date(2012, 6, 5));
-      } else if (year == 1967 || year == 1970) {
-        holidays.add(first(year, 5).with(lastInMonth(MONDAY)));
-      } else if (year < 1971) {
-        // whitsun
-        holidays.add(easter(year).plusDays(50));
-      } else {
-        holidays.add(first(year, 5).with(lastInMonth(MONDAY)));
-      }
-      // summer
-      if (year < 1965) {
-        holidays.add(first(year, 8).with(firstInMonth(MONDAY)));
-      } else if (year < 1971) {
-        holidays.add(first(year, 8).with(lastInMonth(SATURDAY)).plusDays(2));
-      } else {
-        holidays.add(first(year, 8).with(lastInMonth(MONDAY)));
-      }
-      // christmas
-      holidays.add(christmas(year));
-      holidays.add(boxingDay(year));
-      // royal wedding
-      if (year == 2011) {
-        holidays.add(date(2011, 4, 29));
-      }
-      // millenium
-      if (year == 1999) {
-        holidays.add(date(1999, 12, 31));
-      }
+    return generate("GBLO", 1950, 2099, GlobalHolidayCalendars::london);
+  }
+
+  // the GBLO holidays of a single year
+  private static List<LocalDate> london(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    // new year
+    if (year >= 1974) {
+      holidays.add(bumpToMon(first(year, 1)));
     }
-    return ImmutableHolidayCalendar.of("GBLO", holidays, SATURDAY, SUNDAY);
+    // easter
+    holidays.add(easter(year).minusDays(2));
+    holidays.add(easter(year).plusDays(1));
+    // early May
+    if (year == 1995) {
+      // ve day
+      holidays.add(date(1995, 5, 8));
+    } else if (year >= 1978) {
+      holidays.add(first(year, 5).with(firstInMonth(MONDAY)));
+    }
+    // spring
+    if (year == 2002) {
+      // golden jubilee
+      holidays.add(date(2002, 6, 3));
+      holidays.add(date(2002, 6, 4));
+    } else if (year == 2012) {
+      // diamond jubilee
+      holidays.add(date(2012, 6, 4));
+      holidays.add(date(2012, 6, 5));
+    } else if (year == 1967 || year == 1970) {
+      holidays.add(first(year, 5).with(lastInMonth(MONDAY)));
+    } else if (year < 1971) {
+      // whitsun
+      holidays.add(easter(year).plusDays(50));
+    } else {
+      holidays.add(first(year, 5).with(lastInMonth(MONDAY)));
+    }
+    // summer
+    if (year < 1965) {
+      holidays.add(first(year, 8).with(firstInMonth(MONDAY)));
+    } else if (year < 1971) {
+      holidays.add(first(year, 8).with(lastInMonth(SATURDAY)).plusDays(2));
+    } else {
+      holidays.add(first(year, 8).with(lastInMonth(MONDAY)));
+    }
+    // christmas
+    holidays.add(christmas(year));
+    holidays.add(boxingDay(year));
+    // royal wedding
+    if (year == 2011) {
+      holidays.add(date(2011, 4, 29));
+    }
+    // millenium
+    if (year == 1999) {
+      holidays.add(date(1999, 12, 31));
+    }
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -204,24 +256,27 @@ final class GlobalHolidayCalendars {
   // http://www.legifrance.gouv.fr/affichCodeArticle.do?idArticle=LEGIARTI000006902611&cidTexte=LEGITEXT000006072050
   // http://jollyday.sourceforge.net/data/fr.html
   static ImmutableHolidayCalendar generateParis() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      holidays.add(date(year, 1, 1));  // new year
-      holidays.add(easter(year).plusDays(1));  // easter monday
-      holidays.add(date(year, 5, 1));  // labour day
-      holidays.add(date(year, 5, 8));  // victory in europe
-      holidays.add(easter(year).plusDays(39));  // ascension day
-      if (year <= 2004 || year >= 2008) {
-        holidays.add(easter(year).plusDays(50));  // whit monday
-      }
-      holidays.add(date(year, 7, 14));  // bastille
-      holidays.add(date(year, 8, 15));  // assumption of mary
-      holidays.add(date(year, 11, 1));  // all saints
-      holidays.add(date(year, 11, 11));  // armistice day
-      holidays.add(date(year, 12, 25));  // christmas day
+    return generate("FRPA", 1950, 2099, GlobalHolidayCalendars::paris);
+  }
+
+  // the FRPA holidays of a single year
+  private static List<LocalDate> paris(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    holidays.add(date(year, 1, 1));  // new year
+    holidays.add(easter(year).plusDays(1));  // easter monday
+    holidays.add(date(year, 5, 1));  // labour day
+    holidays.add(date(year, 5, 8));  // victory in europe
+    holidays.add(easter(year).plusDays(39));  // ascension day
+    if (year <= 2004 || year >= 2008) {
+      holidays.add(easter(year).plusDays(50));  // whit monday
     }
+    holidays.add(date(year, 7, 14));  // bastille
+    holidays.add(date(year, 8, 15));  // assumption of mary
+    holidays.add(date(year, 11, 1));  // all saints
+    holidays.add(date(year, 11, 11));  // armistice day
+    holidays.add(date(year, 12, 25));  // christmas day
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("FRPA", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -231,21 +286,24 @@ final class GlobalHolidayCalendars {
   // https://github.com/lballabio/quantlib/blob/master/QuantLib/ql/time/calendars/switzerland.cpp
   // http://www.six-swiss-exchange.com/funds/trading/trading_and_settlement_calendar_en.html
   static ImmutableHolidayCalendar generateZurich() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      holidays.add(date(year, 1, 1));  // new year
-      holidays.add(date(year, 1, 2));  // saint berchtoldstag
-      holidays.add(easter(year).minusDays(2));  // good friday
-      holidays.add(easter(year).plusDays(1));  // easter monday
-      holidays.add(date(year, 5, 1));  // labour day
-      holidays.add(easter(year).plusDays(39));  // ascension day
-      holidays.add(easter(year).plusDays(50));  // whit monday
-      holidays.add(date(year, 8, 1));  // national day
-      holidays.add(date(year, 12, 25));  // christmas day
-      holidays.add(date(year, 12, 26));  // saint stephen
-    }
+    return generate("CHZU", 1950, 2099, GlobalHolidayCalendars::zurich);
+  }
+
+  // the CHZU holidays of a single year
+  private static List<LocalDate> zurich(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    holidays.add(date(year, 1, 1));  // new year
+    holidays.add(date(year, 1, 2));  // saint berchtoldstag
+    holidays.add(easter(year).minusDays(2));  // good friday
+    holidays.add(easter(year).plusDays(1));  // easter monday
+    holidays.add(date(year, 5, 1));  // labour day
+    holidays.add(easter(year).plusDays(39));  // ascension day
+    holidays.add(easter(year).plusDays(50));  // whit monday
+    holidays.add(date(year, 8, 1));  // national day
+    holidays.add(date(year, 12, 25));  // christmas day
+    holidays.add(date(year, 12, 26));  // saint stephen
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("CHZU", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -262,25 +320,32 @@ final class GlobalHolidayCalendars {
   // from 2002, Jan 1, good friday, easter monday, May 1, christmas day, Dec 26
   // http://www.ecb.europa.eu/press/pr/date/2000/html/pr001214_4.en.html
   static ImmutableHolidayCalendar generateEuropeanTarget() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1997; year <= 2099; year++) {
-      if (year >= 2000) {
-        holidays.add(date(year, 1, 1));
-        holidays.add(easter(year).minusDays(2));
-        holidays.add(easter(year).plusDays(1));
-        holidays.add(date(year, 5, 1));
-        holidays.add(date(year, 12, 25));
-        holidays.add(date(year, 12, 26));
-      } else {  // 1997 to 1999
-        holidays.add(date(year, 1, 1));
-        holidays.add(date(year, 12, 25));
-      }
-      if (year == 1999 || year == 2001) {
-        holidays.add(date(year, 12, 31));
-      }
+    return generate("EUTA", 1997, 2099, GlobalHolidayCalendars::europeanTarget);
+  }
+
+  // the EUTA holidays of a single year
+  private static List<LocalDate> europeanTarget(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    // no TARGET holidays before the testing phase
+    if (year < 1997) {
+      return holidays;
+    }
+    if (year >= 2000) {
+      holidays.add(date(year, 1, 1));
+      holidays.add(easter(year).minusDays(2));
+      holidays.add(easter(year).plusDays(1));
+      holidays.add(date(year, 5, 1));
+      holidays.add(date(year, 12, 25));
+      holidays.add(date(year, 12, 26));
+    } else {  // 1997 to 1999
+      holidays.add(date(year, 1, 1));
+      holidays.add(date(year, 12, 25));
+    }
+    if (year == 1999 || year == 2001) {
+      holidays.add(date(year, 12, 31));
     }
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("EUTA", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -337,18 +402,21 @@ final class GlobalHolidayCalendars {
   // generate USGS
   // http://www.sifma.org/services/holiday-schedule/
   static ImmutableHolidayCalendar generateUsGovtSecurities() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      usCommon(holidays, year, true, true);
-      // good friday, in 1999/2007 only a partial holiday
-      holidays.add(easter(year).minusDays(2));
-      // hurricane sandy
-      if (year == 2012) {
-        holidays.add(date(year, 10, 30));
-      }
+    return generate("USGS", 1950, 2099, GlobalHolidayCalendars::usGovtSecurities);
+  }
+
+  // the USGS holidays of a single year
+  private static List<LocalDate> usGovtSecurities(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    usCommon(holidays, year, true, true);
+    // good friday, in 1999/2007 only a partial holiday
+    holidays.add(easter(year).minusDays(2));
+    // hurricane sandy
+    if (year == 2012) {
+      holidays.add(date(year, 10, 30));
     }
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("USGS", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -358,38 +426,47 @@ final class GlobalHolidayCalendars {
   // etc
   // ignore election day and lincoln day
   static ImmutableHolidayCalendar generateUsNewYork() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      usCommon(holidays, year, false, true);
-    }
+    return generate("USNY", 1950, 2099, GlobalHolidayCalendars::usNewYork);
+  }
+
+  // the USNY holidays of a single year
+  private static List<LocalDate> usNewYork(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    usCommon(holidays, year, false, true);
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("USNY", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
   // generate NYFD
   // http://www.ny.frb.org/aboutthefed/holiday_schedule.html
   static ImmutableHolidayCalendar generateNewYorkFed() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      usCommon(holidays, year, false, true);
-    }
+    return generate("NYFD", 1950, 2099, GlobalHolidayCalendars::newYorkFed);
+  }
+
+  // the NYFD holidays of a single year
+  private static List<LocalDate> newYorkFed(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    usCommon(holidays, year, false, true);
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("NYFD", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
   // generate NYSE
   // https://www.nyse.com/markets/hours-calendars
   static ImmutableHolidayCalendar generateNewYorkStockExchange() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      usCommon(holidays, year, true, false);
-      // good friday
-      holidays.add(easter(year).minusDays(2));
-    }
+    return generate("NYSE", 1950, 2099, GlobalHolidayCalendars::newYorkStockExchange);
+  }
+
+  // the NYSE holidays of a single year
+  private static List<LocalDate> newYorkStockExchange(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    usCommon(holidays, year, true, false);
+    // good friday
+    holidays.add(easter(year).minusDays(2));
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("NYSE", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   //-------------------------------------------------------------------------
@@ -402,95 +479,104 @@ final class GlobalHolidayCalendars {
   // http://www.nao.ac.jp/faq/a0301.html (equinox)
   // http://eco.mtk.nao.ac.jp/koyomi/faq/holiday.html.en
   static ImmutableHolidayCalendar generateTokyo() {
-    List<LocalDate> holidays = new ArrayList<>(2000);
-    for (int year = 1950; year <= 2099; year++) {
-      // new year
-      holidays.add(date(year, 1, 1));
-      holidays.add(date(year, 1, 2));
-      holidays.add(date(year, 1, 3));
-      // coming of age
-      if (year >= 2000) {
-        holidays.add(date(year, 1, 1).with(dayOfWeekInMonth(2, MONDAY)));
-      } else {
-        holidays.add(bumpSunToMon(date(year, 1, 15)));
-      }
-      // national foundation
-      if (year >= 1967) {
-        holidays.add(bumpSunToMon(date(year, 2, 11)));
-      }
-      // vernal equinox (from 1948), 20th or 21st (predictions/facts 2000 to 2030)
-      if (year == 2000 || year == 2001 || year == 2004 || year == 2005 || year == 2008 || year == 2009 ||
-          year == 2012 || year == 2013 || year == 2016 || year == 2017 ||
-          year == 2020 || year == 2021 || year == 2024 || year == 2025 || year == 2026 || year == 2028 ||
-          year == 2029 || year == 2030) {
-        holidays.add(bumpSunToMon(date(year, 3, 20)));
-      } else {
-        holidays.add(bumpSunToMon(date(year, 3, 21)));
-      }
-      // showa (from 2007 onwards), greenery (from 1989 to 2006), emperor (before 1989)
-      // http://news.bbc.co.uk/1/hi/world/asia-pacific/4543461.stm
-      holidays.add(bumpSunToMon(date(year, 4, 29)));
-      // constitution (from 1948)
-      // greenery (from 2007 onwards), holiday between two other holidays before that (from 1985)
-      // children (from 1948)
-      if (year >= 1985) {
-        holidays.add(bumpSunToMon(date(year, 5, 3)));
-        holidays.add(bumpSunToMon(date(year, 5, 4)));
-        holidays.add(bumpSunToMon(date(year, 5, 5)));
-        if (year >= 2007 && (date(year, 5, 3).getDayOfWeek() == SUNDAY || date(year, 5, 4).getDayOfWeek() == SUNDAY)) {
-          holidays.add(date(year, 5, 6));
-        }
-      } else {
-        holidays.add(bumpSunToMon(date(year, 5, 3)));
-        holidays.add(bumpSunToMon(date(year, 5, 5)));
-      }
-      // marine
-      if (year >= 2003) {
-        holidays.add(date(year, 7, 1).with(dayOfWeekInMonth(3, MONDAY)));
-      } else if (year >= 1996) {
-        holidays.add(bumpSunToMon(date(year, 7, 20)));
-      }
-      // mountain
-      if (year >= 2016) {
-        holidays.add(bumpSunToMon(date(year, 8, 11)));
-      }
-      // aged
-      if (year >= 2003) {
-        holidays.add(date(year, 9, 1).with(dayOfWeekInMonth(3, MONDAY)));
-      } else if (year >= 1966) {
-        holidays.add(bumpSunToMon(date(year, 9, 15)));
-      }
-      // autumn equinox (from 1948), 22nd or 23rd (predictions/facts 2000 to 2030)
-      if (year == 2012 || year == 2016 || year == 2020 || year == 2024 || year == 2028) {
-        holidays.add(bumpSunToMon(date(year, 9, 22)));
-      } else {
-        holidays.add(bumpSunToMon(date(year, 9, 23)));
-      }
-      citizensDay(holidays, date(year, 9, 20), date(year, 9, 22));
-      citizensDay(holidays, date(year, 9, 21), date(year, 9, 23));
-      // health-sports
-      if (year >= 2000) {
-        holidays.add(date(year, 10, 1).with(dayOfWeekInMonth(2, MONDAY)));
-      } else if (year >= 1966) {
-        holidays.add(bumpSunToMon(date(year, 10, 10)));
-      }
-      // culture (from 1948)
-      holidays.add(bumpSunToMon(date(year, 11, 3)));
-      // labor (from 1948)
-      holidays.add(bumpSunToMon(date(year, 11, 23)));
-      // emperor (current emporer)
-      if (year >= 1990) {
-        holidays.add(bumpSunToMon(date(year, 12, 23)));
+    return generate("JPTO", 1950, 2099, GlobalHolidayCalendars::tokyo);
+  }
+
+  // the JPTO holidays of a single year
+  private static List<LocalDate> tokyo(int year) {
+    List<LocalDate> holidays = new ArrayList<>(32);
+    // new year
+    holidays.add(date(year, 1, 1));
+    holidays.add(date(year, 1, 2));
+    holidays.add(date(year, 1, 3));
+    // coming of age
+    if (year >= 2000) {
+      holidays.add(date(year, 1, 1).with(dayOfWeekInMonth(2, MONDAY)));
+    } else {
+      holidays.add(bumpSunToMon(date(year, 1, 15)));
+    }
+    // national foundation
+    if (year >= 1967) {
+      holidays.add(bumpSunToMon(date(year, 2, 11)));
+    }
+    // vernal equinox (from 1948), 20th or 21st (predictions/facts 2000 to 2030)
+    if (year == 2000 || year == 2001 || year == 2004 || year == 2005 || year == 2008 || year == 2009 ||
+        year == 2012 || year == 2013 || year == 2016 || year == 2017 ||
+        year == 2020 || year == 2021 || year == 2024 || year == 2025 || year == 2026 || year == 2028 ||
+        year == 2029 || year == 2030) {
+      holidays.add(bumpSunToMon(date(year, 3, 20)));
+    } else {
+      holidays.add(bumpSunToMon(date(year, 3, 21)));
+    }
+    // showa (from 2007 onwards), greenery (from 1989 to 2006), emperor (before 1989)
+    // http://news.bbc.co.uk/1/hi/world/asia-pacific/4543461.stm
+    holidays.add(bumpSunToMon(date(year, 4, 29)));
+    // constitution (from 1948)
+    // greenery (from 2007 onwards), holiday between two other holidays before that (from 1985)
+    // children (from 1948)
+    if (year >= 1985) {
+      holidays.add(bumpSunToMon(date(year, 5, 3)));
+      holidays.add(bumpSunToMon(date(year, 5, 4)));
+      holidays.add(bumpSunToMon(date(year, 5, 5)));
+      if (year >= 2007 && (date(year, 5, 3).getDayOfWeek() == SUNDAY || date(year, 5, 4).getDayOfWeek() == SUNDAY)) {
+        holidays.add(date(year, 5, 6));
       }
-      // new years eve - bank of Japan, but not national holiday
-      holidays.add(bumpSunToMon(date(year, 12, 31)));
+    } else {
+      holidays.add(bumpSunToMon(date(year, 5, 3)));
+      holidays.add(bumpSunToMon(date(year, 5, 5)));
+    }
+    // marine
+    if (year >= 2003) {
+      holidays.add(date(year, 7, 1).with(dayOfWeekInMonth(3, MONDAY)));
+    } else if (year >= 1996) {
+      holidays.add(bumpSunToMon(date(year, 7, 20)));
+    }
+    // mountain
+    if (year >= 2016) {
+      holidays.add(bumpSunToMon(date(year, 8, 11)));
+    }
+    // aged
+    if (year >= 2003) {
+      holidays.add(date(year, 9, 1).with(dayOfWeekInMonth(3, MONDAY)));
+    } else if (year >= 1966) {
+      holidays.add(bumpSunToMon(date(year, 9, 15)));
+    }
+    // autumn equinox (from 1948), 22nd or 23rd (predictions/facts 2000 to 2030)
+    if (year == 2012 || year == 2016 || year == 2020 || year == 2024 || year == 2028) {
+      holidays.add(bumpSunToMon(date(year, 9, 22)));
+    } else {
+      holidays.add(bumpSunToMon(date(year, 9, 23)));
+    }
+    citizensDay(holidays, date(year, 9, 20), date(year, 9, 22));
+    citizensDay(holidays, date(year, 9, 21), date(year, 9, 23));
+    // health-sports
+    if (year >= 2000) {
+      holidays.add(date(year, 10, 1).with(dayOfWeekInMonth(2, MONDAY)));
+    } else if (year >= 1966) {
+      holidays.add(bumpSunToMon(date(year, 10, 10)));
+    }
+    // culture (from 1948)
+    holidays.add(bumpSunToMon(date(year, 11, 3)));
+    // labor (from 1948)
+    holidays.add(bumpSunToMon(date(year, 11, 23)));
+    // emperor (current emporer)
+    if (year >= 1990) {
+      holidays.add(bumpSunToMon(date(year, 12, 23)));
+    }
+    // new years eve - bank of Japan, but not national holiday
+    holidays.add(bumpSunToMon(date(year, 12, 31)));
+    // one-off
+    if (year == 1959) {
+      holidays.add(date(1959, 4, 10));  // marriage akihito
+    } else if (year == 1989) {
+      holidays.add(date(1989, 2, 24));  // funeral showa
+    } else if (year == 1990) {
+      holidays.add(date(1990, 11, 12));  // enthrone akihito
+    } else if (year == 1993) {
+      holidays.add(date(1993, 6, 9));  // marriage naruhito
     }
-    holidays.add(date(1959, 4, 10));  // marriage akihito
-    holidays.add(date(1989, 2, 24));  // funeral showa
-    holidays.add(date(1990, 11, 12));  // enthrone akihito
-    holidays.add(date(1993, 6, 9));  // marriage naruhito
     removeSatSun(holidays);
-    return ImmutableHolidayCalendar.of("JPTO", holidays, SATURDAY, SUNDAY);
+    return holidays;
   }
 
   // extra day between two other holidays, appears to exclude weekends
@@ -565,18 +651,19 @@ final class GlobalHolidayCalendars {
   }
 
   // calculate easter day by Delambre
+  // floor division is used so that negative years are also calculated correctly
   static LocalDate easter(int year) {
-    int a = year % 19;
-    int b = year / 100;
-    int c = year % 100;
-    int d = b / 4;
-    int e = b % 4;
-    int f = (b + 8) / 25;
-    int g = (b - f + 1) / 3;
-    int h = (19 * a + b - d - g + 15) % 30;
+    int a = Math.floorMod(year, 19);
+    int b = Math.floorDiv(year, 100);
+    int c = Math.floorMod(year, 100);
+    int d = Math.floorDiv(b, 4);
+    int e = Math.floorMod(b, 4);
+    int f = Math.floorDiv(b + 8, 25);
+    int g = Math.floorDiv(b - f + 1, 3);
+    int h = Math.floorMod(19 * a + b - d - g + 15, 30);
     int i = c / 4;
     int k = c % 4;
-    int l = (32 + 2 * e + 2 * i - h - k) % 7;
+    int l = Math.floorMod(32 + 2 * e + 2 * i - h - k, 7);
     int m = (a + 11 * h + 22 * l) / 451;
     int month = (h + l - 7 * m + 114) / 31;
     int day = ((h + l - 7 * m + 114) % 31) + 1;
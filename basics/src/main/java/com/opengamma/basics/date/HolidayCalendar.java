@@ -281,7 +281,7 @@ public interface HolidayCalendar
     if (other == HolidayCalendars.NO_HOLIDAYS) {
       return this;
     }
-    return new HolidayCalendars.Combined(this, other);
+    return HolidayCalendars.combined(this, other);
   }
 
   //-------------------------------------------------------------------------
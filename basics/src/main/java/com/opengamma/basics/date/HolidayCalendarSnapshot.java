@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.date;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.collect.ArgChecker;
+
+/**
+ * A compact binary snapshot of holiday calendars.
+ * <p>
+ * Generating the global holiday calendars involves many years of rule arithmetic.
+ * A snapshot holds the result of that generation as packed arrays of epoch-days,
+ * allowing the years it covers to be loaded without running the rules.
+ * <p>
+ * The snapshot of the global calendars is optional. It is generated at build time by
+ * running {@link #main(String[])}, see the 'holiday-snapshot' profile in the POM.
+ * If the snapshot is not found on the classpath, the calendars are generated from the rules.
+ * <p>
+ * The format is a header of a magic number and version, followed by the number of calendars.
+ * Each calendar consists of its name, a weekend bitmask keyed by day-of-week ordinal,
+ * and a sorted array of holiday epoch-days.
+ */
+final class HolidayCalendarSnapshot {
+
+  /**
+   * The classpath resource containing the snapshot of the global calendars.
+   */
+  static final String RESOURCE = "GlobalHolidayCalendars.bin";
+  /**
+   * The magic number at the start of the snapshot.
+   */
+  private static final int MAGIC = 0x4F474843;
+  /**
+   * The version of the format.
+   */
+  private static final int VERSION = 1;
+  /**
+   * An empty snapshot.
+   */
+  static final HolidayCalendarSnapshot EMPTY = new HolidayCalendarSnapshot(ImmutableMap.of());
+
+  /**
+   * The holiday epoch-days, keyed by calendar name.
+   */
+  private final ImmutableMap<String, int[]> holidays;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads the snapshot of the global calendars from the classpath.
+   * <p>
+   * An empty snapshot is returned if the resource is not found or has a different version.
+   * 
+   * @return the snapshot
+   * @throws UncheckedIOException if an error occurs reading the snapshot
+   */
+  static HolidayCalendarSnapshot load() {
+    try (InputStream in = HolidayCalendarSnapshot.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        return EMPTY;
+      }
+      return read(new BufferedInputStream(in));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Reads a snapshot from a stream.
+   * <p>
+   * An empty snapshot is returned if the stream has a different version.
+   * 
+   * @param in  the stream to read from
+   * @return the snapshot
+   * @throws IOException if an error occurs
+   */
+  static HolidayCalendarSnapshot read(InputStream in) throws IOException {
+    ArgChecker.notNull(in, "in");
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Invalid holiday calendar snapshot");
+    }
+    if (data.readInt() != VERSION) {
+      return EMPTY;
+    }
+    int count = data.readInt();
+    Map<String, int[]> holidays = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      String name = data.readUTF();
+      data.readByte();  // the weekend is defined by the rules, so the bitmask is not needed
+      int[] epochDays = new int[data.readInt()];
+      for (int j = 0; j < epochDays.length; j++) {
+        epochDays[j] = data.readInt();
+      }
+      holidays.put(name, epochDays);
+    }
+    return new HolidayCalendarSnapshot(ImmutableMap.copyOf(holidays));
+  }
+
+  /**
+   * Writes calendars to a stream in snapshot format.
+   * 
+   * @param calendars  the calendars to write
+   * @param out  the stream to write to
+   * @throws IOException if an error occurs
+   */
+  static void write(List<ImmutableHolidayCalendar> calendars, OutputStream out) throws IOException {
+    ArgChecker.noNulls(calendars, "calendars");
+    ArgChecker.notNull(out, "out");
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(calendars.size());
+    for (ImmutableHolidayCalendar calendar : calendars) {
+      data.writeUTF(calendar.getName());
+      int weekendMask = 0;
+      for (DayOfWeek dow : calendar.getWeekendDays()) {
+        weekendMask |= 1 << dow.ordinal();
+      }
+      data.writeByte(weekendMask);
+      data.writeInt(calendar.getHolidays().size());
+      for (LocalDate holiday : calendar.getHolidays()) {
+        data.writeInt(Math.toIntExact(holiday.toEpochDay()));
+      }
+    }
+    data.flush();
+  }
+
+  /**
+   * Generates the snapshot of the global calendars.
+   * <p>
+   * This is intended to be run at build time, writing the snapshot into the output directory.
+   * 
+   * @param args  the file to write
+   * @throws IOException if an error occurs
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: HolidayCalendarSnapshot <outputFile>");
+    }
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[0]))) {
+      write(GlobalHolidayCalendars.generateAll(), out);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   * 
+   * @param holidays  the holiday epoch-days by name
+   */
+  private HolidayCalendarSnapshot(ImmutableMap<String, int[]> holidays) {
+    this.holidays = holidays;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the holidays of a single year of a calendar in the snapshot.
+   * <p>
+   * The snapshot covers the years from the first holiday to the last holiday of the calendar.
+   * 
+   * @param name  the calendar name
+   * @param year  the year
+   * @return the holidays of the year, empty if the year is not in the snapshot
+   */
+  Optional<List<LocalDate>> find(String name, int year) {
+    int[] epochDays = holidays.get(name);
+    if (epochDays == null || epochDays.length == 0 ||
+        year < LocalDate.ofEpochDay(epochDays[0]).getYear() ||
+        year > LocalDate.ofEpochDay(epochDays[epochDays.length - 1]).getYear()) {
+      return Optional.empty();
+    }
+    LocalDate start = LocalDate.of(year, 1, 1);
+    int from = insertionPoint(Arrays.binarySearch(epochDays, (int) start.toEpochDay()));
+    int to = insertionPoint(Arrays.binarySearch(epochDays, (int) start.toEpochDay() + start.lengthOfYear()));
+    List<LocalDate> dates = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      dates.add(LocalDate.ofEpochDay(epochDays[i]));
+    }
+    return Optional.of(dates);
+  }
+
+  // converts the result of a binary search to the index of the first element not less than the key
+  private static int insertionPoint(int searchResult) {
+    return searchResult >= 0 ? searchResult : -(searchResult + 1);
+  }
+
+}
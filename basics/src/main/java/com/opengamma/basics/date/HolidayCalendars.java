@@ -7,8 +7,17 @@ package com.opengamma.basics.date;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.opengamma.collect.ArgChecker;
 import com.opengamma.collect.named.ExtendedEnum;
 
@@ -30,6 +39,15 @@ public final class HolidayCalendars {
    * The extended enum lookup from name to instance.
    */
   static final ExtendedEnum<HolidayCalendar> ENUM_LOOKUP = ExtendedEnum.of(HolidayCalendar.class);
+  /**
+   * The cache of combined calendars.
+   * <p>
+   * This is keyed by the sorted and de-duplicated names of the underlying calendars.
+   * Combined calendars that cannot be renamed are also cached by the name in the order requested.
+   */
+  private static final Cache<String, HolidayCalendar> COMBINED_CACHE = CacheBuilder.newBuilder()
+      .maximumSize(1000)
+      .build();
 
   /**
    * An instance declaring no holidays and no weekends.
@@ -63,8 +81,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for London bank holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    */
   public static final HolidayCalendar GBLO = HolidayCalendar.of(GlobalHolidayCalendars.GBLO.getName());
@@ -73,8 +91,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for Paris public holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    */
   public static final HolidayCalendar FRPA = HolidayCalendar.of(GlobalHolidayCalendars.FRPA.getName());
@@ -83,8 +101,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for Zurich public holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    */
   public static final HolidayCalendar CHZU = HolidayCalendar.of(GlobalHolidayCalendars.CHZU.getName());
@@ -93,8 +111,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for the TARGET interbank payment system holidays.
    * <p>
-   * The default implementation is based on original research and covers 1997 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1997 to 2099.
+   * Years before 1997 have no holidays other than weekends, and later years are an extrapolation.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.8.
@@ -105,8 +123,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for United States Government Securities as per SIFMA.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.11.
@@ -117,8 +135,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for New York holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    */
   public static final HolidayCalendar USNY = HolidayCalendar.of(GlobalHolidayCalendars.USNY.getName());
@@ -127,8 +145,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for the Federal Reserve Bank of New York holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.9.
@@ -139,8 +157,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for the New York Stock Exchange.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    * <p>
    * Referenced by the 2006 ISDA definitions 1.10.
@@ -151,8 +169,8 @@ public final class HolidayCalendars {
    * <p>
    * This constant provides the calendar for Tokyo bank holidays.
    * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The default implementation is based on original research covering 1950 to 2099.
+   * Any year may be queried, with holidays outside that range being an extrapolation of the rules.
    * To change the implementation, see {@code HolidayCalendar.properties}.
    */
   public static final HolidayCalendar JPTO = HolidayCalendar.of(GlobalHolidayCalendars.JPTO.getName());
@@ -167,13 +185,76 @@ public final class HolidayCalendars {
   static HolidayCalendar of(String uniqueName) {
     ArgChecker.notNull(uniqueName, "uniqueName");
     if (uniqueName.contains("+")) {
-      return Splitter.on('+').splitToList(uniqueName).stream()
-          .map(HolidayCalendars::of)
-          .reduce(NO_HOLIDAYS, HolidayCalendar::combineWith);
+      return ofCombined(uniqueName);
     }
     return ENUM_LOOKUP.lookup(uniqueName);
   }
 
+  // obtains a combined calendar, using the cache to avoid rebuilding the combined holiday data
+  private static HolidayCalendar ofCombined(String uniqueName) {
+    List<HolidayCalendar> calendars = Splitter.on('+').splitToList(uniqueName).stream()
+        .map(HolidayCalendars::of)
+        .filter(cal -> cal != NO_HOLIDAYS)
+        .distinct()
+        .collect(Collectors.toList());
+    if (calendars.size() <= 1) {
+      return calendars.isEmpty() ? NO_HOLIDAYS : calendars.get(0);
+    }
+    String key = calendars.stream()
+        .map(HolidayCalendar::getName)
+        .sorted()
+        .collect(Collectors.joining("+"));
+    List<HolidayCalendar> sorted = calendars.stream()
+        .sorted(Comparator.comparing(HolidayCalendar::getName))
+        .collect(Collectors.toList());
+    HolidayCalendar cached = cachedCombined(key, sorted);
+    // the cached calendar has the normalized name, so rename it to match the order requested
+    String name = calendars.stream()
+        .map(HolidayCalendar::getName)
+        .collect(Collectors.joining("+"));
+    if (cached instanceof ImmutableHolidayCalendar) {
+      return ((ImmutableHolidayCalendar) cached).withName(name);
+    }
+    if (cached instanceof RuleBasedHolidayCalendar) {
+      return ((RuleBasedHolidayCalendar) cached).withName(name);
+    }
+    return cached.getName().equals(name) ? cached : cachedCombined(name, calendars);
+  }
+
+  // obtains the combination of the calendars in the order specified from the cache, combining them if necessary
+  private static HolidayCalendar cachedCombined(String key, List<HolidayCalendar> calendars) {
+    try {
+      return COMBINED_CACHE.get(key, () -> calendars.stream().reduce(NO_HOLIDAYS, HolidayCalendar::combineWith));
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      throw Throwables.propagate(ex.getCause());
+    }
+  }
+
+  /**
+   * Combines two calendars.
+   * <p>
+   * If either calendar is an {@link ImmutableHolidayCalendar}, the other is materialized
+   * over its range to create a single fused calendar.
+   * Otherwise, a calendar that queries each of the two calendars is returned.
+   * 
+   * @param calendar1  the first calendar
+   * @param calendar2  the second calendar
+   * @return the combined calendar
+   */
+  static HolidayCalendar combined(HolidayCalendar calendar1, HolidayCalendar calendar2) {
+    if (calendar1 instanceof ImmutableHolidayCalendar && calendar2 instanceof ImmutableHolidayCalendar) {
+      return calendar1.combineWith(calendar2);
+    }
+    String name = calendar1.getName() + "+" + calendar2.getName();
+    Optional<ImmutableHolidayCalendar> fused = Optional.empty();
+    if (calendar1 instanceof ImmutableHolidayCalendar) {
+      fused = ((ImmutableHolidayCalendar) calendar1).combineMaterialized(calendar2, name);
+    } else if (calendar2 instanceof ImmutableHolidayCalendar) {
+      fused = ((ImmutableHolidayCalendar) calendar2).combineMaterialized(calendar1, name);
+    }
+    return fused.isPresent() ? fused.get() : new Combined(calendar1, calendar2);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Restricted constructor.
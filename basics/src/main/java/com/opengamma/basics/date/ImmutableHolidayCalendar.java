@@ -9,9 +9,11 @@ import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -44,6 +46,10 @@ import com.opengamma.collect.range.LocalDateRange;
  * dates that are holidays, plus a list of weekend days.
  * Internally, the class uses a range to determine the valid range of dates.
  * Only dates between the start of the earliest year and the end of the latest year can be queried.
+ * The holidays and weekends in the range are precomputed into a packed bitset, one bit per day,
+ * so that querying a date does not require a search of the holiday set.
+ * A cumulative count of business days is also held, allowing business days to be
+ * shifted and counted without visiting each intermediate date.
  * <p>
  * In most cases, applications should refer to calendars by name, using {@link HolidayCalendar#of(String)}.
  * The named calendar will typically be resolved to an instance of this class.
@@ -77,6 +83,32 @@ public final class ImmutableHolidayCalendar
    * The supported range of dates.
    */
   private final LocalDateRange range;
+  /**
+   * The start of the supported range, as an epoch-day.
+   */
+  private final transient long startEpochDay;
+  /**
+   * The end of the supported range, exclusive, as an epoch-day.
+   */
+  private final transient long endEpochDay;
+  /**
+   * The packed holiday bitset, one bit per day of the supported range.
+   * <p>
+   * The bit at index {@code epochDay - startEpochDay} is set if the date is a holiday or weekend.
+   * This is null if there are no holiday dates, when the range is unbounded.
+   */
+  private final transient long[] holidayBits;
+  /**
+   * The cumulative business day index, one entry per word of the bitset plus one.
+   * <p>
+   * The entry at index {@code i} is the number of business days in the first {@code i * 64} days of the range.
+   * This is null if there are no holiday dates, when the range is unbounded.
+   */
+  private final transient int[] businessDayIndex;
+  /**
+   * The weekend days as a bitmask, keyed by the zero-based day-of-week ordinal.
+   */
+  private final transient int weekendMask;
 
   //-------------------------------------------------------------------------
   /**
@@ -149,6 +181,77 @@ public final class ImmutableHolidayCalendar
           holidays.first().with(TemporalAdjusters.firstDayOfYear()),
           holidays.last().with(TemporalAdjusters.lastDayOfYear()));
     }
+    this.startEpochDay = range.getStart().toEpochDay();
+    this.endEpochDay = range.getEndInclusive().toEpochDay() + 1;
+    this.weekendMask = weekendMask(this.weekendDays);
+    this.holidayBits = (holidays.isEmpty() ? null : holidayBits(this.holidays, startEpochDay, endEpochDay, weekendMask));
+    this.businessDayIndex = (holidayBits == null ? null : businessDayIndex(holidayBits));
+  }
+
+  /**
+   * Creates an instance with a different name, sharing the derived state of another instance.
+   * 
+   * @param base  the calendar to copy
+   * @param name  the calendar name
+   */
+  private ImmutableHolidayCalendar(ImmutableHolidayCalendar base, String name) {
+    this.name = ArgChecker.notNull(name, "name");
+    this.holidays = base.holidays;
+    this.weekendDays = base.weekendDays;
+    this.range = base.range;
+    this.startEpochDay = base.startEpochDay;
+    this.endEpochDay = base.endEpochDay;
+    this.holidayBits = base.holidayBits;
+    this.businessDayIndex = base.businessDayIndex;
+    this.weekendMask = base.weekendMask;
+  }
+
+  // converts the weekend days to a bitmask
+  private static int weekendMask(Set<DayOfWeek> weekendDays) {
+    int mask = 0;
+    for (DayOfWeek dow : weekendDays) {
+      mask |= 1 << dow.ordinal();
+    }
+    return mask;
+  }
+
+  // builds the packed bitset, with a bit set for each holiday or weekend in the range
+  private static long[] holidayBits(Set<LocalDate> holidays, long startEpochDay, long endEpochDay, int weekendMask) {
+    int size = Math.toIntExact(endEpochDay - startEpochDay);
+    long[] bits = new long[(size + 63) >>> 6];
+    for (int i = 0; i < size; i++) {
+      if (isWeekend(startEpochDay + i, weekendMask)) {
+        bits[i >>> 6] |= 1L << i;
+      }
+    }
+    for (LocalDate holiday : holidays) {
+      int i = (int) (holiday.toEpochDay() - startEpochDay);
+      bits[i >>> 6] |= 1L << i;
+    }
+    // the unused bits of the last word are treated as holidays so they are never counted
+    for (int i = size; i < bits.length * 64; i++) {
+      bits[i >>> 6] |= 1L << i;
+    }
+    return bits;
+  }
+
+  // builds the cumulative count of business days at the start of each word of the bitset
+  private static int[] businessDayIndex(long[] holidayBits) {
+    int[] index = new int[holidayBits.length + 1];
+    for (int i = 0; i < holidayBits.length; i++) {
+      index[i + 1] = index[i] + Long.bitCount(~holidayBits[i]);
+    }
+    return index;
+  }
+
+  // checks if the epoch-day is a weekend, matching the algorithm in LocalDate.getDayOfWeek()
+  private static boolean isWeekend(long epochDay, int weekendMask) {
+    return (weekendMask & (1 << Math.floorMod(epochDay + 3, 7))) != 0;
+  }
+
+  // ensure the derived fields are populated, as they are not serialized
+  private Object readResolve() {
+    return new ImmutableHolidayCalendar(name, holidays, weekendDays);
   }
 
   //-------------------------------------------------------------------------
@@ -167,10 +270,124 @@ public final class ImmutableHolidayCalendar
   @Override
   public boolean isHoliday(LocalDate date) {
     ArgChecker.notNull(date, "date");
-    if (range.contains(date) == false) {
-      throw new IllegalArgumentException("Date is not within the range of known holidays: " + date + ", " + range);
+    return isHoliday(date.toEpochDay());
+  }
+
+  // checks if the epoch-day is a holiday using the bitset
+  private boolean isHoliday(long epochDay) {
+    if (holidayBits == null) {
+      return isWeekend(epochDay, weekendMask);
     }
-    return holidays.contains(date) || weekendDays.contains(date.getDayOfWeek());
+    int index = checkedIndex(epochDay);
+    return (holidayBits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  @Override
+  public LocalDate shift(LocalDate date, int amount) {
+    ArgChecker.notNull(date, "date");
+    if (holidayBits == null || amount == 0) {
+      return HolidayCalendar.super.shift(date, amount);
+    }
+    long epochDay = date.toEpochDay();
+    if (amount > 0) {
+      return select((long) rank(checkedIndex(epochDay + 1)) + amount - 1);
+    }
+    return select((long) rank(checkedIndex(epochDay - 1) + 1) + amount);
+  }
+
+  @Override
+  public LocalDate next(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    if (holidayBits == null) {
+      return HolidayCalendar.super.next(date);
+    }
+    return select(rank(checkedIndex(date.toEpochDay() + 1)));
+  }
+
+  @Override
+  public LocalDate nextOrSame(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    if (holidayBits == null) {
+      return HolidayCalendar.super.nextOrSame(date);
+    }
+    return select(rank(checkedIndex(date.toEpochDay())));
+  }
+
+  @Override
+  public LocalDate previous(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    if (holidayBits == null) {
+      return HolidayCalendar.super.previous(date);
+    }
+    return select(rank(checkedIndex(date.toEpochDay() - 1) + 1) - 1);
+  }
+
+  @Override
+  public LocalDate previousOrSame(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    if (holidayBits == null) {
+      return HolidayCalendar.super.previousOrSame(date);
+    }
+    return select(rank(checkedIndex(date.toEpochDay()) + 1) - 1);
+  }
+
+  @Override
+  public int daysBetween(LocalDateRange dateRange) {
+    ArgChecker.notNull(dateRange, "dateRange");
+    if (holidayBits == null || dateRange.isEmpty()) {
+      return HolidayCalendar.super.daysBetween(dateRange);
+    }
+    int startIndex = checkedIndex(dateRange.getStart().toEpochDay());
+    int endIndex = checkedIndex(dateRange.getEndInclusive().toEpochDay()) + 1;
+    return rank(endIndex) - rank(startIndex);
+  }
+
+  // converts the epoch-day to an index into the bitset, throwing if outside the supported range
+  private int checkedIndex(long epochDay) {
+    if (epochDay < startEpochDay || epochDay >= endEpochDay) {
+      throw new IllegalArgumentException(
+          "Date is not within the range of known holidays: " + LocalDate.ofEpochDay(epochDay) + ", " + range);
+    }
+    return (int) (epochDay - startEpochDay);
+  }
+
+  // the number of business days before the specified index into the bitset
+  private int rank(int index) {
+    int word = index >>> 6;
+    int count = businessDayIndex[word];
+    if ((index & 63) != 0) {
+      count += Long.bitCount(~holidayBits[word] & ((1L << index) - 1));
+    }
+    return count;
+  }
+
+  // the date of the business day with the specified zero-based rank, throwing if outside the supported range
+  private LocalDate select(long rank) {
+    if (rank < 0) {
+      throw new IllegalArgumentException(
+          "Date is not within the range of known holidays: " + LocalDate.ofEpochDay(startEpochDay - 1) + ", " + range);
+    }
+    if (rank >= businessDayIndex[holidayBits.length]) {
+      throw new IllegalArgumentException(
+          "Date is not within the range of known holidays: " + LocalDate.ofEpochDay(endEpochDay) + ", " + range);
+    }
+    // find the last word that starts at or before the rank
+    int lo = 0;
+    int hi = holidayBits.length - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (businessDayIndex[mid] <= rank) {
+        lo = mid;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    // clear the lowest business day bits until the rank is reached
+    long businessDays = ~holidayBits[lo];
+    for (long remaining = rank - businessDayIndex[lo]; remaining > 0; remaining--) {
+      businessDays &= businessDays - 1;
+    }
+    return LocalDate.ofEpochDay(startEpochDay + lo * 64L + Long.numberOfTrailingZeros(businessDays));
   }
 
   @Override
@@ -195,6 +412,72 @@ public final class ImmutableHolidayCalendar
     return HolidayCalendar.super.combineWith(other);
   }
 
+  /**
+   * Combines this calendar with any other calendar, materializing the other calendar over the range of this one.
+   * <p>
+   * The other calendar is queried for every date in the supported range of this calendar.
+   * The result is a single calendar with the holidays of both, avoiding the need to query each
+   * calendar separately. Any day-of-week that is a holiday throughout the range in the other
+   * calendar is treated as a weekend day.
+   * <p>
+   * The result is empty if this calendar has no holidays, and thus no bounded range,
+   * or if the other calendar cannot be queried across the range.
+   * 
+   * @param other  the other calendar
+   * @param combinedName  the name of the combined calendar
+   * @return the combined calendar, empty if the other calendar cannot be materialized
+   */
+  Optional<ImmutableHolidayCalendar> combineMaterialized(HolidayCalendar other, String combinedName) {
+    if (holidayBits == null) {
+      return Optional.empty();
+    }
+    int size = (int) (endEpochDay - startEpochDay);
+    long[] otherBits = new long[holidayBits.length];
+    int otherWeekendMask = 0x7F;
+    try {
+      for (int i = 0; i < size; i++) {
+        long epochDay = startEpochDay + i;
+        if (other.isHoliday(LocalDate.ofEpochDay(epochDay))) {
+          otherBits[i >>> 6] |= 1L << i;
+        } else {
+          otherWeekendMask &= ~(1 << Math.floorMod(epochDay + 3, 7));
+        }
+      }
+    } catch (IllegalArgumentException ex) {
+      return Optional.empty();
+    }
+    int combinedWeekendMask = weekendMask | otherWeekendMask;
+    SortedSet<LocalDate> combinedHolidays = new TreeSet<>(holidays);
+    for (int i = 0; i < size; i++) {
+      long epochDay = startEpochDay + i;
+      if ((otherBits[i >>> 6] & (1L << i)) != 0 && !isWeekend(epochDay, combinedWeekendMask)) {
+        combinedHolidays.add(LocalDate.ofEpochDay(epochDay));
+      }
+    }
+    Set<DayOfWeek> combinedWeekends = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek dow : DayOfWeek.values()) {
+      if ((combinedWeekendMask & (1 << dow.ordinal())) != 0) {
+        combinedWeekends.add(dow);
+      }
+    }
+    return Optional.of(new ImmutableHolidayCalendar(combinedName, combinedHolidays, combinedWeekends));
+  }
+
+  /**
+   * Returns a copy of this calendar with a different name.
+   * <p>
+   * The copy shares the holiday data of this calendar.
+   * 
+   * @param name  the new name
+   * @return the renamed calendar
+   */
+  ImmutableHolidayCalendar withName(String name) {
+    if (this.name.equals(name)) {
+      return this;
+    }
+    return new ImmutableHolidayCalendar(this, name);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns the name of the calendar.
@@ -0,0 +1,393 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.date;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.collect.ArgChecker;
+import com.opengamma.collect.range.LocalDateRange;
+
+/**
+ * A holiday calendar that generates its holidays from rules, one year at a time.
+ * <p>
+ * The rules are a function that returns the holidays of a single year.
+ * The holidays of each year are only generated when a date in that year is first queried.
+ * The result is held in a packed bitset per year, including weekends, cached for future queries.
+ * As such, any date can be queried, and memory is only used for years that have been queried.
+ * <p>
+ * Queries do not lock. If two threads generate the same year at the same time,
+ * the first result to be stored is used by both.
+ * <p>
+ * Combining two calendars of this type produces another calendar of this type,
+ * where each year is the union of the years of the underlying calendars.
+ * <p>
+ * Instances are intended to be registered by name, as serialization is by name.
+ */
+final class RuleBasedHolidayCalendar
+    implements HolidayCalendar, Serializable {
+
+  /**
+   * Serialization version.
+   */
+  private static final long serialVersionUID = 1L;
+  /**
+   * The first year held in the array cache.
+   */
+  private static final int ARRAY_CACHE_FIRST_YEAR = 1800;
+  /**
+   * The number of years held in the array cache.
+   */
+  private static final int ARRAY_CACHE_SIZE = 600;
+  /**
+   * The number of bits in the bitset of each year, covering a leap year.
+   */
+  private static final int YEAR_BITS = 384;
+
+  /**
+   * The calendar name.
+   */
+  private final String name;
+  /**
+   * The rules, returning the holidays of a year, null if combined.
+   * <p>
+   * The returned holidays may include dates in other years, which are ignored.
+   */
+  private final transient IntFunction<List<LocalDate>> rules;
+  /**
+   * The underlying calendars, empty unless combined.
+   */
+  private final transient ImmutableList<RuleBasedHolidayCalendar> calendars;
+  /**
+   * The weekend days as a bitmask, keyed by the zero-based day-of-week ordinal.
+   */
+  private final transient int weekendMask;
+  /**
+   * The cache of generated years, indexed from {@link #ARRAY_CACHE_FIRST_YEAR}.
+   */
+  private final transient AtomicReferenceArray<YearHolidays> arrayCache;
+  /**
+   * The cache of generated years, for years outside the array cache.
+   */
+  private final transient ConcurrentMap<Integer, YearHolidays> mapCache;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance from rules.
+   * 
+   * @param name  the calendar name
+   * @param weekendDays  the weekend days
+   * @param rules  the rules, returning the holidays of a year
+   */
+  RuleBasedHolidayCalendar(String name, Set<DayOfWeek> weekendDays, IntFunction<List<LocalDate>> rules) {
+    ArgChecker.notNull(name, "name");
+    ArgChecker.noNulls(weekendDays, "weekendDays");
+    ArgChecker.notNull(rules, "rules");
+    ArgChecker.isTrue(weekendDays.size() < 7, "Weekend must not include every day-of-week");
+    this.name = name;
+    this.rules = rules;
+    this.calendars = ImmutableList.of();
+    int mask = 0;
+    for (DayOfWeek dow : weekendDays) {
+      mask |= 1 << dow.ordinal();
+    }
+    this.weekendMask = mask;
+    this.arrayCache = new AtomicReferenceArray<>(ARRAY_CACHE_SIZE);
+    this.mapCache = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates an instance combining other calendars.
+   * 
+   * @param name  the calendar name
+   * @param calendars  the calendars to combine
+   */
+  private RuleBasedHolidayCalendar(String name, ImmutableList<RuleBasedHolidayCalendar> calendars) {
+    this.name = name;
+    this.rules = null;
+    this.calendars = calendars;
+    this.weekendMask = calendars.stream().mapToInt(cal -> cal.weekendMask).reduce(0, (a, b) -> a | b);
+    this.arrayCache = new AtomicReferenceArray<>(ARRAY_CACHE_SIZE);
+    this.mapCache = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates an instance with a different name, sharing the cache of another instance.
+   * 
+   * @param base  the calendar to copy
+   * @param name  the calendar name
+   */
+  private RuleBasedHolidayCalendar(RuleBasedHolidayCalendar base, String name) {
+    this.name = ArgChecker.notNull(name, "name");
+    this.rules = base.rules;
+    this.calendars = base.calendars;
+    this.weekendMask = base.weekendMask;
+    this.arrayCache = base.arrayCache;
+    this.mapCache = base.mapCache;
+  }
+
+  // resolve by name, as the rules are not serialized
+  private Object readResolve() {
+    return HolidayCalendar.of(name);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this calendar with a different name.
+   * <p>
+   * The copy shares the generated years of this calendar.
+   * 
+   * @param name  the new name
+   * @return the renamed calendar
+   */
+  RuleBasedHolidayCalendar withName(String name) {
+    if (this.name.equals(name)) {
+      return this;
+    }
+    return new RuleBasedHolidayCalendar(this, name);
+  }
+
+  // obtains the holidays of the year, generating them if necessary
+  private YearHolidays yearHolidays(int year) {
+    int index = year - ARRAY_CACHE_FIRST_YEAR;
+    if (index >= 0 && index < ARRAY_CACHE_SIZE) {
+      YearHolidays holidays = arrayCache.get(index);
+      if (holidays == null) {
+        holidays = generate(year);
+        if (!arrayCache.compareAndSet(index, null, holidays)) {
+          holidays = arrayCache.get(index);
+        }
+      }
+      return holidays;
+    }
+    YearHolidays holidays = mapCache.get(year);
+    if (holidays == null) {
+      YearHolidays generated = generate(year);
+      holidays = mapCache.putIfAbsent(year, generated);
+      if (holidays == null) {
+        holidays = generated;
+      }
+    }
+    return holidays;
+  }
+
+  // generates the holidays of the year
+  private YearHolidays generate(int year) {
+    long[] bits = new long[YEAR_BITS / 64];
+    if (rules == null) {
+      for (RuleBasedHolidayCalendar calendar : calendars) {
+        long[] calendarBits = calendar.yearHolidays(year).bits;
+        for (int i = 0; i < bits.length; i++) {
+          bits[i] |= calendarBits[i];
+        }
+      }
+      return new YearHolidays(bits);
+    }
+    LocalDate start = LocalDate.of(year, 1, 1);
+    int length = start.lengthOfYear();
+    long startEpochDay = start.toEpochDay();
+    for (int i = 0; i < length; i++) {
+      if ((weekendMask & (1 << Math.floorMod(startEpochDay + i + 3, 7))) != 0) {
+        bits[i >>> 6] |= 1L << i;
+      }
+    }
+    // the unused bits are treated as holidays so they are never counted
+    for (int i = length; i < YEAR_BITS; i++) {
+      bits[i >>> 6] |= 1L << i;
+    }
+    // the rules for adjacent years may roll a holiday into this year
+    for (int ruleYear = Math.max(year - 1, Year.MIN_VALUE); ruleYear <= Math.min(year + 1, Year.MAX_VALUE); ruleYear++) {
+      for (LocalDate holiday : rules.apply(ruleYear)) {
+        if (holiday.getYear() == year) {
+          int i = holiday.getDayOfYear() - 1;
+          bits[i >>> 6] |= 1L << i;
+        }
+      }
+    }
+    return new YearHolidays(bits);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean isHoliday(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    return yearHolidays(date.getYear()).isHoliday(date.getDayOfYear() - 1);
+  }
+
+  @Override
+  public LocalDate shift(LocalDate date, int amount) {
+    ArgChecker.notNull(date, "date");
+    int year = date.getYear();
+    int index = date.getDayOfYear() - 1;
+    if (amount > 0) {
+      YearHolidays holidays = yearHolidays(year);
+      long rank = (long) holidays.rank(index + 1) + amount - 1;
+      while (rank >= holidays.businessDays) {
+        rank -= holidays.businessDays;
+        year++;
+        holidays = yearHolidays(year);
+      }
+      return LocalDate.ofYearDay(year, holidays.select((int) rank) + 1);
+    }
+    if (amount < 0) {
+      YearHolidays holidays = yearHolidays(year);
+      long rank = (long) holidays.rank(index) + amount;
+      while (rank < 0) {
+        year--;
+        holidays = yearHolidays(year);
+        rank += holidays.businessDays;
+      }
+      return LocalDate.ofYearDay(year, holidays.select((int) rank) + 1);
+    }
+    return date;
+  }
+
+  @Override
+  public LocalDate next(LocalDate date) {
+    return shift(date, 1);
+  }
+
+  @Override
+  public LocalDate nextOrSame(LocalDate date) {
+    return isHoliday(date) ? shift(date, 1) : date;
+  }
+
+  @Override
+  public LocalDate previous(LocalDate date) {
+    return shift(date, -1);
+  }
+
+  @Override
+  public LocalDate previousOrSame(LocalDate date) {
+    return isHoliday(date) ? shift(date, -1) : date;
+  }
+
+  @Override
+  public int daysBetween(LocalDateRange dateRange) {
+    ArgChecker.notNull(dateRange, "dateRange");
+    if (dateRange.isEmpty()) {
+      return 0;
+    }
+    LocalDate start = dateRange.getStart();
+    LocalDate end = dateRange.getEndInclusive();
+    long count = -yearHolidays(start.getYear()).rank(start.getDayOfYear() - 1);
+    for (int year = start.getYear(); year < end.getYear(); year++) {
+      count += yearHolidays(year).businessDays;
+    }
+    count += yearHolidays(end.getYear()).rank(end.getDayOfYear());
+    return Math.toIntExact(count);
+  }
+
+  @Override
+  public HolidayCalendar combineWith(HolidayCalendar other) {
+    ArgChecker.notNull(other, "other");
+    if (this.equals(other) || other == HolidayCalendars.NO_HOLIDAYS) {
+      return this;
+    }
+    if (other instanceof RuleBasedHolidayCalendar) {
+      RuleBasedHolidayCalendar otherCal = (RuleBasedHolidayCalendar) other;
+      ImmutableList<RuleBasedHolidayCalendar> combined = ImmutableList.<RuleBasedHolidayCalendar>builder()
+          .addAll(calendars.isEmpty() ? ImmutableList.of(this) : calendars)
+          .addAll(otherCal.calendars.isEmpty() ? ImmutableList.of(otherCal) : otherCal.calendars)
+          .build();
+      return new RuleBasedHolidayCalendar(name + "+" + otherCal.name, combined);
+    }
+    return HolidayCalendar.super.combineWith(other);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof RuleBasedHolidayCalendar) {
+      return ((RuleBasedHolidayCalendar) obj).name.equals(name);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The holidays of a single year, as a packed bitset indexed by zero-based day-of-year.
+   * <p>
+   * A bit is set if the date is a holiday or weekend.
+   * The bits beyond the end of the year are also set.
+   */
+  private static final class YearHolidays {
+    // the bitset
+    private final long[] bits;
+    // the number of business days in the year
+    private final int businessDays;
+
+    // create
+    YearHolidays(long[] bits) {
+      this.bits = bits;
+      int count = 0;
+      for (long word : bits) {
+        count += Long.bitCount(~word);
+      }
+      this.businessDays = count;
+    }
+
+    // checks if the zero-based day-of-year is a holiday
+    boolean isHoliday(int index) {
+      return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // the number of business days before the zero-based day-of-year
+    int rank(int index) {
+      int word = index >>> 6;
+      int count = 0;
+      for (int i = 0; i < word; i++) {
+        count += Long.bitCount(~bits[i]);
+      }
+      if ((index & 63) != 0) {
+        count += Long.bitCount(~bits[word] & ((1L << index) - 1));
+      }
+      return count;
+    }
+
+    // the zero-based day-of-year of the business day with the specified rank
+    int select(int rank) {
+      int remaining = rank;
+      for (int word = 0; word < bits.length; word++) {
+        long businessDays = ~bits[word];
+        int count = Long.bitCount(businessDays);
+        if (remaining < count) {
+          for (; remaining > 0; remaining--) {
+            businessDays &= businessDays - 1;
+          }
+          return word * 64 + Long.numberOfTrailingZeros(businessDays);
+        }
+        remaining -= count;
+      }
+      throw new IllegalArgumentException("Business day rank exceeds year: " + rank);
+    }
+  }
+
+}
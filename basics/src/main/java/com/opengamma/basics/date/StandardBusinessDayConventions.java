@@ -27,6 +27,13 @@ enum StandardBusinessDayConventions implements BusinessDayConvention {
       ArgChecker.notNull(calendar, "calendar");
       return date;
     }
+
+    @Override
+    public LocalDate[] adjustAll(LocalDate[] dates, HolidayCalendar calendar) {
+      ArgChecker.noNulls(dates, "dates");
+      ArgChecker.notNull(calendar, "calendar");
+      return dates.clone();
+    }
   },
 
   // next business day
@@ -117,6 +124,22 @@ enum StandardBusinessDayConventions implements BusinessDayConvention {
     this.name = name;
   }
 
+  //-------------------------------------------------------------------------
+  // all conventions other than 'NoAdjust' consult the calendar for every date
+  // a business day is returned unaltered, so the convention is only applied to holidays
+  @Override
+  public LocalDate[] adjustAll(LocalDate[] dates, HolidayCalendar calendar) {
+    ArgChecker.noNulls(dates, "dates");
+    ArgChecker.notNull(calendar, "calendar");
+    LocalDate[] adjusted = new LocalDate[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      LocalDate date = dates[i];
+      adjusted[i] = calendar.isHoliday(date) ? adjust(date, calendar) : date;
+    }
+    return adjusted;
+  }
+
+  //-------------------------------------------------------------------------
   @Override
   public String getName() {
     return name;
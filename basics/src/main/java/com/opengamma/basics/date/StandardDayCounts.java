@@ -5,7 +5,11 @@
  */
 package com.opengamma.basics.date;
 
+import static java.time.temporal.ChronoField.EPOCH_DAY;
+import static java.time.temporal.ChronoField.YEAR;
+
 import java.time.LocalDate;
+import java.time.Year;
 
 import com.opengamma.basics.schedule.Frequency;
 import com.opengamma.collect.ArgChecker;
@@ -20,7 +24,7 @@ enum StandardDayCounts implements DayCount {
   // always one
   ONE_ONE("1/1") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
       return 1;
     }
   },
@@ -28,17 +32,19 @@ enum StandardDayCounts implements DayCount {
   // actual days / actual days in year
   ACT_ACT_ISDA("Act/Act ISDA") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      int y1 = firstDate.getYear();
-      int y2 = secondDate.getYear();
-      double firstYearLength = firstDate.lengthOfYear();
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      int y1 = yearOfEpochDay(firstEpochDay);
+      int y2 = yearOfEpochDay(secondEpochDay);
+      int dayOfYear1 = (int) (firstEpochDay - firstEpochDayOfYear(y1)) + 1;
+      int dayOfYear2 = (int) (secondEpochDay - firstEpochDayOfYear(y2)) + 1;
+      double firstYearLength = lengthOfYear(y1);
       if (y1 == y2) {
-        double actualDays = secondDate.getDayOfYear() - firstDate.getDayOfYear();
+        double actualDays = dayOfYear2 - dayOfYear1;
         return actualDays / firstYearLength;
       }
-      double firstRemainderOfYear = firstYearLength - firstDate.getDayOfYear() + 1;
-      double secondRemainderOfYear = secondDate.getDayOfYear() - 1;
-      double secondYearLength = secondDate.lengthOfYear();
+      double firstRemainderOfYear = firstYearLength - dayOfYear1 + 1;
+      double secondRemainderOfYear = dayOfYear2 - 1;
+      double secondYearLength = lengthOfYear(y2);
       return firstRemainderOfYear / firstYearLength +
           secondRemainderOfYear / secondYearLength +
           (y2 - y1 - 1);
@@ -48,67 +54,69 @@ enum StandardDayCounts implements DayCount {
   // complex ICMA calculation
   ACT_ACT_ICMA("Act/Act ICMA") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
       // avoid using ScheduleInfo in this case
-      if (firstDate.equals(secondDate)) {
+      if (firstEpochDay == secondEpochDay) {
         return 0d;
       }
       // calculation is based on the schedule period, firstDate assumed to be the start of the period
-      LocalDate scheduleStartDate = scheduleInfo.getStartDate();
-      LocalDate scheduleEndDate = scheduleInfo.getEndDate();
-      LocalDate nextCouponDate = scheduleInfo.getPeriodEndDate(firstDate);
+      long scheduleStartEpochDay = scheduleInfo.getStartDate().toEpochDay();
+      long scheduleEndEpochDay = scheduleInfo.getEndDate().toEpochDay();
+      long nextCouponEpochDay = scheduleInfo.getPeriodEndEpochDay(firstEpochDay);
       Frequency freq = scheduleInfo.getFrequency();
       boolean eom = scheduleInfo.isEndOfMonthConvention();
       // final period, also handling single period schedules
-      if (nextCouponDate.equals(scheduleEndDate)) {
-        return finalPeriod(firstDate, secondDate, freq, eom);
+      if (nextCouponEpochDay == scheduleEndEpochDay) {
+        return finalPeriod(firstEpochDay, secondEpochDay, freq, eom);
       }
       // initial period
-      if (firstDate.equals(scheduleStartDate)) {
-        return initPeriod(firstDate, secondDate, nextCouponDate, freq, eom);
+      if (firstEpochDay == scheduleStartEpochDay) {
+        return initPeriod(firstEpochDay, secondEpochDay, nextCouponEpochDay, freq, eom);
       }
-      long firstEpochDay = firstDate.toEpochDay();
-      double actualDays = secondDate.toEpochDay() - firstEpochDay;
-      double periodDays = nextCouponDate.toEpochDay() - firstEpochDay;
+      double actualDays = secondEpochDay - firstEpochDay;
+      double periodDays = nextCouponEpochDay - firstEpochDay;
       return actualDays / (freq.eventsPerYear() * periodDays);
     }
     // calculate nominal periods backwards from couponDate
-    private double initPeriod(LocalDate startDate, LocalDate endDate, LocalDate couponDate, Frequency freq, boolean eom) {
-      LocalDate currentNominal = couponDate;
-      LocalDate prevNominal = eom(couponDate, currentNominal.minus(freq), eom);
+    private double initPeriod(long startDate, long endDate, long couponDate, Frequency freq, boolean eom) {
+      long months = -freq.getPeriod().toTotalMonths();
+      int days = -freq.getPeriod().getDays();
+      boolean eomCoupon = eom && isLastDayOfMonth(couponDate);
+      long currentNominal = couponDate;
+      long prevNominal = plus(currentNominal, months, days, eomCoupon);
       double result = 0;
-      while (prevNominal.isAfter(startDate)) {
+      while (prevNominal > startDate) {
         result += calc(prevNominal, currentNominal, startDate, endDate, freq);
         currentNominal = prevNominal;
-        prevNominal = eom(couponDate, currentNominal.minus(freq), eom);
+        prevNominal = plus(currentNominal, months, days, eomCoupon);
       }
       return result + calc(prevNominal, currentNominal, startDate, endDate, freq);
     }
     // calculate nominal periods forwards from couponDate
-    private double finalPeriod(LocalDate couponDate, LocalDate endDate, Frequency freq, boolean eom) {
-      LocalDate curNominal = couponDate;
-      LocalDate nextNominal = eom(couponDate, curNominal.plus(freq), eom);
+    private double finalPeriod(long couponDate, long endDate, Frequency freq, boolean eom) {
+      long months = freq.getPeriod().toTotalMonths();
+      int days = freq.getPeriod().getDays();
+      boolean eomCoupon = eom && isLastDayOfMonth(couponDate);
+      long curNominal = couponDate;
+      long nextNominal = plus(curNominal, months, days, eomCoupon);
       double result = 0;
-      while (nextNominal.isBefore(endDate)) {
+      while (nextNominal < endDate) {
         result += calc(curNominal, nextNominal, curNominal, endDate, freq);
         curNominal = nextNominal;
-        nextNominal = eom(couponDate, curNominal.plus(freq), eom);
+        nextNominal = plus(curNominal, months, days, eomCoupon);
       }
       return result + calc(curNominal, nextNominal, curNominal, endDate, freq);
     }
-    // apply eom convention
-    private LocalDate eom(LocalDate base, LocalDate calc, boolean eom) {
-      return (eom && base.getDayOfMonth() == base.lengthOfMonth() ? calc.withDayOfMonth(calc.lengthOfMonth()) : calc);
+    // add the period, as per LocalDate.plus(Period), applying the eom convention
+    private long plus(long epochDay, long months, int days, boolean eom) {
+      long result = plusMonths(epochDay, months) + days;
+      return eom ? lastDayOfMonth(result) : result;
     }
     // calculate the result
-    private double calc(LocalDate prevNominal, LocalDate curNominal, LocalDate start, LocalDate end, Frequency freq) {
-      if (end.isAfter(prevNominal)) {
-        long curNominalEpochDay = curNominal.toEpochDay();
-        long prevNominalEpochDay = prevNominal.toEpochDay();
-        long startEpochDay = start.toEpochDay();
-        long endEpochDay = end.toEpochDay();
-        double periodDays = curNominalEpochDay - prevNominalEpochDay;
-        double actualDays = Math.min(endEpochDay, curNominalEpochDay) - Math.max(startEpochDay, prevNominalEpochDay);
+    private double calc(long prevNominal, long curNominal, long start, long end, Frequency freq) {
+      if (end > prevNominal) {
+        double periodDays = curNominal - prevNominal;
+        double actualDays = Math.min(end, curNominal) - Math.max(start, prevNominal);
         return actualDays / (freq.eventsPerYear() * periodDays);
       }
       return 0;
@@ -171,32 +179,32 @@ enum StandardDayCounts implements DayCount {
   // simple actual days / 360
   ACT_360("Act/360") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      return actualDays(firstDate, secondDate) / 360d;
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      return (secondEpochDay - firstEpochDay) / 360d;
     }
   },
 
   // simple actual days / 364
   ACT_364("Act/364") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      return actualDays(firstDate, secondDate) / 364d;
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      return (secondEpochDay - firstEpochDay) / 364d;
     }
   },
 
   // simple actual days / 365
   ACT_365F("Act/365F") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      return actualDays(firstDate, secondDate) / 365d;
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      return (secondEpochDay - firstEpochDay) / 365d;
     }
   },
 
   // simple actual days / 365.25
   ACT_365_25("Act/365.25") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      return actualDays(firstDate, secondDate) / 365.25d;
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      return (secondEpochDay - firstEpochDay) / 365.25d;
     }
   },
 
@@ -218,29 +226,31 @@ enum StandardDayCounts implements DayCount {
   // ISDA thirty day months / 360
   THIRTY_360_ISDA("30/360 ISDA") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      int d1 = firstDate.getDayOfMonth();
-      int d2 = secondDate.getDayOfMonth();
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      long ymd1 = yearMonthDay(firstEpochDay);
+      long ymd2 = yearMonthDay(secondEpochDay);
+      int d1 = day(ymd1);
+      int d2 = day(ymd2);
       if (d1 == 31) {
         d1 = 30;
       }
       if (d2 == 31 && d1 == 30) {
         d2 = 30;
       }
-      return thirty360(
-          firstDate.getYear(), firstDate.getMonthValue(), d1,
-          secondDate.getYear(), secondDate.getMonthValue(), d2);
+      return thirty360(year(ymd1), month(ymd1), d1, year(ymd2), month(ymd2), d2);
     }
   },
 
   // US thirty day months / 360
   THIRTY_U_360("30U/360") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      int d1 = firstDate.getDayOfMonth();
-      int d2 = secondDate.getDayOfMonth();
-      boolean lastFeb1 = (firstDate.getMonthValue() == 2 && d1 == firstDate.lengthOfMonth());
-      boolean lastFeb2 = (secondDate.getMonthValue() == 2 && d2 == secondDate.lengthOfMonth());
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      long ymd1 = yearMonthDay(firstEpochDay);
+      long ymd2 = yearMonthDay(secondEpochDay);
+      int d1 = day(ymd1);
+      int d2 = day(ymd2);
+      boolean lastFeb1 = (month(ymd1) == 2 && d1 == lengthOfFebruary(year(ymd1)));
+      boolean lastFeb2 = (month(ymd2) == 2 && d2 == lengthOfFebruary(year(ymd2)));
       if (scheduleInfo.isEndOfMonthConvention() && lastFeb1) {
         if (lastFeb2) {
           d2 = 30;
@@ -253,47 +263,45 @@ enum StandardDayCounts implements DayCount {
       if (d2 == 31 && d1 == 30) {
         d2 = 30;
       }
-      return thirty360(
-          firstDate.getYear(), firstDate.getMonthValue(), d1,
-          secondDate.getYear(), secondDate.getMonthValue(), d2);
+      return thirty360(year(ymd1), month(ymd1), d1, year(ymd2), month(ymd2), d2);
     }
   },
 
   // ISDA EU thirty day months / 360
   THIRTY_E_360_ISDA("30E/360 ISDA") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      int d1 = firstDate.getDayOfMonth();
-      int d2 = secondDate.getDayOfMonth();
-      boolean lastFeb1 = (firstDate.getMonthValue() == 2 && d1 == firstDate.lengthOfMonth());
-      boolean lastFeb2 = (secondDate.getMonthValue() == 2 && d2 == secondDate.lengthOfMonth());
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      long ymd1 = yearMonthDay(firstEpochDay);
+      long ymd2 = yearMonthDay(secondEpochDay);
+      int d1 = day(ymd1);
+      int d2 = day(ymd2);
+      boolean lastFeb1 = (month(ymd1) == 2 && d1 == lengthOfFebruary(year(ymd1)));
+      boolean lastFeb2 = (month(ymd2) == 2 && d2 == lengthOfFebruary(year(ymd2)));
       if (d1 == 31 || lastFeb1) {
         d1 = 30;
       }
-      if (d2 == 31 || (lastFeb2 && !secondDate.equals(scheduleInfo.getEndDate()))) {
+      if (d2 == 31 || (lastFeb2 && !isEpochDay(scheduleInfo.getEndDate(), secondEpochDay))) {
         d2 = 30;
       }
-      return thirty360(
-          firstDate.getYear(), firstDate.getMonthValue(), d1,
-          secondDate.getYear(), secondDate.getMonthValue(), d2);
+      return thirty360(year(ymd1), month(ymd1), d1, year(ymd2), month(ymd2), d2);
     }
   },
 
   // E thirty day months / 360
   THIRTY_E_360("30E/360") {
     @Override
-    public double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
-      int d1 = firstDate.getDayOfMonth();
-      int d2 = secondDate.getDayOfMonth();
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      long ymd1 = yearMonthDay(firstEpochDay);
+      long ymd2 = yearMonthDay(secondEpochDay);
+      int d1 = day(ymd1);
+      int d2 = day(ymd2);
       if (d1 == 31) {
         d1 = 30;
       }
       if (d2 == 31) {
         d2 = 30;
       }
-      return thirty360(
-          firstDate.getYear(), firstDate.getMonthValue(), d1,
-          secondDate.getYear(), secondDate.getMonthValue(), d2);
+      return thirty360(year(ymd1), month(ymd1), d1, year(ymd2), month(ymd2), d2);
     }
   },
 
@@ -316,8 +324,33 @@ enum StandardDayCounts implements DayCount {
           firstDate.getYear(), m1, d1,
           secondDate.getYear(), m2, d2);
     }
+    @Override
+    double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+      long ymd1 = yearMonthDay(firstEpochDay);
+      long ymd2 = yearMonthDay(secondEpochDay);
+      int d1 = day(ymd1);
+      int d2 = day(ymd2);
+      int m2 = month(ymd2);
+      if (d1 == 31) {
+        d1 = 30;
+      }
+      if (d2 == 31) {
+        d2 = 1;
+        m2 = m2 + 1;  // nature of calculation means no need to adjust Dec to Jan
+      }
+      return thirty360(year(ymd1), month(ymd1), d1, year(ymd2), m2, d2);
+    }
   };
 
+  /**
+   * The number of days from year zero to 1970.
+   */
+  private static final long DAYS_0000_TO_1970 = 719528;
+  /**
+   * The number of days in a 400 year cycle.
+   */
+  private static final long DAYS_PER_CYCLE = 146097;
+
   // name
   private final String name;
 
@@ -336,6 +369,128 @@ enum StandardDayCounts implements DayCount {
     return secondDate.toEpochDay() - firstDate.toEpochDay();
   }
 
+  //-------------------------------------------------------------------------
+  // the packed year-month-day of the epoch-day, using the same algorithm as LocalDate.ofEpochDay()
+  private static long yearMonthDay(long epochDay) {
+    long zeroDay = epochDay + DAYS_0000_TO_1970;
+    // find the march-based year
+    zeroDay -= 60;  // adjust to 0000-03-01 so leap day is at end of four year cycle
+    long adjust = 0;
+    if (zeroDay < 0) {
+      // adjust negative years to positive for calculation
+      long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+      adjust = adjustCycles * 400;
+      zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+    }
+    long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+    long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+    if (doyEst < 0) {
+      // fix estimate
+      yearEst--;
+      doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+    }
+    yearEst += adjust;  // reset any negative year
+    int marchDoy0 = (int) doyEst;
+    // convert march-based values back to january-based
+    int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+    int month = (marchMonth0 + 2) % 12 + 1;
+    int dom = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+    yearEst += marchMonth0 / 10;
+    return (yearEst << 9) | (month << 5) | dom;
+  }
+
+  // the year of the packed year-month-day
+  private static int year(long yearMonthDay) {
+    return (int) (yearMonthDay >> 9);
+  }
+
+  // the month of the packed year-month-day
+  private static int month(long yearMonthDay) {
+    return (int) (yearMonthDay >> 5) & 15;
+  }
+
+  // the day-of-month of the packed year-month-day
+  private static int day(long yearMonthDay) {
+    return (int) yearMonthDay & 31;
+  }
+
+  // the year of the epoch-day
+  private static int yearOfEpochDay(long epochDay) {
+    return year(yearMonthDay(epochDay));
+  }
+
+  // the epoch-day of the first day of the year, using the same algorithm as LocalDate.toEpochDay()
+  private static long firstEpochDayOfYear(int year) {
+    long y = year;
+    long total = 365 * y;
+    if (y >= 0) {
+      total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+    } else {
+      total -= y / -4 - y / -100 + y / -400;
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  // the length of the year
+  private static int lengthOfYear(int year) {
+    return Year.isLeap(year) ? 366 : 365;
+  }
+
+  // the length of February in the year
+  private static int lengthOfFebruary(int year) {
+    return Year.isLeap(year) ? 29 : 28;
+  }
+
+  // the epoch-day of the year-month-day, using the same algorithm as LocalDate.toEpochDay()
+  private static long epochDay(int year, int month, int day) {
+    long total = firstEpochDayOfYear(year) + DAYS_0000_TO_1970;
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!Year.isLeap(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  // the length of the month
+  private static int lengthOfMonth(int year, int month) {
+    return month == 2 ? lengthOfFebruary(year) : (month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31);
+  }
+
+  // checks if the epoch-day is the last day of the month
+  private static boolean isLastDayOfMonth(long epochDay) {
+    long ymd = yearMonthDay(epochDay);
+    return day(ymd) == lengthOfMonth(year(ymd), month(ymd));
+  }
+
+  // the epoch-day of the last day of the month of the epoch-day
+  private static long lastDayOfMonth(long epochDay) {
+    long ymd = yearMonthDay(epochDay);
+    return epochDay + lengthOfMonth(year(ymd), month(ymd)) - day(ymd);
+  }
+
+  // adds months to the epoch-day, as per LocalDate.plusMonths()
+  private static long plusMonths(long epochDay, long months) {
+    if (months == 0) {
+      return epochDay;
+    }
+    long ymd = yearMonthDay(epochDay);
+    long monthCount = year(ymd) * 12L + (month(ymd) - 1) + months;
+    int year = YEAR.checkValidIntValue(Math.floorDiv(monthCount, 12));
+    int month = (int) (monthCount - year * 12L) + 1;
+    int day = Math.min(day(ymd), lengthOfMonth(year, month));
+    return epochDay(year, month, day);
+  }
+
+  // checks if the date is non-null and equal to the epoch-day
+  private static boolean isEpochDay(LocalDate date, long epochDay) {
+    return date != null && date.toEpochDay() == epochDay;
+  }
+
+  //-------------------------------------------------------------------------
   @Override
   public double yearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
     ArgChecker.notNull(firstDate, "firstDate");
@@ -348,7 +503,26 @@ enum StandardDayCounts implements DayCount {
   }
 
   // calculate the year fraction, using validated inputs
-  abstract double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo);
+  // each convention overrides either this form or the epoch-day form, which delegate to one another
+  double calculateYearFraction(LocalDate firstDate, LocalDate secondDate, ScheduleInfo scheduleInfo) {
+    return calculateYearFraction(firstDate.toEpochDay(), secondDate.toEpochDay(), scheduleInfo);
+  }
+
+  @Override
+  public double yearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+    EPOCH_DAY.checkValidValue(firstEpochDay);
+    EPOCH_DAY.checkValidValue(secondEpochDay);
+    ArgChecker.notNull(scheduleInfo, "scheduleInfo");
+    if (secondEpochDay < firstEpochDay) {
+      throw new IllegalArgumentException("Dates must be in time-line order");
+    }
+    return calculateYearFraction(firstEpochDay, secondEpochDay, scheduleInfo);
+  }
+
+  // calculate the year fraction from epoch-days, using validated inputs
+  double calculateYearFraction(long firstEpochDay, long secondEpochDay, ScheduleInfo scheduleInfo) {
+    return calculateYearFraction(LocalDate.ofEpochDay(firstEpochDay), LocalDate.ofEpochDay(secondEpochDay), scheduleInfo);
+  }
 
   @Override
   public String getName() {
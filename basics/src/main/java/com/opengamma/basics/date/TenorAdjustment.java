@@ -158,6 +158,25 @@ public final class TenorAdjustment
     return unadjusted.with(adjustment);
   }
 
+  /**
+   * Adjusts each date in an array, adding the tenor and then applying the business day adjustment.
+   * <p>
+   * The result is equivalent to calling {@link #adjust(LocalDate)} for each date.
+   * The business day adjustment is applied to all the results of the addition in a single call.
+   * 
+   * @param dates  the dates to adjust, typically sorted, not altered
+   * @return the adjusted dates, in the same order as the input
+   */
+  @Override
+  public LocalDate[] adjustAll(LocalDate[] dates) {
+    ArgChecker.noNulls(dates, "dates");
+    LocalDate[] unadjusted = new LocalDate[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      unadjusted[i] = additionConvention.adjust(dates[i], tenor.getPeriod(), adjustment.getCalendar());
+    }
+    return adjustment.adjustAll(unadjusted);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns a string describing the adjustment.
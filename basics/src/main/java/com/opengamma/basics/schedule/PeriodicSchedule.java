@@ -8,12 +8,19 @@ package com.opengamma.basics.schedule;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanDefinition;
@@ -31,6 +38,7 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.opengamma.basics.date.BusinessDayAdjustment;
 import com.opengamma.collect.ArgChecker;
 
@@ -344,23 +352,97 @@ public final class PeriodicSchedule
    * If there are explicit stub dates then they will be used.
    * If the stub convention is present, then it will be validated against the stub dates.
    * If the stub convention and stub dates are not present, then no stubs are allowed.
+   * <p>
+   * If a {@link ScheduleCache} has been installed globally, it is used to obtain the schedule.
    * 
    * @return the schedule
    * @throws ScheduleException if the definition is invalid
    */
   public Schedule createSchedule() {
-    List<LocalDate> unadj = createUnadjustedDates();
-    List<LocalDate> adj = applyBusinessDayAdjustment(unadj);
+    ScheduleCache cache = ScheduleCache.globalOrNull();
+    return (cache != null ? cache.createSchedule(this) : generateSchedule());
+  }
+
+  // creates the schedule without using the global cache
+  Schedule generateSchedule() {
+    return createSchedule(getEffectiveRollConvention(), businessDayAdjustment::adjustAll);
+  }
+
+  // creates the schedule using the effective roll convention and a function that applies the business day adjustment
+  // the function is passed an array of unadjusted dates and returns a new array of adjusted dates
+  Schedule createSchedule(RollConvention rollConv, UnaryOperator<LocalDate[]> adjuster) {
+    List<LocalDate> unadj = createUnadjustedDates(rollConv);
+    List<LocalDate> adj = applyBusinessDayAdjustment(unadj, adjuster);
+    // pack the epoch-days of the periods directly, validating as per SchedulePeriod
+    int size = unadj.size() - 1;
+    int[] periods = new int[size * 4];
+    for (int i = 0; i < size; i++) {
+      ArgChecker.inOrderNotEqual(unadj.get(i), unadj.get(i + 1), "unadjustedStartDate", "unadjustedEndDate");
+      ArgChecker.inOrderNotEqual(adj.get(i), adj.get(i + 1), "startDate", "endDate");
+      periods[i] = Schedule.toEpochDay(adj.get(i));
+      periods[size + i] = Schedule.toEpochDay(adj.get(i + 1));
+      periods[size * 2 + i] = Schedule.toEpochDay(unadj.get(i));
+      periods[size * 3 + i] = Schedule.toEpochDay(unadj.get(i + 1));
+    }
+    return Schedule.createUnsafe(periods, frequency, rollConv);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a stream of the schedule periods, generated on demand from earliest to latest.
+   * <p>
+   * The periods are the same as those of {@link #createSchedule()}, however each period is
+   * only generated when it is consumed. This is intended for very long schedules, such as
+   * daily schedules over many years, where only the first few periods may be needed.
+   * <p>
+   * Periods are only generated on demand if the schedule is calculated forwards from the start date,
+   * as determined by the stub convention. If the schedule is calculated backwards from the end date,
+   * all the dates are generated before the first period is returned,
+   * see {@link #createReversePeriodStream()}.
+   * <p>
+   * The definition is validated when the stream is created, however errors resulting from the
+   * generation of individual dates, such as duplicate dates, are only thrown as they are reached.
+   * Duplicate dates are only detected when they are adjacent.
+   * The global {@link ScheduleCache} is not used.
+   * 
+   * @return the stream of schedule periods, from earliest to latest
+   * @throws ScheduleException if the definition is invalid
+   */
+  public Stream<SchedulePeriod> createPeriodStream() {
+    return createPeriodStream(true);
+  }
+
+  /**
+   * Creates a stream of the schedule periods, generated on demand from latest to earliest.
+   * <p>
+   * This is the reverse of {@link #createPeriodStream()}.
+   * Periods are only generated on demand if the schedule is calculated backwards from the end date,
+   * as determined by the stub convention, such as when there is an initial stub.
+   * If the schedule is calculated forwards from the start date,
+   * all the dates are generated before the first period is returned.
+   * 
+   * @return the stream of schedule periods, from latest to earliest
+   * @throws ScheduleException if the definition is invalid
+   */
+  public Stream<SchedulePeriod> createReversePeriodStream() {
+    return createPeriodStream(false);
+  }
+
+  // creates the stream, generating lazily if the direction matches the direction of calculation
+  private Stream<SchedulePeriod> createPeriodStream(boolean forwards) {
     RollConvention rollConv = getEffectiveRollConvention();
-    List<SchedulePeriod> periods = new ArrayList<>();
-    for (int i = 0; i < unadj.size() - 1; i++) {
-      periods.add(SchedulePeriod.of(adj.get(i), adj.get(i + 1), unadj.get(i), unadj.get(i + 1)));
+    boolean explicitInitialStub = !startDate.equals(getEffectiveFirstRegularStartDate());
+    boolean explicitFinalStub = !endDate.equals(getEffectiveLastRegularEndDate());
+    StubConvention implicitStubConv = (frequency == Frequency.TERM ?
+        null : generateImplicitStubConvention(explicitInitialStub, explicitFinalStub));
+    if (implicitStubConv == null || implicitStubConv.isCalculateBackwards() == forwards) {
+      List<SchedulePeriod> periods = generateSchedule().getPeriods();
+      return (forwards ? periods : Lists.reverse(periods)).stream();
     }
-    return Schedule.builder()
-        .periods(periods)
-        .frequency(frequency)
-        .rollConvention(rollConv)
-        .build();
+    Iterator<SchedulePeriod> iterator =
+        new SchedulePeriodIterator(this, new UnadjustedDateIterator(this, rollConv, implicitStubConv, forwards));
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
   }
 
   //-------------------------------------------------------------------------
@@ -381,6 +463,11 @@ public final class PeriodicSchedule
    * @throws ScheduleException if the definition is invalid
    */
   public ImmutableList<LocalDate> createUnadjustedDates() {
+    return createUnadjustedDates(getEffectiveRollConvention());
+  }
+
+  // creates the list of unadjusted dates, using the effective roll convention
+  private ImmutableList<LocalDate> createUnadjustedDates(RollConvention rollConv) {
     LocalDate regStart = getEffectiveFirstRegularStartDate();
     LocalDate regEnd = getEffectiveLastRegularEndDate();
     boolean explicitInitialStub = !startDate.equals(regStart);
@@ -392,25 +479,23 @@ public final class PeriodicSchedule
       }
       return ImmutableList.of(startDate, endDate);
     }
-    // calculate base schedule excluding explicit stubs
-    RollConvention rollConv = getEffectiveRollConvention();
+    // generate the dates, including explicit stubs
     StubConvention implicitStubConv = generateImplicitStubConvention(explicitInitialStub, explicitFinalStub);
-    List<LocalDate> unadj = (implicitStubConv.isCalculateBackwards() ?
-        generateBackwards(regStart, regEnd, rollConv, implicitStubConv) :
-        generateForwards(regStart, regEnd, rollConv, implicitStubConv));
-    // add explicit stubs
-    if (explicitInitialStub) {
-      unadj.add(0, startDate);
-    }
-    if (explicitFinalStub) {
-      unadj.add(endDate);
+    UnadjustedDateIterator iterator =
+        new UnadjustedDateIterator(this, rollConv, implicitStubConv, !implicitStubConv.isCalculateBackwards());
+    List<LocalDate> dates = new ArrayList<>();
+    iterator.forEachRemaining(dates::add);
+    if (implicitStubConv.isCalculateBackwards()) {
+      Collections.reverse(dates);
     }
-    // sanity check
-    ImmutableList<LocalDate> deduplicated = ImmutableSet.copyOf(unadj).asList();
-    if (deduplicated.size() < unadj.size()) {
-      throw new ScheduleException(this, "Schedule calculation resulted in duplicate unadjusted dates: {}", unadj);
+    ImmutableList<LocalDate> unadj = ImmutableList.copyOf(dates);
+    // sanity check, the dates are generated in order so any duplicates are adjacent
+    for (int i = 1; i < unadj.size(); i++) {
+      if (unadj.get(i).equals(unadj.get(i - 1))) {
+        throw new ScheduleException(this, "Schedule calculation resulted in duplicate unadjusted dates: {}", unadj);
+      }
     }
-    return deduplicated;
+    return unadj;
   }
 
   // using knowledge of the explicit stubs, generate the correct convention for implicit stubs
@@ -424,60 +509,6 @@ public final class PeriodicSchedule
     return StubConvention.NONE;
   }
 
-  // generate the schedule of dates backwards from the end
-  private List<LocalDate> generateBackwards(LocalDate start, LocalDate end, RollConvention rollConv, StubConvention stubConv) {
-    // validate
-    if (rollConv.matches(end) == false) {
-      throw new ScheduleException(
-          this, "Date '{}' does not match roll convention '{}' when starting to roll backwards", end, rollConv);
-    }
-    // generate
-    List<LocalDate> dates = new ArrayList<>();
-    dates.add(start);
-    dates.add(end);
-    LocalDate temp = rollConv.previous(end, frequency);
-    while (temp.isAfter(start)) {
-      dates.add(1, temp);
-      temp = rollConv.previous(temp, frequency);
-    }
-    // convert short stub to long stub, but only if we actually have a stub
-    boolean stub = temp.equals(start) == false;
-    if (stub && stubConv.isLong() && dates.size() > 2) {
-      dates.remove(1);
-    }
-    return dates;
-  }
-
-  // generate the schedule of dates forwards from the start
-  private List<LocalDate> generateForwards(LocalDate start, LocalDate end, RollConvention rollConv, StubConvention stubConv) {
-    // validate
-    if (rollConv.matches(start) == false) {
-      throw new ScheduleException(
-          this, "Date '{}' does not match roll convention '{}' when starting to roll forwards", start, rollConv);
-    }
-    // generate
-    List<LocalDate> dates = new ArrayList<>();
-    dates.add(start);
-    LocalDate temp = rollConv.next(start, frequency);
-    while (temp.isBefore(end)) {
-      dates.add(temp);
-      temp = rollConv.next(temp, frequency);
-    }
-    dates.add(end);
-    // convert short stub to long stub, but only if we actually have a stub
-    boolean stub = temp.equals(end) == false;
-    if (stub && dates.size() > 2) {
-      if (stubConv == StubConvention.NONE) {
-        throw new ScheduleException(
-            this, "Period '{}' to '{}' resulted in a disallowed stub with frequency '{}'", start, end, frequency);
-      }
-      if (stubConv.isLong()) {
-        dates.remove(dates.size() - 2);
-      }
-    }
-    return dates;
-  }
-
   //-------------------------------------------------------------------------
   /**
    * Creates the list of adjusted dates in the schedule.
@@ -497,14 +528,12 @@ public final class PeriodicSchedule
    */
   public ImmutableList<LocalDate> createAdjustedDates() {
     ImmutableList<LocalDate> unadj = createUnadjustedDates();
-    return ImmutableList.copyOf(applyBusinessDayAdjustment(unadj));
+    return ImmutableList.copyOf(applyBusinessDayAdjustment(unadj, businessDayAdjustment::adjustAll));
   }
 
   // applies the appropriate business day adjustment to each date
-  private List<LocalDate> applyBusinessDayAdjustment(List<LocalDate> unadj) {
-    List<LocalDate> adj = unadj.stream()
-        .map(businessDayAdjustment::adjust)
-        .collect(Collectors.toList());
+  private List<LocalDate> applyBusinessDayAdjustment(List<LocalDate> unadj, UnaryOperator<LocalDate[]> adjuster) {
+    List<LocalDate> adj = Arrays.asList(adjuster.apply(unadj.toArray(new LocalDate[unadj.size()])));
     if (startDateBusinessDayAdjustment != null) {
       adj.set(0, startDateBusinessDayAdjustment.adjust(startDate));
     }
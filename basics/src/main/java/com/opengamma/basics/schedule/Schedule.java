@@ -5,6 +5,11 @@
  */
 package com.opengamma.basics.schedule;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -13,11 +18,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanDefinition;
 import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableConstructor;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.Property;
@@ -30,6 +37,7 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.basics.date.DayCount.ScheduleInfo;
 import com.opengamma.collect.ArgChecker;
+import com.opengamma.collect.Messages;
 
 /**
  * A complete schedule of periods (date ranges), with both unadjusted and adjusted dates.
@@ -43,6 +51,15 @@ import com.opengamma.collect.ArgChecker;
 public final class Schedule
     implements ScheduleInfo, ImmutableBean, Serializable {
 
+  /**
+   * The serialized form, which matches earlier versions, with the periods as an {@code ImmutableList}.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("periods", ImmutableList.class),
+      new ObjectStreamField("frequency", Frequency.class),
+      new ObjectStreamField("rollConvention", RollConvention.class),
+  };
+
   /**
    * The schedule periods.
    * <p>
@@ -50,9 +67,13 @@ public final class Schedule
    * The periods are ordered from earliest to latest.
    * It is intended that each period is adjacent to the next one, however each
    * period is independent and non-adjacent periods are allowed.
+   * <p>
+   * The periods are stored as four packed sections of epoch-days, each with one entry per period,
+   * holding the adjusted start, adjusted end, unadjusted start and unadjusted end dates.
+   * Each period is only created as a {@code SchedulePeriod} when requested.
    */
-  @PropertyDefinition(validate = "notEmpty")
-  private final ImmutableList<SchedulePeriod> periods;
+  @PropertyDefinition(validate = "notEmpty", get = "manual", type = "ImmutableList<SchedulePeriod>")
+  private final int[] periods;
   /**
    * The periodic frequency used when building the schedule.
    * <p>
@@ -68,6 +89,18 @@ public final class Schedule
    */
   @PropertyDefinition(validate = "notNull")
   private final RollConvention rollConvention;
+  /**
+   * Whether each period ends on or before the start of the next, allowing the periods to be binary searched.
+   */
+  private final transient boolean ordered;
+  /**
+   * The periods, created on demand by {@link #getPeriods()}, null until first requested.
+   */
+  private transient volatile ImmutableList<SchedulePeriod> periodList;
+  /**
+   * The schedule read during deserialization, only set on the instance that is then resolved.
+   */
+  private transient Schedule deserialized;
 
   //-------------------------------------------------------------------------
   /**
@@ -87,6 +120,153 @@ public final class Schedule
         .build();
   }
 
+  /**
+   * Obtains an instance from the packed epoch-day array, without validating or copying.
+   * <p>
+   * The array must be non-empty and consist of four sections of equal length, holding the
+   * adjusted start, adjusted end, unadjusted start and unadjusted end dates of each period.
+   * Each period must have a start before its end.
+   * The array must not be altered after calling this method.
+   * 
+   * @param periods  the packed epoch-days of the periods
+   * @param frequency  the frequency
+   * @param rollConvention  the roll convention
+   * @return the schedule
+   */
+  static Schedule createUnsafe(int[] periods, Frequency frequency, RollConvention rollConvention) {
+    return new Schedule(periods, frequency, rollConvention);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   * 
+   * @param periods  the periods
+   * @param frequency  the frequency
+   * @param rollConvention  the roll convention
+   */
+  @ImmutableConstructor
+  private Schedule(
+      List<SchedulePeriod> periods,
+      Frequency frequency,
+      RollConvention rollConvention) {
+    JodaBeanUtils.notEmpty(periods, "periods");
+    JodaBeanUtils.notNull(frequency, "frequency");
+    JodaBeanUtils.notNull(rollConvention, "rollConvention");
+    int size = periods.size();
+    int[] packed = new int[size * 4];
+    for (int i = 0; i < size; i++) {
+      SchedulePeriod period = periods.get(i);
+      packed[i] = toEpochDay(period.getStartDate());
+      packed[size + i] = toEpochDay(period.getEndDate());
+      packed[size * 2 + i] = toEpochDay(period.getUnadjustedStartDate());
+      packed[size * 3 + i] = toEpochDay(period.getUnadjustedEndDate());
+    }
+    this.periods = packed;
+    this.frequency = frequency;
+    this.rollConvention = rollConvention;
+    this.ordered = isOrdered(packed);
+  }
+
+  /**
+   * Creates an instance from trusted packed epoch-days.
+   * 
+   * @param periods  the packed epoch-days of the periods
+   * @param frequency  the frequency
+   * @param rollConvention  the roll convention
+   */
+  private Schedule(int[] periods, Frequency frequency, RollConvention rollConvention) {
+    this.periods = periods;
+    this.frequency = frequency;
+    this.rollConvention = rollConvention;
+    this.ordered = isOrdered(periods);
+  }
+
+  // checks if each period ends on or before the start of the next
+  private static boolean isOrdered(int[] packed) {
+    int size = packed.length / 4;
+    for (int i = 1; i < size; i++) {
+      if (packed[size + i - 1] > packed[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the schedule using the serialized form of earlier versions, with the periods as a list.
+   * 
+   * @param out  the output stream
+   * @throws IOException if an IO error occurs
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("periods", getPeriods());
+    fields.put("frequency", frequency);
+    fields.put("rollConvention", rollConvention);
+    out.writeFields();
+  }
+
+  /**
+   * Reads the schedule from the serialized form, validating the fields.
+   * 
+   * @param in  the input stream
+   * @throws IOException if an IO error occurs
+   * @throws ClassNotFoundException if a class cannot be found
+   */
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    List<SchedulePeriod> serializedPeriods = (List<SchedulePeriod>) fields.get("periods", null);
+    Frequency serializedFrequency = (Frequency) fields.get("frequency", null);
+    RollConvention serializedRollConvention = (RollConvention) fields.get("rollConvention", null);
+    try {
+      deserialized = new Schedule(serializedPeriods, serializedFrequency, serializedRollConvention);
+    } catch (IllegalArgumentException ex) {
+      InvalidObjectException ioe = new InvalidObjectException(ex.getMessage());
+      ioe.initCause(ex);
+      throw ioe;
+    }
+  }
+
+  /**
+   * Resolves the schedule read by {@link #readObject(ObjectInputStream)}.
+   * 
+   * @return the resolved instance
+   */
+  private Object readResolve() {
+    return deserialized;
+  }
+
+  // converts the date to an epoch-day, which must fit in an int
+  static int toEpochDay(LocalDate date) {
+    long epochDay = date.toEpochDay();
+    if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Date is outside the range supported by the schedule: " + date);
+    }
+    return (int) epochDay;
+  }
+
+  // gets the adjusted start of the period as an epoch-day
+  private int startDay(int index) {
+    return periods[index];
+  }
+
+  // gets the adjusted end of the period as an epoch-day
+  private int endDay(int index) {
+    return periods[size() + index];
+  }
+
+  // gets the unadjusted start of the period as an epoch-day
+  private int unadjustedStartDay(int index) {
+    return periods[size() * 2 + index];
+  }
+
+  // gets the unadjusted end of the period as an epoch-day
+  private int unadjustedEndDay(int index) {
+    return periods[size() * 3 + index];
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the number of periods in the schedule.
@@ -96,7 +276,7 @@ public final class Schedule
    * @return the number of periods
    */
   public int size() {
-    return periods.size();
+    return periods.length / 4;
   }
 
   /**
@@ -111,6 +291,38 @@ public final class Schedule
   }
 
   //-------------------------------------------------------------------------
+  /**
+   * Gets the schedule periods.
+   * <p>
+   * There will be at least one period.
+   * The periods are ordered from earliest to latest.
+   * It is intended that each period is adjacent to the next one, however each
+   * period is independent and non-adjacent periods are allowed.
+   * <p>
+   * The periods are created when this method is first called, and then retained.
+   * Use {@link #size()} and {@link #getPeriod(int)} to access a small number of periods.
+   * 
+   * @return the schedule periods, not empty
+   */
+  public ImmutableList<SchedulePeriod> getPeriods() {
+    // racy single-check, as creating the list more than once is harmless
+    ImmutableList<SchedulePeriod> list = periodList;
+    if (list == null) {
+      list = createPeriods(0, size());
+      periodList = list;
+    }
+    return list;
+  }
+
+  // creates the periods from the start index inclusive to the end index exclusive
+  private ImmutableList<SchedulePeriod> createPeriods(int startIndex, int endIndex) {
+    ImmutableList.Builder<SchedulePeriod> builder = ImmutableList.builder();
+    for (int i = startIndex; i < endIndex; i++) {
+      builder.add(createPeriod(i));
+    }
+    return builder.build();
+  }
+
   /**
    * Gets a schedule period by index.
    * <p>
@@ -121,7 +333,19 @@ public final class Schedule
    * @throws IndexOutOfBoundsException if the index is invalid
    */
   public SchedulePeriod getPeriod(int index) {
-    return periods.get(index);
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Invalid index: " + index + ", size: " + size());
+    }
+    return createPeriod(index);
+  }
+
+  // creates the period at the index
+  private SchedulePeriod createPeriod(int index) {
+    return SchedulePeriod.of(
+        LocalDate.ofEpochDay(startDay(index)),
+        LocalDate.ofEpochDay(endDay(index)),
+        LocalDate.ofEpochDay(unadjustedStartDay(index)),
+        LocalDate.ofEpochDay(unadjustedEndDay(index)));
   }
 
   /**
@@ -130,7 +354,7 @@ public final class Schedule
    * @return the first schedule period
    */
   public SchedulePeriod getFirstPeriod() {
-    return periods.get(0);
+    return createPeriod(0);
   }
 
   /**
@@ -139,7 +363,7 @@ public final class Schedule
    * @return the last schedule period
    */
   public SchedulePeriod getLastPeriod() {
-    return periods.get(periods.size() - 1);
+    return createPeriod(size() - 1);
   }
 
   //-------------------------------------------------------------------------
@@ -153,7 +377,7 @@ public final class Schedule
    */
   @Override
   public LocalDate getStartDate() {
-    return getFirstPeriod().getStartDate();
+    return LocalDate.ofEpochDay(startDay(0));
   }
 
   /**
@@ -166,7 +390,7 @@ public final class Schedule
    */
   @Override
   public LocalDate getEndDate() {
-    return getLastPeriod().getEndDate();
+    return LocalDate.ofEpochDay(endDay(size() - 1));
   }
 
   //-------------------------------------------------------------------------
@@ -184,7 +408,7 @@ public final class Schedule
 
   // checks if there is an initial stub
   private boolean isInitialStub() {
-    return !isTerm() && !getFirstPeriod().isRegular(frequency, rollConvention);
+    return !isTerm() && !isRegular(0);
   }
 
   /**
@@ -201,7 +425,15 @@ public final class Schedule
 
   // checks if there is a final stub
   private boolean isFinalStub() {
-    return !isTerm() && !getLastPeriod().isRegular(frequency, rollConvention);
+    return !isTerm() && !isRegular(size() - 1);
+  }
+
+  // checks if the period at the index is regular, matching SchedulePeriod.isRegular()
+  private boolean isRegular(int index) {
+    LocalDate unadjustedStart = LocalDate.ofEpochDay(unadjustedStartDay(index));
+    LocalDate unadjustedEnd = LocalDate.ofEpochDay(unadjustedEndDay(index));
+    return rollConvention.next(unadjustedStart, frequency).equals(unadjustedEnd) &&
+        rollConvention.previous(unadjustedEnd, frequency).equals(unadjustedStart);
   }
 
   /**
@@ -216,11 +448,11 @@ public final class Schedule
    */
   public ImmutableList<SchedulePeriod> getRegularPeriods() {
     if (isTerm()) {
-      return periods;
+      return getPeriods();
     }
     int startStub = isInitialStub() ? 1 : 0;
     int endStub = isFinalStub() ? 1 : 0;
-    return (startStub == 0 && endStub == 0 ? periods : periods.subList(startStub, periods.size() - endStub));
+    return createPeriods(startStub, size() - endStub);
   }
 
   //-------------------------------------------------------------------------
@@ -237,6 +469,61 @@ public final class Schedule
     return rollConvention == RollConventions.EOM;
   }
 
+  /**
+   * Finds the index of the period that contains the specified date.
+   * <p>
+   * The first matching period is returned.
+   * The adjusted start and end dates of each period are used in the comparison.
+   * The start date is included, the end date is excluded.
+   * The period is found by binary search if each period ends on or before the start
+   * of the next, and by checking each period in turn otherwise.
+   * 
+   * @param date  the date to find
+   * @return the zero-based index of the period that includes the specified date, empty if none
+   */
+  public OptionalInt findPeriodIndex(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    int index = periodIndex(0, date.toEpochDay());
+    return (index >= 0 ? OptionalInt.of(index) : OptionalInt.empty());
+  }
+
+  /**
+   * Finds the index of the period that contains each of the specified dates.
+   * <p>
+   * The dates must be sorted from earliest to latest, but may contain duplicates.
+   * The result has the same size as the input, holding the zero-based index of the
+   * period that contains each date, as per {@link #findPeriodIndex(LocalDate)},
+   * or -1 if the date is not contained in any period.
+   * <p>
+   * Where each period ends on or before the start of the next, the dates are merged with
+   * the periods of this schedule in a single forward pass, galloping over the periods
+   * between each requested date. This is much faster than calling
+   * {@link #findPeriodIndex(LocalDate)} for each date.
+   * 
+   * @param dates  the dates to find, sorted from earliest to latest
+   * @return the index of the period that includes each date, -1 where there is none
+   * @throws IllegalArgumentException if the dates are not sorted
+   */
+  public int[] findPeriodIndices(LocalDate[] dates) {
+    ArgChecker.noNulls(dates, "dates");
+    int[] result = new int[dates.length];
+    int position = 0;
+    long previous = Long.MIN_VALUE;
+    for (int k = 0; k < dates.length; k++) {
+      long epochDay = dates[k].toEpochDay();
+      if (epochDay < previous) {
+        throw new IllegalArgumentException(Messages.format(
+            "Dates must be sorted but: {} is before: {}", dates[k], dates[k - 1]));
+      }
+      previous = epochDay;
+      if (ordered) {
+        position = gallop(position, epochDay);
+      }
+      result[k] = periodIndex(position, epochDay);
+    }
+    return result;
+  }
+
   /**
    * Finds the period end date given a date in the period.
    * <p>
@@ -246,14 +533,78 @@ public final class Schedule
    * 
    * @param date  the date to find
    * @return the end date of the period that includes the specified date
+   * @throws IllegalArgumentException if the date is not contained in any period
    */
   @Override
   public LocalDate getPeriodEndDate(LocalDate date) {
-    return periods.stream()
-        .filter(p -> p.contains(date))
-        .map(p -> p.getEndDate())
-        .findFirst()
-        .orElseThrow(() -> new IllegalArgumentException("Date is not contained in any period"));
+    ArgChecker.notNull(date, "date");
+    return LocalDate.ofEpochDay(endDay(containingPeriodIndex(date.toEpochDay())));
+  }
+
+  /**
+   * Finds the period end date given a date in the period, expressed as epoch-days.
+   * <p>
+   * This is equivalent to {@link #getPeriodEndDate(LocalDate)}, but expressed using epoch-days.
+   * 
+   * @param epochDay  the date to find, as an epoch-day
+   * @return the end date of the period that includes the specified date, as an epoch-day
+   * @throws IllegalArgumentException if the date is not contained in any period
+   */
+  @Override
+  public long getPeriodEndEpochDay(long epochDay) {
+    return endDay(containingPeriodIndex(epochDay));
+  }
+
+  // finds the index of the period containing the epoch-day, throwing an exception if none
+  private int containingPeriodIndex(long epochDay) {
+    int index = periodIndex(0, epochDay);
+    if (index < 0) {
+      throw new IllegalArgumentException("Date is not contained in any period");
+    }
+    return index;
+  }
+
+  // finds the index of the period containing the epoch-day, -1 if none, searching forward from the index
+  // this finds the first period that ends after the date, then checks it starts on or before the date
+  // if the periods are not ordered, each period is checked in turn instead
+  private int periodIndex(int from, long epochDay) {
+    if (ordered == false) {
+      for (int i = from; i < size(); i++) {
+        if (startDay(i) <= epochDay && epochDay < endDay(i)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    int index = gallop(from, epochDay);
+    return (index < size() && startDay(index) <= epochDay ? index : -1);
+  }
+
+  // finds the index of the first period ending after the epoch-day, searching forward from the index
+  // the step doubles until the epoch-day is passed, then the last step is binary searched
+  private int gallop(int from, long epochDay) {
+    int size = size();
+    if (from >= size || endDay(from) > epochDay) {
+      return from;
+    }
+    // the period at low ends on or before the epoch-day, the period at high ends after it, or high is the size
+    int low = from;
+    int step = 1;
+    int high = from + 1;
+    while (high < size && endDay(high) <= epochDay) {
+      low = high;
+      step <<= 1;
+      high = (step < size - low ? low + step : size);
+    }
+    while (high - low > 1) {
+      int mid = (low + high) >>> 1;
+      if (endDay(mid) <= epochDay) {
+        low = mid;
+      } else {
+        high = mid;
+      }
+    }
+    return high;
   }
 
   //-------------------------------------------------------------------------
@@ -268,13 +619,9 @@ public final class Schedule
     if (isTerm()) {
       return this;
     }
-    SchedulePeriod first = getFirstPeriod();
-    SchedulePeriod last = getLastPeriod();
-    return Schedule.ofTerm(SchedulePeriod.of(
-        first.getStartDate(),
-        last.getEndDate(),
-        first.getUnadjustedStartDate(),
-        last.getUnadjustedEndDate()));
+    int last = size() - 1;
+    int[] merged = {startDay(0), endDay(last), unadjustedStartDay(0), unadjustedEndDay(last)};
+    return new Schedule(merged, Frequency.TERM, RollConventions.NONE);
   }
 
   /**
@@ -308,47 +655,79 @@ public final class Schedule
     if (isTerm() || groupSize == 1) {
       return this;
     }
-    List<SchedulePeriod> newSchedule = new ArrayList<>();
-    // retain initial stub
-    Optional<SchedulePeriod> initialStub = getInitialStub();
-    if (initialStub.isPresent()) {
-      newSchedule.add(initialStub.get());
-    }
-    // merge regular, handling stubs via min/max
-    ImmutableList<SchedulePeriod> regularPeriods = getRegularPeriods();
-    int regularSize = regularPeriods.size();
+    // the regular periods exclude any stub, which is retained unmerged
+    int size = size();
+    int regularStart = isInitialStub() ? 1 : 0;
+    int regularEnd = size - (isFinalStub() ? 1 : 0);
+    int regularSize = regularEnd - regularStart;
     int remainder = regularSize % groupSize;
     int startIndex = (rollForwards || remainder == 0 ? 0 : -(groupSize - remainder));
+    int mergedRegular = (regularSize - startIndex + groupSize - 1) / groupSize;
+    int newSize = regularStart + mergedRegular + (size - regularEnd);
+    // each new period runs from the first to the last period of a group, handling stubs via min/max
+    int[] merged = new int[newSize * 4];
+    int index = 0;
+    if (regularStart == 1) {
+      copyPeriod(0, merged, newSize, index++);
+    }
     for (int i = startIndex; i < regularSize; i += groupSize) {
-      int from = Math.max(i, 0);
-      int to = Math.min(i + groupSize, regularSize);
-      newSchedule.add(createSchedulePeriod(regularPeriods.subList(from, to)));
+      int from = regularStart + Math.max(i, 0);
+      int to = regularStart + Math.min(i + groupSize, regularSize) - 1;
+      merged[index] = startDay(from);
+      merged[newSize + index] = endDay(to);
+      merged[newSize * 2 + index] = unadjustedStartDay(from);
+      merged[newSize * 3 + index] = unadjustedEndDay(to);
+      index++;
     }
-    // retain final stub
-    Optional<SchedulePeriod> finalStub = getFinalStub();
-    if (finalStub.isPresent()) {
-      newSchedule.add(finalStub.get());
+    if (regularEnd < size) {
+      copyPeriod(size - 1, merged, newSize, index);
     }
-    // build schedule
-    return Schedule.builder()
-        .periods(newSchedule)
-        .frequency(Frequency.of(frequency.getPeriod().multipliedBy(groupSize)))
-        .rollConvention(rollConvention)
-        .build();
+    return new Schedule(merged, Frequency.of(frequency.getPeriod().multipliedBy(groupSize)), rollConvention);
   }
 
-  // creates a schedule period
-  private SchedulePeriod createSchedulePeriod(List<SchedulePeriod> accruals) {
-    SchedulePeriod first = accruals.get(0);
-    if (accruals.size() == 1) {
-      return first;
+  // copies the period at the index into the packed array of the specified size
+  private void copyPeriod(int index, int[] packed, int packedSize, int packedIndex) {
+    packed[packedIndex] = startDay(index);
+    packed[packedSize + packedIndex] = endDay(index);
+    packed[packedSize * 2 + packedIndex] = unadjustedStartDay(index);
+    packed[packedSize * 3 + packedIndex] = unadjustedEndDay(index);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this schedule is equal to another schedule.
+   * <p>
+   * The comparison checks the dates of each period, the frequency and the roll convention.
+   * 
+   * @param obj  the other schedule, null returns false
+   * @return true if equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
     }
-    SchedulePeriod last = accruals.get(accruals.size() - 1);
-    return SchedulePeriod.of(
-        first.getStartDate(),
-        last.getEndDate(),
-        first.getUnadjustedStartDate(),
-        last.getUnadjustedEndDate());
+    if (obj != null && obj.getClass() == this.getClass()) {
+      Schedule other = (Schedule) obj;
+      return Arrays.equals(periods, other.periods) &&
+          frequency.equals(other.frequency) &&
+          rollConvention.equals(other.rollConvention);
+    }
+    return false;
+  }
+
+  /**
+   * Returns a suitable hash code for the schedule.
+   * 
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + Arrays.hashCode(periods);
+    hash = hash * 31 + frequency.hashCode();
+    hash = hash * 31 + rollConvention.hashCode();
+    return hash;
   }
 
   //------------------------- AUTOGENERATED START -------------------------
@@ -378,18 +757,6 @@ public final class Schedule
     return new Schedule.Builder();
   }
 
-  private Schedule(
-      List<SchedulePeriod> periods,
-      Frequency frequency,
-      RollConvention rollConvention) {
-    JodaBeanUtils.notEmpty(periods, "periods");
-    JodaBeanUtils.notNull(frequency, "frequency");
-    JodaBeanUtils.notNull(rollConvention, "rollConvention");
-    this.periods = ImmutableList.copyOf(periods);
-    this.frequency = frequency;
-    this.rollConvention = rollConvention;
-  }
-
   @Override
   public Schedule.Meta metaBean() {
     return Schedule.Meta.INSTANCE;
@@ -405,20 +772,6 @@ public final class Schedule
     return metaBean().metaPropertyMap().keySet();
   }
 
-  //-----------------------------------------------------------------------
-  /**
-   * Gets the schedule periods.
-   * <p>
-   * There will be at least one period.
-   * The periods are ordered from earliest to latest.
-   * It is intended that each period is adjacent to the next one, however each
-   * period is independent and non-adjacent periods are allowed.
-   * @return the value of the property, not empty
-   */
-  public ImmutableList<SchedulePeriod> getPeriods() {
-    return periods;
-  }
-
   //-----------------------------------------------------------------------
   /**
    * Gets the periodic frequency used when building the schedule.
@@ -452,29 +805,6 @@ public final class Schedule
     return new Builder(this);
   }
 
-  @Override
-  public boolean equals(Object obj) {
-    if (obj == this) {
-      return true;
-    }
-    if (obj != null && obj.getClass() == this.getClass()) {
-      Schedule other = (Schedule) obj;
-      return JodaBeanUtils.equal(getPeriods(), other.getPeriods()) &&
-          JodaBeanUtils.equal(getFrequency(), other.getFrequency()) &&
-          JodaBeanUtils.equal(getRollConvention(), other.getRollConvention());
-    }
-    return false;
-  }
-
-  @Override
-  public int hashCode() {
-    int hash = getClass().hashCode();
-    hash = hash * 31 + JodaBeanUtils.hashCode(getPeriods());
-    hash = hash * 31 + JodaBeanUtils.hashCode(getFrequency());
-    hash = hash * 31 + JodaBeanUtils.hashCode(getRollConvention());
-    return hash;
-  }
-
   @Override
   public String toString() {
     StringBuilder buf = new StringBuilder(128);
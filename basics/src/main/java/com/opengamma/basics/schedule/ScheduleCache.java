@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.opengamma.collect.ArgChecker;
+
+/**
+ * A bounded cache of schedules, keyed by the periodic schedule definition.
+ * <p>
+ * Many financial instruments share identical schedule definitions.
+ * As both {@link PeriodicSchedule} and {@link Schedule} are immutable, the schedule
+ * created from a definition can be safely shared between all equal definitions.
+ * <p>
+ * A cache may be used explicitly, via {@link #createSchedule(PeriodicSchedule)}.
+ * Alternatively, a cache may be installed globally using {@link #setGlobal(ScheduleCache)},
+ * in which case it is used by {@link PeriodicSchedule#createSchedule()}.
+ * No cache is installed by default.
+ * <p>
+ * The cache is bounded either by the number of schedules or by the total number of periods
+ * in the schedules, with the least recently used schedules evicted first.
+ * Statistics on the hits and misses are recorded.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ScheduleCache {
+
+  /**
+   * The cache installed globally, null if none.
+   */
+  private static volatile ScheduleCache global;
+
+  /**
+   * The underlying cache.
+   */
+  private final Cache<PeriodicSchedule, Schedule> cache;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a cache bounded by the number of schedules.
+   *
+   * @param maximumSize  the maximum number of schedules to retain
+   * @return the cache
+   * @throws IllegalArgumentException if the maximum size is negative
+   */
+  public static ScheduleCache ofMaximumSize(long maximumSize) {
+    ArgChecker.notNegative(maximumSize, "maximumSize");
+    return new ScheduleCache(CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .recordStats()
+        .build());
+  }
+
+  /**
+   * Obtains a cache bounded by the total number of periods in the schedules.
+   * <p>
+   * This bounds the memory used by the cache more closely than the number of schedules,
+   * as a long schedule with a short frequency may have hundreds of periods.
+   *
+   * @param maximumPeriods  the maximum total number of periods to retain
+   * @return the cache
+   * @throws IllegalArgumentException if the maximum number of periods is negative
+   */
+  public static ScheduleCache ofMaximumWeight(long maximumPeriods) {
+    ArgChecker.notNegative(maximumPeriods, "maximumPeriods");
+    return new ScheduleCache(CacheBuilder.newBuilder()
+        .maximumWeight(maximumPeriods)
+        .weigher((PeriodicSchedule definition, Schedule schedule) -> schedule.size())
+        .recordStats()
+        .build());
+  }
+
+  /**
+   * Restricted constructor.
+   *
+   * @param cache  the underlying cache
+   */
+  private ScheduleCache(Cache<PeriodicSchedule, Schedule> cache) {
+    this.cache = cache;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the cache installed globally.
+   *
+   * @return the global cache, empty if none is installed
+   */
+  public static Optional<ScheduleCache> getGlobal() {
+    return Optional.ofNullable(global);
+  }
+
+  /**
+   * Installs a cache globally, used by {@link PeriodicSchedule#createSchedule()}.
+   * <p>
+   * Installing a cache replaces any cache previously installed.
+   *
+   * @param cache  the cache to install, null to remove the global cache
+   */
+  public static void setGlobal(ScheduleCache cache) {
+    global = cache;
+  }
+
+  // gets the cache installed globally, null if none
+  static ScheduleCache globalOrNull() {
+    return global;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the schedule from the definition, returning a cached schedule if available.
+   * <p>
+   * The result is equal to that of {@link PeriodicSchedule#createSchedule()}.
+   * If the definition is invalid, the exception is thrown and nothing is cached.
+   *
+   * @param definition  the schedule definition
+   * @return the schedule
+   * @throws ScheduleException if the definition is invalid
+   */
+  public Schedule createSchedule(PeriodicSchedule definition) {
+    ArgChecker.notNull(definition, "definition");
+    try {
+      return cache.get(definition, definition::generateSchedule);
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      throw Throwables.propagate(ex.getCause());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the approximate number of schedules in the cache.
+   *
+   * @return the number of schedules
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Gets the statistics of the cache, including the number of hits and misses.
+   *
+   * @return the statistics
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Removes all schedules from the cache.
+   * <p>
+   * The statistics are not reset.
+   */
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "ScheduleCache[size=" + cache.size() + ", " + cache.stats() + "]";
+  }
+
+}
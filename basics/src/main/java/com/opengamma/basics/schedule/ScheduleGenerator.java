@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.UnaryOperator;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.basics.date.BusinessDayAdjustment;
+import com.opengamma.collect.ArgChecker;
+
+/**
+ * Generates the schedules of many periodic schedule definitions at once.
+ * <p>
+ * The result is the same as calling {@link PeriodicSchedule#createSchedule()} on each definition,
+ * however work is shared between definitions and the generation runs in parallel.
+ * <p>
+ * The definitions are grouped by frequency, effective roll convention and business day adjustment.
+ * Within a group, identical definitions are only generated once, and the business day
+ * adjustment of each distinct date is only calculated once.
+ * The groups are split into tasks that are run using a fork-join pool.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ScheduleGenerator {
+
+  /**
+   * The maximum number of definitions generated by a single task.
+   */
+  private static final int TASK_SIZE = 1024;
+
+  /**
+   * The pool used to run the tasks.
+   */
+  private final ForkJoinPool pool;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that uses the common fork-join pool.
+   *
+   * @return the generator
+   */
+  public static ScheduleGenerator ofCommonPool() {
+    return new ScheduleGenerator(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Obtains an instance that uses the specified fork-join pool.
+   *
+   * @param pool  the pool used to run the tasks
+   * @return the generator
+   */
+  public static ScheduleGenerator of(ForkJoinPool pool) {
+    ArgChecker.notNull(pool, "pool");
+    return new ScheduleGenerator(pool);
+  }
+
+  /**
+   * Restricted constructor.
+   *
+   * @param pool  the pool used to run the tasks
+   */
+  private ScheduleGenerator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the schedule of each definition.
+   * <p>
+   * The result contains the schedule of each definition, in the same order as the input.
+   * Identical definitions may share the same schedule instance.
+   *
+   * @param definitions  the schedule definitions
+   * @return the schedules, in the same order as the definitions
+   * @throws ScheduleException if any definition is invalid
+   */
+  public ImmutableList<Schedule> createSchedules(List<PeriodicSchedule> definitions) {
+    ArgChecker.noNulls(definitions, "definitions");
+    PeriodicSchedule[] defs = definitions.toArray(new PeriodicSchedule[definitions.size()]);
+    RollConvention[] rollConvs = new RollConvention[defs.length];
+    // group by the properties that allow work to be shared, retaining the order of the definitions
+    Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < defs.length; i++) {
+      rollConvs[i] = defs[i].getEffectiveRollConvention();
+      List<Object> key = Arrays.asList(defs[i].getFrequency(), rollConvs[i], defs[i].getBusinessDayAdjustment());
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+    }
+    // split each group into tasks, each of which writes to a distinct set of indices in the result
+    Schedule[] results = new Schedule[defs.length];
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (List<Integer> group : groups.values()) {
+      for (int start = 0; start < group.size(); start += TASK_SIZE) {
+        List<Integer> indices = group.subList(start, Math.min(start + TASK_SIZE, group.size()));
+        tasks.add(pool.submit(() -> generate(defs, rollConvs, indices, results)));
+      }
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+    return ImmutableList.copyOf(results);
+  }
+
+  // generates the schedules of part of a group, sharing the adjusted dates and identical definitions
+  private static void generate(
+      PeriodicSchedule[] defs,
+      RollConvention[] rollConvs,
+      List<Integer> indices,
+      Schedule[] results) {
+
+    BusinessDayAdjustment adjustment = defs[indices.get(0)].getBusinessDayAdjustment();
+    Map<LocalDate, LocalDate> adjusted = new HashMap<>();
+    UnaryOperator<LocalDate[]> adjuster = dates -> adjust(dates, adjustment, adjusted);
+    Map<PeriodicSchedule, Schedule> created = new HashMap<>();
+    for (int index : indices) {
+      Schedule schedule = created.get(defs[index]);
+      if (schedule == null) {
+        schedule = defs[index].createSchedule(rollConvs[index], adjuster);
+        created.put(defs[index], schedule);
+      }
+      results[index] = schedule;
+    }
+  }
+
+  // adjusts the dates, only calculating the adjustment of dates that have not been seen before
+  private static LocalDate[] adjust(
+      LocalDate[] dates,
+      BusinessDayAdjustment adjustment,
+      Map<LocalDate, LocalDate> adjusted) {
+
+    LocalDate[] result = new LocalDate[dates.length];
+    LocalDate[] missing = new LocalDate[dates.length];
+    int missingCount = 0;
+    for (int i = 0; i < dates.length; i++) {
+      result[i] = adjusted.get(dates[i]);
+      if (result[i] == null) {
+        missing[missingCount++] = dates[i];
+      }
+    }
+    if (missingCount > 0) {
+      LocalDate[] calculated = adjustment.adjustAll(Arrays.copyOf(missing, missingCount));
+      int m = 0;
+      for (int i = 0; i < dates.length; i++) {
+        if (result[i] == null) {
+          result[i] = calculated[m++];
+          adjusted.put(dates[i], result[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+}
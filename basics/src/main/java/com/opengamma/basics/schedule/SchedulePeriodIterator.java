@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.opengamma.basics.date.BusinessDayAdjustment;
+
+/**
+ * Iterator that generates the periods of a periodic schedule on demand.
+ * <p>
+ * The unadjusted dates are obtained from an {@link UnadjustedDateIterator}, with each
+ * date adjusted as it is reached. When generating backwards, the periods are returned
+ * in reverse order, latest first.
+ * <p>
+ * Duplicate dates are detected as each period is generated, by comparing adjacent dates.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+final class SchedulePeriodIterator implements Iterator<SchedulePeriod> {
+
+  /**
+   * The schedule definition.
+   */
+  private final PeriodicSchedule definition;
+  /**
+   * The underlying iterator of unadjusted dates.
+   */
+  private final UnadjustedDateIterator dates;
+  /**
+   * The adjustment to apply to the last date, null to use the standard adjustment.
+   */
+  private final BusinessDayAdjustment lastAdjustment;
+  /**
+   * The previous unadjusted date.
+   */
+  private LocalDate previousUnadjusted;
+  /**
+   * The previous adjusted date.
+   */
+  private LocalDate previousAdjusted;
+
+  /**
+   * Creates an instance.
+   *
+   * @param definition  the schedule definition
+   * @param dates  the iterator of unadjusted dates, which must not have been used
+   */
+  SchedulePeriodIterator(PeriodicSchedule definition, UnadjustedDateIterator dates) {
+    BusinessDayAdjustment startAdjustment = definition.getStartDateBusinessDayAdjustment().orElse(null);
+    BusinessDayAdjustment endAdjustment = definition.getEndDateBusinessDayAdjustment().orElse(null);
+    this.definition = definition;
+    this.dates = dates;
+    this.lastAdjustment = (dates.isForwards() ? endAdjustment : startAdjustment);
+    this.previousUnadjusted = dates.next();
+    this.previousAdjusted = adjust(previousUnadjusted, dates.isForwards() ? startAdjustment : endAdjustment);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean hasNext() {
+    return dates.hasNext();
+  }
+
+  @Override
+  public SchedulePeriod next() {
+    if (dates.hasNext() == false) {
+      throw new NoSuchElementException("No more periods");
+    }
+    LocalDate unadjusted = dates.next();
+    if (unadjusted.equals(previousUnadjusted)) {
+      throw new ScheduleException(
+          definition, "Schedule calculation resulted in duplicate unadjusted dates: {}", unadjusted);
+    }
+    LocalDate adjusted = adjust(unadjusted, dates.hasNext() ? null : lastAdjustment);
+    if (adjusted.equals(previousAdjusted)) {
+      throw new ScheduleException(
+          definition, "Schedule calculation resulted in duplicate adjusted dates: {}", adjusted);
+    }
+    SchedulePeriod period = (dates.isForwards() ?
+        SchedulePeriod.of(previousAdjusted, adjusted, previousUnadjusted, unadjusted) :
+        SchedulePeriod.of(adjusted, previousAdjusted, unadjusted, previousUnadjusted));
+    previousUnadjusted = unadjusted;
+    previousAdjusted = adjusted;
+    return period;
+  }
+
+  // adjusts the date, using the specific adjustment for the start or end date if present
+  private LocalDate adjust(LocalDate unadjusted, BusinessDayAdjustment specificAdjustment) {
+    return (specificAdjustment != null ?
+        specificAdjustment.adjust(unadjusted) :
+        definition.getBusinessDayAdjustment().adjust(unadjusted));
+  }
+
+}
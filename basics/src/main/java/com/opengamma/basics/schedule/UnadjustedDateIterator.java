@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator that generates the unadjusted dates of a periodic schedule on demand.
+ * <p>
+ * The dates are generated by repeatedly applying the roll convention, either forwards
+ * from the start of the schedule or backwards from the end of the schedule.
+ * When generating backwards, the dates are returned in reverse order, latest first.
+ * Each date is only calculated when it is requested, with a look-ahead of one date
+ * used to convert a short stub into a long stub.
+ * <p>
+ * The explicit initial and final stub dates are included.
+ * The 'Term' frequency is not supported.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+final class UnadjustedDateIterator implements Iterator<LocalDate> {
+
+  /**
+   * The stage at which the explicit stub date before the regular dates is returned, if present.
+   */
+  private static final int OUTER_FROM = 0;
+  /**
+   * The stage at which the first regular date is returned.
+   */
+  private static final int REGULAR_FROM = 1;
+  /**
+   * The stage at which the rolled regular dates are returned.
+   */
+  private static final int REGULAR = 2;
+  /**
+   * The stage at which the last regular date is returned.
+   */
+  private static final int REGULAR_TO = 3;
+  /**
+   * The stage at which the explicit stub date after the regular dates is returned, if present.
+   */
+  private static final int OUTER_TO = 4;
+  /**
+   * The stage once all dates have been returned.
+   */
+  private static final int COMPLETE = 5;
+
+  /**
+   * The schedule definition, used for error messages.
+   */
+  private final PeriodicSchedule definition;
+  /**
+   * The roll convention.
+   */
+  private final RollConvention rollConvention;
+  /**
+   * The implicit stub convention, applying to the regular dates.
+   */
+  private final StubConvention stubConvention;
+  /**
+   * Whether the dates are generated forwards (true) or backwards (false).
+   */
+  private final boolean forwards;
+  /**
+   * The explicit stub date before the regular dates, in the direction of generation, null if none.
+   */
+  private final LocalDate outerFrom;
+  /**
+   * The regular date that generation starts from.
+   */
+  private final LocalDate regularFrom;
+  /**
+   * The regular date that generation finishes at.
+   */
+  private final LocalDate regularTo;
+  /**
+   * The explicit stub date after the regular dates, in the direction of generation, null if none.
+   */
+  private final LocalDate outerTo;
+  /**
+   * The current stage.
+   */
+  private int stage;
+  /**
+   * The next date obtained by rolling, used while returning the rolled regular dates.
+   */
+  private LocalDate rolled;
+
+  /**
+   * Creates an instance, validating that the roll convention matches the date generation starts from.
+   *
+   * @param definition  the schedule definition
+   * @param rollConvention  the effective roll convention
+   * @param stubConvention  the implicit stub convention
+   * @param forwards  whether to generate forwards (true) or backwards (false)
+   * @throws ScheduleException if the roll convention does not match
+   */
+  UnadjustedDateIterator(
+      PeriodicSchedule definition,
+      RollConvention rollConvention,
+      StubConvention stubConvention,
+      boolean forwards) {
+
+    LocalDate start = definition.getStartDate();
+    LocalDate end = definition.getEndDate();
+    LocalDate regStart = definition.getEffectiveFirstRegularStartDate();
+    LocalDate regEnd = definition.getEffectiveLastRegularEndDate();
+    this.definition = definition;
+    this.rollConvention = rollConvention;
+    this.stubConvention = stubConvention;
+    this.forwards = forwards;
+    this.regularFrom = (forwards ? regStart : regEnd);
+    this.regularTo = (forwards ? regEnd : regStart);
+    this.outerFrom = (forwards ? explicit(start, regStart) : explicit(end, regEnd));
+    this.outerTo = (forwards ? explicit(end, regEnd) : explicit(start, regStart));
+    if (rollConvention.matches(regularFrom) == false) {
+      throw new ScheduleException(
+          definition, "Date '{}' does not match roll convention '{}' when starting to roll {}",
+          regularFrom, rollConvention, forwards ? "forwards" : "backwards");
+    }
+  }
+
+  // returns the explicit stub date, or null if it matches the regular date
+  private static LocalDate explicit(LocalDate date, LocalDate regularDate) {
+    return (date.equals(regularDate) ? null : date);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the dates are generated forwards.
+   *
+   * @return true if forwards, false if backwards
+   */
+  boolean isForwards() {
+    return forwards;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return stage < COMPLETE && !(stage == OUTER_TO && outerTo == null);
+  }
+
+  @Override
+  public LocalDate next() {
+    if (stage == OUTER_FROM) {
+      stage = REGULAR_FROM;
+      if (outerFrom != null) {
+        return outerFrom;
+      }
+    }
+    if (stage == REGULAR_FROM) {
+      stage = REGULAR;
+      rolled = roll(regularFrom);
+      return regularFrom;
+    }
+    if (stage == REGULAR) {
+      while (isBefore(rolled, regularTo)) {
+        LocalDate date = rolled;
+        rolled = roll(date);
+        // the date is the last regular date, check if it is followed by a stub
+        if (isBefore(rolled, regularTo) == false && rolled.equals(regularTo) == false) {
+          if (stubConvention == StubConvention.NONE) {
+            throw new ScheduleException(
+                definition, "Period '{}' to '{}' resulted in a disallowed stub with frequency '{}'",
+                definition.getEffectiveFirstRegularStartDate(), definition.getEffectiveLastRegularEndDate(),
+                definition.getFrequency());
+          }
+          // convert short stub to long stub
+          if (stubConvention.isLong()) {
+            continue;
+          }
+        }
+        return date;
+      }
+      stage = REGULAR_TO;
+    }
+    if (stage == REGULAR_TO) {
+      stage = OUTER_TO;
+      return regularTo;
+    }
+    if (stage == OUTER_TO && outerTo != null) {
+      stage = COMPLETE;
+      return outerTo;
+    }
+    throw new NoSuchElementException("No more dates");
+  }
+
+  // rolls the date by the frequency in the direction of generation
+  private LocalDate roll(LocalDate date) {
+    return (forwards ?
+        rollConvention.next(date, definition.getFrequency()) :
+        rollConvention.previous(date, definition.getFrequency()));
+  }
+
+  // checks if the first date is before the second in the direction of generation
+  private boolean isBefore(LocalDate date, LocalDate other) {
+    return (forwards ? date.isBefore(other) : date.isAfter(other));
+  }
+
+}
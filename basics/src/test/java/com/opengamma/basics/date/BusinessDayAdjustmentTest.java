@@ -8,7 +8,9 @@ package com.opengamma.basics.date;
 import static com.opengamma.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
 import static com.opengamma.basics.date.HolidayCalendars.SAT_SUN;
 import static com.opengamma.collect.TestHelper.assertSerialization;
+import static com.opengamma.collect.TestHelper.assertThrows;
 import static com.opengamma.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.collect.TestHelper.date;
 import static org.testng.Assert.assertEquals;
 
 import java.time.LocalDate;
@@ -34,6 +36,15 @@ public class BusinessDayAdjustmentTest {
     assertEquals(test.adjust(input), expected);
   }
 
+  public void test_adjustAll() {
+    BusinessDayAdjustment test = BusinessDayAdjustment.of(MODIFIED_FOLLOWING, SAT_SUN);
+    LocalDate[] dates = {date(2014, 8, 29), date(2014, 8, 30), date(2014, 11, 1), date(2014, 11, 3)};
+    LocalDate[] expected = {date(2014, 8, 29), date(2014, 8, 29), date(2014, 11, 3), date(2014, 11, 3)};
+    assertEquals(test.adjustAll(dates), expected);
+    assertEquals(test.adjustAll(new LocalDate[0]), new LocalDate[0]);
+    assertThrows(() -> test.adjustAll((LocalDate[]) null), IllegalArgumentException.class);
+  }
+
   public void test_noAdjust_constant() {
     BusinessDayAdjustment test = BusinessDayAdjustment.NONE;
     assertEquals(test.getConvention(), BusinessDayConventions.NO_ADJUST);
@@ -22,6 +22,7 @@ import static java.time.DayOfWeek.SUNDAY;
 import static org.testng.Assert.assertEquals;
 
 import java.time.LocalDate;
+import java.util.stream.Stream;
 
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -183,6 +184,35 @@ public class BusinessDayConventionTest {
     assertEquals(NEAREST.adjust(MON_2014_07_14, cal), TUE_2014_07_15);
   }
 
+  @Test(dataProvider = "types")
+  public void test_adjustAll(BusinessDayConvention type) {
+    LocalDate[] dates = Stream.iterate(LocalDate.of(2014, 1, 1), date -> date.plusDays(1))
+        .limit(365)
+        .toArray(LocalDate[]::new);
+    LocalDate[] test = type.adjustAll(dates, HolidayCalendars.GBLO);
+    assertEquals(test.length, dates.length);
+    for (int i = 0; i < dates.length; i++) {
+      LocalDate expected = type.adjust(dates[i], HolidayCalendars.GBLO);
+      assertEquals(test[i], expected, dates[i].toString());
+    }
+  }
+
+  public void test_adjustAll_noAdjustOutsideCalendarRange() {
+    // the calendar only knows about 2014, but 'NoAdjust' never consults it
+    HolidayCalendar cal = ImmutableHolidayCalendar.of("Test", ImmutableList.of(MON_2014_07_14), SATURDAY, SUNDAY);
+    LocalDate date = LocalDate.of(2020, 1, 1);
+    assertEquals(NO_ADJUST.adjust(date, cal), date);
+    assertEquals(NO_ADJUST.adjustAll(new LocalDate[] {date}, cal), new LocalDate[] {date});
+    assertEquals(BusinessDayAdjustment.of(NO_ADJUST, cal).adjustAll(new LocalDate[] {date}), new LocalDate[] {date});
+  }
+
+  @Test(dataProvider = "types")
+  public void test_adjustAll_null(BusinessDayConvention type) {
+    assertThrows(() -> type.adjustAll((LocalDate[]) null, HolidayCalendars.NO_HOLIDAYS), IllegalArgumentException.class);
+    assertThrows(() -> type.adjustAll(new LocalDate[] {null}, HolidayCalendars.NO_HOLIDAYS), IllegalArgumentException.class);
+    assertThrows(() -> type.adjustAll(new LocalDate[0], null), IllegalArgumentException.class);
+  }
+
   //-------------------------------------------------------------------------
   @DataProvider(name = "name")
   static Object[][] data_name() {
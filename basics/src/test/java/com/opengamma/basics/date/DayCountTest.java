@@ -31,6 +31,7 @@ import static com.opengamma.collect.TestHelper.coverEnum;
 import static com.opengamma.collect.TestHelper.coverPrivateConstructor;
 import static org.testng.Assert.assertEquals;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 
 import org.testng.annotations.DataProvider;
@@ -289,6 +290,80 @@ public class DayCountTest {
     assertEquals(dayCount.yearFraction(date1, date2), expected, 0d);
   }
 
+  @Test(dataProvider = "yearFraction")
+  public void test_yearFraction_epochDay(DayCount dayCount, int y1, int m1, int d1, int y2, int m2, int d2, Double value) {
+    double expected = (value == SIMPLE_30_360 ? calc360(y1, m1, d1, y2, m2, d2) : value);
+    long epochDay1 = LocalDate.of(y1, m1, d1).toEpochDay();
+    long epochDay2 = LocalDate.of(y2, m2, d2).toEpochDay();
+    assertEquals(dayCount.yearFraction(epochDay1, epochDay2, DayCounts.SIMPLE_SCHEDULE_INFO), expected, 0d);
+  }
+
+  @Test(dataProvider = "types")
+  public void test_yearFraction_epochDay_matchesLocalDate(DayCount type) {
+    if (type == ACT_ACT_ICMA || type == ACT_365L) {
+      // these need schedule information that matches the dates
+      ScheduleInfo info = new Info(JAN_01, JAN_01_NEXT, JAN_01_NEXT, false, P12M);
+      assertEquals(
+          type.yearFraction(JAN_01.toEpochDay(), JUL_01.toEpochDay(), info),
+          type.yearFraction(JAN_01, JUL_01, info), 0d);
+      return;
+    }
+    int[] offsets = {0, 1, 2, 27, 28, 29, 30, 31, 59, 60, 89, 91, 182, 365, 366, 730, 1000, 3653};
+    for (LocalDate start = LocalDate.of(1999, 11, 28); start.getYear() < 2001; start = start.plusDays(3)) {
+      for (int offset : offsets) {
+        LocalDate end = start.plusDays(offset);
+        for (boolean eom : new boolean[] {true, false}) {
+          ScheduleInfo info = new Info(start, end, end, eom, P12M);
+          ScheduleInfo infoOtherEnd = new Info(start, end.plusDays(1), end, eom, P12M);
+          assertBitIdentical(type, start, end, info);
+          assertBitIdentical(type, start, end, infoOtherEnd);
+        }
+      }
+    }
+    ScheduleInfo info = new Info(true);
+    assertBitIdentical(type, LocalDate.of(-500, 2, 28), LocalDate.of(-499, 12, 31), info);
+    assertBitIdentical(type, LocalDate.of(1600, 2, 29), LocalDate.of(1700, 2, 28), info);
+    assertBitIdentical(type, LocalDate.of(2099, 12, 31), LocalDate.of(2100, 3, 1), info);
+  }
+
+  private static void assertBitIdentical(DayCount type, LocalDate start, LocalDate end, ScheduleInfo info) {
+    double expected = type.yearFraction(start, end, info);
+    double test = type.yearFraction(start.toEpochDay(), end.toEpochDay(), info);
+    assertEquals(Double.doubleToRawLongBits(test), Double.doubleToRawLongBits(expected), start + " " + end);
+  }
+
+  @Test(dataProvider = "types")
+  public void test_yearFraction_epochDay_wrongOrder(DayCount type) {
+    assertThrows(
+        () -> type.yearFraction(JAN_02.toEpochDay(), JAN_01.toEpochDay(), DayCounts.SIMPLE_SCHEDULE_INFO),
+        IllegalArgumentException.class);
+    assertThrows(
+        () -> type.yearFraction(JAN_01.toEpochDay(), JAN_02.toEpochDay(), null),
+        IllegalArgumentException.class);
+    assertThrows(
+        () -> type.yearFraction(JAN_01.toEpochDay(), Long.MAX_VALUE, DayCounts.SIMPLE_SCHEDULE_INFO),
+        DateTimeException.class);
+  }
+
+  public void test_yearFractions() {
+    long[] first = {JAN_01.toEpochDay(), JAN_01.toEpochDay(), JAN_02.toEpochDay()};
+    long[] second = {JAN_02.toEpochDay(), JUL_01.toEpochDay(), JAN_01_NEXT.toEpochDay()};
+    double[] result = new double[3];
+    ACT_ACT_ISDA.yearFractions(first, second, DayCounts.SIMPLE_SCHEDULE_INFO, result);
+    assertEquals(result[0], ACT_ACT_ISDA.yearFraction(JAN_01, JAN_02), 0d);
+    assertEquals(result[1], ACT_ACT_ISDA.yearFraction(JAN_01, JUL_01), 0d);
+    assertEquals(result[2], ACT_ACT_ISDA.yearFraction(JAN_02, JAN_01_NEXT), 0d);
+    assertThrows(
+        () -> ACT_360.yearFractions(first, new long[2], DayCounts.SIMPLE_SCHEDULE_INFO, result),
+        IllegalArgumentException.class);
+    assertThrows(
+        () -> ACT_360.yearFractions(first, second, DayCounts.SIMPLE_SCHEDULE_INFO, new double[2]),
+        IllegalArgumentException.class);
+    assertThrows(
+        () -> ACT_360.yearFractions(null, second, DayCounts.SIMPLE_SCHEDULE_INFO, result),
+        IllegalArgumentException.class);
+  }
+
   //-------------------------------------------------------------------------
   @DataProvider(name = "30U360")
   static Object[][] data_30U360() {
@@ -620,6 +695,34 @@ public class DayCountTest {
     assertEquals(ACT_ACT_ICMA.yearFraction(start, end, info), (90d / (90d * 4d)) + (3d / (92d * 4d)), 0d);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_actActIcma_epochDay_matchesLocalDate() {
+    Frequency[] frequencies = {Frequency.P1M, P3M, P6M, P12M, Frequency.P2W};
+    for (LocalDate periodEnd = LocalDate.of(2011, 1, 28); periodEnd.getYear() < 2013; periodEnd = periodEnd.plusDays(3)) {
+      for (Frequency freq : frequencies) {
+        for (boolean eom : new boolean[] {freq.isMonthBased(), false}) {
+          LocalDate periodStart = periodEnd.minus(freq);
+          for (int stub = 1; stub < 400; stub += 37) {
+            // initial period, long or short
+            LocalDate start = periodEnd.minusDays(stub);
+            ScheduleInfo initInfo = new Info(start, periodEnd.plus(freq).plus(freq), periodEnd, eom, freq);
+            assertBitIdentical(ACT_ACT_ICMA, start, periodEnd, initInfo);
+            assertBitIdentical(ACT_ACT_ICMA, start, start.plusDays(stub / 2), initInfo);
+            // final period, long or short
+            LocalDate end = periodEnd.plusDays(stub);
+            ScheduleInfo finalInfo = new Info(periodStart, end, end, eom, freq);
+            assertBitIdentical(ACT_ACT_ICMA, periodEnd, end, finalInfo);
+            assertBitIdentical(ACT_ACT_ICMA, periodEnd, periodEnd.plusDays(stub / 2), finalInfo);
+          }
+          // regular period
+          ScheduleInfo info = new Info(periodStart.minus(freq), periodEnd.plus(freq), periodEnd, eom, freq);
+          assertBitIdentical(ACT_ACT_ICMA, periodStart, periodEnd, info);
+          assertBitIdentical(ACT_ACT_ICMA, periodStart, periodStart.plusDays(3), info);
+        }
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   // test against official examples - http://www.isda.org/c_and_a/pdf/ACT-ACT-ISDA-1999.pdf
   // this version has an error http://www.isda.org/c_and_a/pdf/mktc1198.pdf
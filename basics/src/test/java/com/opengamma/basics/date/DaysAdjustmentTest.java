@@ -145,6 +145,16 @@ public class DaysAdjustmentTest {
     assertEquals(test.adjust(base), date(2014, 8, 22));  // Fri (3 days gives Wed, following moves to Fri)
   }
 
+  public void test_adjustAll() {
+    DaysAdjustment test = DaysAdjustment.ofBusinessDays(3, HOLCAL_SAT_SUN, BDA_FOLLOW_WED_THU);
+    LocalDate[] dates = {date(2014, 8, 14), date(2014, 8, 15), date(2014, 8, 16), date(2014, 8, 18)};
+    LocalDate[] test1 = test.adjustAll(dates);
+    for (int i = 0; i < dates.length; i++) {
+      assertEquals(test1[i], test.adjust(dates[i]));
+    }
+    assertThrows(() -> test.adjustAll((LocalDate[]) null), IllegalArgumentException.class);
+  }
+
   public void test_ofBusinessDays3_null() {
     assertThrows(() -> DaysAdjustment.ofBusinessDays(3, null, BDA_FOLLOW_SAT_SUN), IllegalArgumentException.class);
     assertThrows(() -> DaysAdjustment.ofBusinessDays(3, HOLCAL_SAT_SUN, null), IllegalArgumentException.class);
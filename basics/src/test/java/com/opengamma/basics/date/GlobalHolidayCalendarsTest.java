@@ -5,18 +5,28 @@
  */
 package com.opengamma.basics.date;
 
+import static com.opengamma.collect.TestHelper.assertSerialization;
+import static com.opengamma.collect.TestHelper.assertThrows;
 import static java.time.DayOfWeek.SATURDAY;
 import static java.time.DayOfWeek.SUNDAY;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.MonthDay;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.opengamma.collect.range.LocalDateRange;
+
 /**
  * Test {@code GlobalHolidayCalendars}.
  */
@@ -235,6 +245,16 @@ public class GlobalHolidayCalendarsTest {
     assertEquals(GlobalHolidayCalendars.easter(year), LocalDate.of(year, month, day));
   }
 
+  public void test_easter_negativeYears() {
+    // the Gregorian dates of easter repeat every 5,700,000 years
+    for (int year = -5000; year <= 0; year++) {
+      LocalDate easter = GlobalHolidayCalendars.easter(year);
+      LocalDate repeated = GlobalHolidayCalendars.easter(year + 5_700_000);
+      assertEquals(MonthDay.from(easter), MonthDay.from(repeated), Integer.toString(year));
+      assertEquals(easter.getDayOfWeek(), SUNDAY, Integer.toString(year));
+    }
+  }
+
   //-------------------------------------------------------------------------
   private static final HolidayCalendar GBLO = GlobalHolidayCalendars.generateLondon();
 
@@ -570,6 +590,116 @@ public class GlobalHolidayCalendarsTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  public void test_ruleBased() {
+    assertEquals(GlobalHolidayCalendars.GBLO.getClass(), RuleBasedHolidayCalendar.class);
+    assertSame(HolidayCalendar.of("GBLO"), GlobalHolidayCalendars.GBLO);
+    assertSame(HolidayCalendars.GBLO, GlobalHolidayCalendars.GBLO);
+    assertEquals(GlobalHolidayCalendars.GBLO.getName(), "GBLO");
+    assertEquals(GlobalHolidayCalendars.GBLO.toString(), "GBLO");
+    assertEquals(GlobalHolidayCalendars.GBLO.isHoliday(LocalDate.of(2014, 12, 25)), true);
+    assertEquals(GlobalHolidayCalendars.GBLO.next(LocalDate.of(2014, 12, 24)), LocalDate.of(2014, 12, 29));
+    assertSame(GlobalHolidayCalendars.GBLO.combineWith(HolidayCalendars.NO_HOLIDAYS), GlobalHolidayCalendars.GBLO);
+    assertSame(GlobalHolidayCalendars.GBLO.combineWith(GlobalHolidayCalendars.GBLO), GlobalHolidayCalendars.GBLO);
+  }
+
+  public void test_ruleBased_matchesGenerated() {
+    for (ImmutableHolidayCalendar generated : GlobalHolidayCalendars.generateAll()) {
+      HolidayCalendar test = HolidayCalendar.extendedEnum().lookup(generated.getName());
+      assertEquals(HolidayCalendar.extendedEnum().lookupAll().get(generated.getName()), test);
+      LocalDateRange range = LocalDateRange.ofClosed(generated.getHolidays().first(), generated.getHolidays().last());
+      range.stream().forEach(date -> assertEquals(test.isHoliday(date), generated.isHoliday(date), date.toString()));
+      LocalDateRange.ofClosed(LocalDate.of(2000, 1, 1), LocalDate.of(2001, 12, 31)).stream().forEach(date -> {
+        for (int amount : new int[] {-300, -25, -1, 0, 1, 25, 300}) {
+          assertEquals(test.shift(date, amount), generated.shift(date, amount), date + " " + amount);
+        }
+        assertEquals(test.nextOrSame(date), generated.nextOrSame(date), date.toString());
+        assertEquals(test.previousOrSame(date), generated.previousOrSame(date), date.toString());
+        LocalDateRange yearRange = LocalDateRange.of(date, date.plusYears(3).plusDays(7));
+        assertEquals(test.daysBetween(yearRange), generated.daysBetween(yearRange), date.toString());
+      });
+    }
+  }
+
+  public void test_ruleBased_anyYear() {
+    HolidayCalendar test = GlobalHolidayCalendars.GBLO;
+    assertEquals(test.isHoliday(LocalDate.of(1900, 12, 25)), true);
+    assertEquals(test.isHoliday(LocalDate.of(2150, 12, 25)), true);
+    assertEquals(test.isHoliday(LocalDate.of(2150, 12, 24)), false);
+    assertEquals(test.isHoliday(LocalDate.of(5000, 12, 25)), true);
+    assertEquals(GlobalHolidayCalendars.EUTA.isHoliday(LocalDate.of(1990, 1, 1)), false);
+    // every date can be queried, including negative years and the limits of LocalDate
+    for (ImmutableHolidayCalendar generated : GlobalHolidayCalendars.generateAll()) {
+      HolidayCalendar cal = HolidayCalendar.of(generated.getName());
+      LocalDateRange.ofClosed(LocalDate.of(-4993, 1, 1), LocalDate.of(-4993, 12, 31)).stream().forEach(cal::isHoliday);
+      LocalDateRange.ofClosed(LocalDate.MIN, LocalDate.MIN.plusDays(400)).stream().forEach(cal::isHoliday);
+      LocalDateRange.ofClosed(LocalDate.MAX.minusDays(400), LocalDate.MAX).stream().forEach(cal::isHoliday);
+    }
+    assertEquals(test.isHoliday(LocalDate.of(-4993, 12, 25)), true);
+    LocalDate start = LocalDate.of(1750, 6, 1);
+    LocalDate end = LocalDate.of(2450, 6, 1);
+    int expected = (int) LocalDateRange.of(start, end).stream().filter(test::isBusinessDay).count();
+    assertEquals(test.daysBetween(start, end), expected);
+    assertEquals(test.shift(start, expected), test.nextOrSame(end));
+    assertEquals(test.shift(test.nextOrSame(end), -expected), test.nextOrSame(start));
+  }
+
+  public void test_ruleBased_combined() {
+    HolidayCalendar test = GlobalHolidayCalendars.GBLO.combineWith(GlobalHolidayCalendars.USNY);
+    assertEquals(test.getClass(), RuleBasedHolidayCalendar.class);
+    assertEquals(test.getName(), "GBLO+USNY");
+    assertEquals(test, HolidayCalendar.of("GBLO+USNY"));
+    LocalDateRange.ofClosed(LocalDate.of(2200, 1, 1), LocalDate.of(2200, 12, 31)).stream().forEach(date -> assertEquals(
+        test.isHoliday(date),
+        GlobalHolidayCalendars.GBLO.isHoliday(date) || GlobalHolidayCalendars.USNY.isHoliday(date),
+        date.toString()));
+    HolidayCalendar test2 = test.combineWith(GlobalHolidayCalendars.EUTA);
+    assertEquals(test2.getName(), "GBLO+USNY+EUTA");
+    assertEquals(test2.isHoliday(LocalDate.of(2014, 5, 1)), true);
+    assertEquals(test2.isHoliday(LocalDate.of(2014, 7, 4)), true);
+    assertEquals(test2.isHoliday(LocalDate.of(2014, 8, 25)), true);
+  }
+
+  public void test_ruleBased_serialization() {
+    assertSerialization(GlobalHolidayCalendars.GBLO);
+    assertSerialization(GlobalHolidayCalendars.GBLO.combineWith(GlobalHolidayCalendars.USNY));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_snapshot() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HolidayCalendarSnapshot.write(GlobalHolidayCalendars.generateAll(), out);
+    HolidayCalendarSnapshot test = HolidayCalendarSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+    for (ImmutableHolidayCalendar generated : GlobalHolidayCalendars.generateAll()) {
+      int firstYear = generated.getHolidays().first().getYear();
+      int lastYear = generated.getHolidays().last().getYear();
+      for (int year = firstYear; year <= lastYear; year++) {
+        List<LocalDate> expected = ImmutableList.copyOf(
+            generated.getHolidays().subSet(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1)));
+        assertEquals(test.find(generated.getName(), year), Optional.of(expected));
+      }
+      assertEquals(test.find(generated.getName(), firstYear - 1), Optional.empty());
+      assertEquals(test.find(generated.getName(), lastYear + 1), Optional.empty());
+    }
+    assertEquals(test.find("GBLO", 1900), Optional.empty());
+    assertEquals(test.find("Unknown", 2014), Optional.empty());
+  }
+
+  public void test_snapshot_version() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HolidayCalendarSnapshot.write(GlobalHolidayCalendars.generateAll(), out);
+    byte[] bytes = out.toByteArray();
+    bytes[7]++;
+    HolidayCalendarSnapshot test = HolidayCalendarSnapshot.read(new ByteArrayInputStream(bytes));
+    assertSame(test, HolidayCalendarSnapshot.EMPTY);
+    assertEquals(test.find("GBLO", 2014), Optional.empty());
+  }
+
+  public void test_snapshot_invalid() {
+    byte[] bytes = new byte[] {1, 2, 3, 4, 0, 0, 0, 1};
+    assertThrows(() -> HolidayCalendarSnapshot.read(new ByteArrayInputStream(bytes)), IOException.class);
+  }
+
   //-------------------------------------------------------------------------
   private static List<LocalDate> mds(int year, MonthDay... monthDays) {
     List<LocalDate> holidays = new ArrayList<>();
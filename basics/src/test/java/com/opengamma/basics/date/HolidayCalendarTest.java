@@ -606,6 +606,42 @@ public class HolidayCalendarTest {
     assertThrows(() -> new MockHolCal().combineWith(null), IllegalArgumentException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_of_combined() {
+    HolidayCalendar test = HolidayCalendar.of("GBLO+USNY+EUTA");
+    assertEquals(test.getName(), "GBLO+USNY+EUTA");
+    assertEquals(test.getClass(), RuleBasedHolidayCalendar.class);
+    LocalDateRange.ofClosed(date(2014, 1, 1), date(2014, 12, 31)).stream().forEach(date -> assertEquals(
+        test.isHoliday(date),
+        HolidayCalendars.GBLO.isHoliday(date) || HolidayCalendars.USNY.isHoliday(date) ||
+            HolidayCalendars.EUTA.isHoliday(date),
+        date.toString()));
+  }
+
+  public void test_of_combined_normalized() {
+    HolidayCalendar base = HolidayCalendar.of("EUTA+GBLO+USNY");
+    HolidayCalendar test = HolidayCalendar.of("USNY+GBLO+NoHolidays+EUTA+USNY");
+    assertEquals(test.getName(), "USNY+GBLO+EUTA");
+    LocalDateRange.ofClosed(date(2014, 1, 1), date(2014, 12, 31)).stream().forEach(date -> assertEquals(
+        test.isHoliday(date), base.isHoliday(date), date.toString()));
+    assertSame(HolidayCalendar.of("EUTA+GBLO+USNY"), base);
+    assertSame(HolidayCalendar.of("GBLO+GBLO"), HolidayCalendars.GBLO);
+    assertSame(HolidayCalendar.of("NoHolidays+NoHolidays"), HolidayCalendars.NO_HOLIDAYS);
+    assertJodaConvert(HolidayCalendar.class, test);
+  }
+
+  public void test_of_combined_notImmutable() {
+    HolidayCalendar test = HolidayCalendar.of("Sat/Sun+Fri/Sat");
+    assertEquals(test.getName(), "Sat/Sun+Fri/Sat");
+    assertEquals(test, HolidayCalendars.SAT_SUN.combineWith(HolidayCalendars.FRI_SAT));
+    assertSame(HolidayCalendar.of("Sat/Sun+Fri/Sat"), test);
+    assertEquals(HolidayCalendar.of("Fri/Sat+Sat/Sun").getName(), "Fri/Sat+Sat/Sun");
+  }
+
+  public void test_of_combined_invalid() {
+    assertThrows(() -> HolidayCalendar.of("GBLO+Rubbish"), IllegalArgumentException.class);
+  }
+
   //-------------------------------------------------------------------------
   public void test_extendedEnum() {
     assertEquals(HolidayCalendar.extendedEnum().lookupAll().get("NoHolidays"), HolidayCalendars.NO_HOLIDAYS);
@@ -15,6 +15,10 @@ import static java.time.DayOfWeek.THURSDAY;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -325,6 +329,14 @@ public class ImmutableHolidayCalendarTest {
     assertThrows(() -> test.isBusinessDay(LocalDate.of(2015, 1, 1)), IllegalArgumentException.class);
   }
 
+  public void test_isHoliday_matchesHolidaysAndWeekends() {
+    ImmutableHolidayCalendar test = GlobalHolidayCalendars.generateLondon();
+    test.getRange().stream().forEach(date -> assertEquals(
+        test.isHoliday(date),
+        test.getHolidays().contains(date) || test.getWeekendDays().contains(date.getDayOfWeek()),
+        date.toString()));
+  }
+
   //-------------------------------------------------------------------------
   @DataProvider(name = "shift")
   static Object[][] data_shift() {
@@ -502,6 +514,51 @@ public class ImmutableHolidayCalendarTest {
     assertThrows(() -> HOLCAL_MON_WED.daysBetween(null), IllegalArgumentException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_businessDayIndex_matchesDefaults() {
+    ImmutableHolidayCalendar test = GlobalHolidayCalendars.generateLondon();
+    HolidayCalendar expected = new HolidayCalendar() {
+      @Override
+      public boolean isHoliday(LocalDate date) {
+        return test.isHoliday(date);
+      }
+      @Override
+      public String getName() {
+        return "Expected";
+      }
+    };
+    LocalDateRange.ofClosed(LocalDate.of(2011, 12, 1), LocalDate.of(2013, 1, 31)).stream().forEach(date -> {
+      for (int amount = -12; amount <= 12; amount++) {
+        assertEquals(test.shift(date, amount), expected.shift(date, amount), date + " " + amount);
+      }
+      assertEquals(test.next(date), expected.next(date), date.toString());
+      assertEquals(test.nextOrSame(date), expected.nextOrSame(date), date.toString());
+      assertEquals(test.previous(date), expected.previous(date), date.toString());
+      assertEquals(test.previousOrSame(date), expected.previousOrSame(date), date.toString());
+      assertEquals(test.daysBetween(LocalDate.of(2011, 11, 30), date),
+          expected.daysBetween(LocalDate.of(2011, 11, 30), date), date.toString());
+    });
+    assertEquals(test.shift(LocalDate.of(1950, 1, 3), 20000), expected.shift(LocalDate.of(1950, 1, 3), 20000));
+    assertEquals(test.daysBetween(test.getRange()), expected.daysBetween(test.getRange()));
+  }
+
+  public void test_businessDayIndex_outOfRange() {
+    LocalDate first = HOLCAL_MON_WED.getRange().getStart();
+    LocalDate last = HOLCAL_MON_WED.getRange().getEndInclusive();
+    assertEquals(HOLCAL_MON_WED.next(first.minusDays(1)), LocalDate.of(2014, 1, 1));
+    assertEquals(HOLCAL_MON_WED.previous(last.plusDays(1)), last);
+    assertEquals(HOLCAL_MON_WED.shift(last.plusDays(7), 0), last.plusDays(7));
+    assertThrows(() -> HOLCAL_MON_WED.next(last), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.next(first.minusDays(2)), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.previous(first), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.nextOrSame(last.plusDays(1)), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.previousOrSame(first.minusDays(1)), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.shift(first, 300), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.shift(last, -300), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.daysBetween(first.minusDays(1), last), IllegalArgumentException.class);
+    assertThrows(() -> HOLCAL_MON_WED.daysBetween(first, last.plusDays(2)), IllegalArgumentException.class);
+  }
+
   //-------------------------------------------------------------------------
   public void test_combineWith() {
     Iterable<LocalDate> holidays1 = Arrays.asList(WED_2014_07_16);
@@ -559,6 +616,38 @@ public class ImmutableHolidayCalendarTest {
     assertEquals(test.isHoliday(MON_2014_07_21), false);
   }
 
+  public void test_combineWith_notImmutable() {
+    Iterable<LocalDate> holidays = Arrays.asList(WED_2014_07_16);
+    ImmutableHolidayCalendar base = ImmutableHolidayCalendar.of("Test1", holidays, SATURDAY, SUNDAY);
+    HolidayCalendar other = new HolidayCalendarTest.MockHolCal();
+    HolidayCalendar test = other.combineWith(base);
+    assertEquals(test.getName(), "Mock+Test1");
+    assertEquals(test.getClass(), ImmutableHolidayCalendar.class);
+    ImmutableHolidayCalendar fused = (ImmutableHolidayCalendar) test;
+    assertEquals(fused.getRange(), RANGE_2014);
+    assertEquals(fused.getWeekendDays(), ImmutableSet.of(SATURDAY, SUNDAY));
+    RANGE_2014.stream().forEach(date -> assertEquals(
+        test.isHoliday(date), base.isHoliday(date) || other.isHoliday(date), date.toString()));
+  }
+
+  public void test_combineWith_notImmutable_weekends() {
+    Iterable<LocalDate> holidays = Arrays.asList(WED_2014_07_16);
+    ImmutableHolidayCalendar base = ImmutableHolidayCalendar.of("Test1", holidays, SATURDAY, SUNDAY);
+    HolidayCalendar test = base.combineWith(HolidayCalendars.FRI_SAT);
+    assertEquals(test.getClass(), ImmutableHolidayCalendar.class);
+    assertEquals(((ImmutableHolidayCalendar) test).getHolidays(), ImmutableSortedSet.of(WED_2014_07_16));
+    assertEquals(((ImmutableHolidayCalendar) test).getWeekendDays(), ImmutableSet.of(FRIDAY, SATURDAY, SUNDAY));
+  }
+
+  public void test_combineWith_notImmutable_noRange() {
+    ImmutableHolidayCalendar base = ImmutableHolidayCalendar.of("Test1", Arrays.asList(), SATURDAY, SUNDAY);
+    HolidayCalendar test = base.combineWith(HolidayCalendars.FRI_SAT);
+    assertEquals(test.getName(), "Test1+Fri/Sat");
+    assertEquals(test instanceof ImmutableHolidayCalendar, false);
+    assertEquals(test.isHoliday(THU_2014_07_10), false);
+    assertEquals(test.isHoliday(FRI_2014_07_11), true);
+  }
+
   public void test_combineWith_null() {
     Iterable<LocalDate> holidays = Arrays.asList(WED_2014_07_16);
     ImmutableHolidayCalendar base = ImmutableHolidayCalendar.of("Test1", holidays, SATURDAY, SUNDAY);
@@ -587,4 +676,17 @@ public class ImmutableHolidayCalendarTest {
     assertSerialization(HOLCAL_MON_WED);
   }
 
+  public void test_serialization_isHoliday() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(HOLCAL_MON_WED);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      HolidayCalendar test = (HolidayCalendar) ois.readObject();
+      assertEquals(test.isHoliday(MON_2014_07_14), true);
+      assertEquals(test.isHoliday(TUE_2014_07_15), false);
+      assertEquals(test.isHoliday(SAT_2014_07_19), true);
+    }
+  }
+
 }
@@ -93,6 +93,16 @@ public class TenorAdjustmentTest {
     assertEquals(test.adjust(date), expected);
   }
 
+  public void test_adjustAll() {
+    TenorAdjustment test = TenorAdjustment.of(TENOR_3M, LAST_DAY, BDA_FOLLOW_SAT_SUN);
+    LocalDate[] dates = {date(2014, 2, 28), date(2014, 6, 30), date(2014, 8, 15), date(2014, 8, 30)};
+    LocalDate[] adjusted = test.adjustAll(dates);
+    for (int i = 0; i < dates.length; i++) {
+      assertEquals(adjusted[i], test.adjust(dates[i]));
+    }
+    assertThrows(() -> test.adjustAll((LocalDate[]) null), IllegalArgumentException.class);
+  }
+
   public void test_adjust_null() {
     TenorAdjustment test = TenorAdjustment.of(TENOR_3M, LAST_DAY, BDA_FOLLOW_SAT_SUN);
     assertThrows(() -> test.adjust(null), IllegalArgumentException.class);
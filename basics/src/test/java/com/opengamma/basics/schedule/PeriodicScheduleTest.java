@@ -25,6 +25,8 @@ import static com.opengamma.collect.TestHelper.assertSerialization;
 import static com.opengamma.collect.TestHelper.assertThrows;
 import static com.opengamma.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.collect.TestHelper.date;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
 import static java.time.Month.AUGUST;
 import static java.time.Month.FEBRUARY;
 import static java.time.Month.JULY;
@@ -32,19 +34,24 @@ import static java.time.Month.JUNE;
 import static java.time.Month.MAY;
 import static java.time.Month.NOVEMBER;
 import static java.time.Month.SEPTEMBER;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.opengamma.basics.date.BusinessDayAdjustment;
 import com.opengamma.basics.date.BusinessDayConventions;
+import com.opengamma.basics.date.HolidayCalendar;
 import com.opengamma.basics.date.HolidayCalendars;
+import com.opengamma.basics.date.ImmutableHolidayCalendar;
 
 /**
  * Test {@link PeriodicSchedule}.
@@ -407,6 +414,88 @@ public class PeriodicScheduleTest {
     assertEquals(test, adjusted);
   }
 
+  @Test(dataProvider = "generation")
+  public void test_monthly_periodStream(
+      LocalDate start, LocalDate end, Frequency freq, StubConvention stubConv, RollConvention rollConv,
+      LocalDate firstReg, LocalDate lastReg, List<LocalDate> unadjusted, List<LocalDate> adjusted) {
+    PeriodicSchedule defn = PeriodicSchedule.builder()
+        .startDate(start)
+        .endDate(end)
+        .frequency(freq)
+        .businessDayAdjustment(BDA)
+        .stubConvention(stubConv)
+        .rollConvention(rollConv)
+        .firstRegularStartDate(firstReg)
+        .lastRegularEndDate(lastReg)
+        .build();
+    List<SchedulePeriod> expected = defn.createSchedule().getPeriods();
+    assertEquals(defn.createPeriodStream().collect(toList()), expected);
+    assertEquals(defn.createReversePeriodStream().collect(toList()), Lists.reverse(expected));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_createPeriodStream_lazy() {
+    for (StubConvention stubConv : ImmutableList.of(SHORT_FINAL, LONG_INITIAL)) {
+      int[] rolls = new int[1];
+      RollConvention roll = new RollConvention() {
+        @Override
+        public String getName() {
+          return "Counting";
+        }
+        @Override
+        public LocalDate adjust(LocalDate date) {
+          rolls[0]++;
+          return date;
+        }
+      };
+      // every 3 days for 100 years, calculated forwards and backwards respectively
+      PeriodicSchedule defn = PeriodicSchedule.builder()
+          .startDate(date(2014, 6, 4))
+          .endDate(date(2114, 6, 4))
+          .frequency(Frequency.ofDays(3))
+          .businessDayAdjustment(BusinessDayAdjustment.NONE)
+          .stubConvention(stubConv)
+          .rollConvention(roll)
+          .build();
+      Stream<SchedulePeriod> stream = (stubConv == SHORT_FINAL ?
+          defn.createPeriodStream() : defn.createReversePeriodStream());
+      List<SchedulePeriod> test = stream.limit(3).collect(toList());
+      assertEquals(rolls[0] < 10, true);
+      List<SchedulePeriod> expected = defn.createSchedule().getPeriods();
+      assertEquals(rolls[0] > 10000, true);
+      if (stubConv == SHORT_FINAL) {
+        assertEquals(test, expected.subList(0, 3));
+      } else {
+        assertEquals(test, Lists.reverse(expected).subList(0, 3));
+      }
+    }
+  }
+
+  public void test_createPeriodStream_term() {
+    PeriodicSchedule defn = PeriodicSchedule.of(JUN_04, SEP_17, TERM, BDA, STUB_NONE, false);
+    List<SchedulePeriod> expected = defn.createSchedule().getPeriods();
+    assertEquals(defn.createPeriodStream().collect(toList()), expected);
+    assertEquals(defn.createReversePeriodStream().collect(toList()), expected);
+  }
+
+  public void test_createPeriodStream_badStub() {
+    PeriodicSchedule defn = PeriodicSchedule.of(JUN_04, SEP_17, P1M, BDA, STUB_NONE, DAY_4);
+    Stream<SchedulePeriod> stream = defn.createPeriodStream();
+    assertThrows(() -> stream.collect(toList()), ScheduleException.class, ".*disallowed stub.*");
+  }
+
+  public void test_createPeriodStream_badRoll() {
+    PeriodicSchedule defn = PeriodicSchedule.of(JUN_04, SEP_17, P1M, BDA, SHORT_FINAL, DAY_17);
+    assertThrows(() -> defn.createPeriodStream(), ScheduleException.class, ".*does not match roll convention.*");
+  }
+
+  public void test_createPeriodStream_duplicateAdjusted() {
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2015, 5, 27), date(2015, 5, 31), Frequency.ofDays(2), BDA, STUB_NONE, false);
+    Stream<SchedulePeriod> stream = defn.createPeriodStream();
+    assertThrows(() -> stream.collect(toList()), ScheduleException.class, ".*duplicate adjusted dates.*");
+  }
+
   //-------------------------------------------------------------------------
   public void test_startEndAdjust() {
     PeriodicSchedule defn = PeriodicSchedule.builder()
@@ -422,6 +511,18 @@ public class PeriodicScheduleTest {
     assertEquals(defn.createAdjustedDates(), ImmutableList.of(date(2014, 10, 3), date(2015, 1, 5), date(2015, 4, 3)));
   }
 
+  public void test_noAdjust_outsideCalendarRange() {
+    // the calendar only knows about 2014, but 'NoAdjust' never consults it
+    HolidayCalendar cal = ImmutableHolidayCalendar.of("Test", ImmutableList.of(JUL_04), SATURDAY, SUNDAY);
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2020, 1, 15), date(2021, 1, 15), P3M,
+        BusinessDayAdjustment.of(BusinessDayConventions.NO_ADJUST, cal), STUB_NONE, false);
+    ImmutableList<LocalDate> expected = ImmutableList.of(
+        date(2020, 1, 15), date(2020, 4, 15), date(2020, 7, 15), date(2020, 10, 15), date(2021, 1, 15));
+    assertEquals(defn.createAdjustedDates(), expected);
+    assertEquals(defn.createSchedule().size(), 4);
+  }
+
   //-------------------------------------------------------------------------
   @Test(expectedExceptions = ScheduleException.class)
   public void test_none_badStub() {
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import static com.opengamma.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
+import static com.opengamma.basics.schedule.Frequency.P1M;
+import static com.opengamma.basics.schedule.Frequency.P3M;
+import static com.opengamma.basics.schedule.StubConvention.NONE;
+import static com.opengamma.basics.schedule.StubConvention.SHORT_INITIAL;
+import static com.opengamma.collect.TestHelper.assertThrows;
+import static com.opengamma.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.basics.date.BusinessDayAdjustment;
+import com.opengamma.basics.date.HolidayCalendars;
+
+/**
+ * Test {@link ScheduleCache}.
+ */
+@Test
+public class ScheduleCacheTest {
+
+  private static final BusinessDayAdjustment BDA =
+      BusinessDayAdjustment.of(MODIFIED_FOLLOWING, HolidayCalendars.SAT_SUN);
+  private static final LocalDate START = date(2014, 6, 4);
+  private static final LocalDate END = date(2016, 9, 17);
+  private static final PeriodicSchedule DEFINITION = PeriodicSchedule.of(START, END, P3M, BDA, SHORT_INITIAL, false);
+
+  //-------------------------------------------------------------------------
+  public void test_createSchedule() {
+    ScheduleCache test = ScheduleCache.ofMaximumSize(10);
+    PeriodicSchedule copy = PeriodicSchedule.of(START, END, P3M, BDA, SHORT_INITIAL, false);
+    Schedule schedule = test.createSchedule(DEFINITION);
+    assertEquals(schedule, DEFINITION.createSchedule());
+    assertSame(test.createSchedule(copy), schedule);
+    assertEquals(test.size(), 1);
+    assertEquals(test.stats().hitCount(), 1);
+    assertEquals(test.stats().missCount(), 1);
+    test.clear();
+    assertEquals(test.size(), 0);
+    assertNotSame(test.createSchedule(DEFINITION), schedule);
+    assertEquals(test.stats().missCount(), 2);
+  }
+
+  public void test_createSchedule_invalid() {
+    ScheduleCache test = ScheduleCache.ofMaximumSize(10);
+    PeriodicSchedule invalid = PeriodicSchedule.of(START, END, P3M, BDA, NONE, false);
+    assertThrows(() -> test.createSchedule(invalid), ScheduleException.class);
+    assertEquals(test.size(), 0);
+    assertThrows(() -> test.createSchedule(null), IllegalArgumentException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_ofMaximumSize_eviction() {
+    ScheduleCache test = ScheduleCache.ofMaximumSize(5);
+    for (int i = 0; i < 20; i++) {
+      test.createSchedule(PeriodicSchedule.of(START.plusDays(i), END, P1M, BDA, SHORT_INITIAL, false));
+    }
+    assertEquals(test.size() <= 5, true);
+    assertEquals(test.stats().evictionCount() >= 15, true);
+  }
+
+  public void test_ofMaximumWeight_eviction() {
+    // each schedule has 28 periods
+    ScheduleCache test = ScheduleCache.ofMaximumWeight(100);
+    for (int i = 0; i < 20; i++) {
+      test.createSchedule(PeriodicSchedule.of(START.plusDays(i), END, P1M, BDA, SHORT_INITIAL, false));
+    }
+    assertEquals(test.size() <= 3, true);
+    assertEquals(test.stats().evictionCount() >= 17, true);
+  }
+
+  public void test_of_invalid() {
+    assertThrows(() -> ScheduleCache.ofMaximumSize(-1), IllegalArgumentException.class);
+    assertThrows(() -> ScheduleCache.ofMaximumWeight(-1), IllegalArgumentException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_global() {
+    ScheduleCache test = ScheduleCache.ofMaximumSize(10);
+    assertEquals(ScheduleCache.getGlobal(), Optional.empty());
+    ScheduleCache.setGlobal(test);
+    try {
+      assertEquals(ScheduleCache.getGlobal(), Optional.of(test));
+      Schedule schedule = DEFINITION.createSchedule();
+      assertSame(DEFINITION.createSchedule(), schedule);
+      assertEquals(test.stats().hitCount(), 1);
+      assertEquals(test.stats().missCount(), 1);
+    } finally {
+      ScheduleCache.setGlobal(null);
+    }
+    assertEquals(ScheduleCache.getGlobal(), Optional.empty());
+    assertNotSame(DEFINITION.createSchedule(), DEFINITION.createSchedule());
+  }
+
+  public void test_toString() {
+    ScheduleCache test = ScheduleCache.ofMaximumSize(10);
+    test.createSchedule(DEFINITION);
+    assertEquals(test.toString().startsWith("ScheduleCache[size=1, "), true);
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.basics.schedule;
+
+import static com.opengamma.basics.date.BusinessDayConventions.FOLLOWING;
+import static com.opengamma.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
+import static com.opengamma.basics.date.BusinessDayConventions.NO_ADJUST;
+import static com.opengamma.basics.schedule.Frequency.P12M;
+import static com.opengamma.basics.schedule.Frequency.P1M;
+import static com.opengamma.basics.schedule.Frequency.P1W;
+import static com.opengamma.basics.schedule.Frequency.P3M;
+import static com.opengamma.basics.schedule.Frequency.P6M;
+import static com.opengamma.basics.schedule.Frequency.TERM;
+import static com.opengamma.collect.TestHelper.assertThrows;
+import static com.opengamma.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.basics.date.BusinessDayAdjustment;
+import com.opengamma.basics.date.HolidayCalendar;
+import com.opengamma.basics.date.HolidayCalendars;
+import com.opengamma.basics.date.ImmutableHolidayCalendar;
+
+/**
+ * Test {@link ScheduleGenerator}.
+ */
+@Test
+public class ScheduleGeneratorTest {
+
+  private static final BusinessDayAdjustment BDA =
+      BusinessDayAdjustment.of(MODIFIED_FOLLOWING, HolidayCalendars.SAT_SUN);
+  private static final LocalDate START = date(2014, 6, 4);
+  private static final LocalDate END = date(2016, 9, 17);
+
+  //-------------------------------------------------------------------------
+  public void test_createSchedules_matchesCreateSchedule() {
+    List<PeriodicSchedule> definitions = definitions(5000, 1);
+    ImmutableList<Schedule> test = ScheduleGenerator.ofCommonPool().createSchedules(definitions);
+    assertEquals(test.size(), definitions.size());
+    for (int i = 0; i < definitions.size(); i++) {
+      assertEquals(test.get(i), definitions.get(i).createSchedule());
+    }
+  }
+
+  public void test_createSchedules_pool() {
+    List<PeriodicSchedule> definitions = definitions(3000, 2);
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      ImmutableList<Schedule> test = ScheduleGenerator.of(pool).createSchedules(definitions);
+      assertEquals(test, ScheduleGenerator.ofCommonPool().createSchedules(definitions));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void test_createSchedules_identicalShared() {
+    PeriodicSchedule definition = PeriodicSchedule.of(START, END, P3M, BDA, StubConvention.SHORT_INITIAL, false);
+    PeriodicSchedule copy = PeriodicSchedule.of(START, END, P3M, BDA, StubConvention.SHORT_INITIAL, false);
+    ImmutableList<Schedule> test = ScheduleGenerator.ofCommonPool().createSchedules(ImmutableList.of(definition, copy));
+    assertEquals(test.get(0), definition.createSchedule());
+    assertSame(test.get(0), test.get(1));
+  }
+
+  public void test_createSchedules_noAdjustOutsideCalendarRange() {
+    // the calendar only covers 2014, but 'NoAdjust' never consults it
+    HolidayCalendar cal = ImmutableHolidayCalendar.of(
+        "Test", ImmutableList.of(date(2014, 7, 4)), SATURDAY, SUNDAY);
+    BusinessDayAdjustment bda = BusinessDayAdjustment.of(NO_ADJUST, cal);
+    List<PeriodicSchedule> definitions = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      LocalDate start = date(2020, 1, 15).plusDays(i * 3);
+      LocalDate end = start.plusMonths(12 + i % 7);
+      definitions.add(PeriodicSchedule.of(start, end, P3M, bda, StubConvention.SHORT_INITIAL, false));
+    }
+    ImmutableList<Schedule> test = ScheduleGenerator.ofCommonPool().createSchedules(definitions);
+    assertEquals(test.size(), definitions.size());
+    for (int i = 0; i < definitions.size(); i++) {
+      assertEquals(test.get(i), definitions.get(i).createSchedule());
+    }
+  }
+
+  public void test_createSchedules_empty() {
+    assertEquals(ScheduleGenerator.ofCommonPool().createSchedules(ImmutableList.of()), ImmutableList.of());
+  }
+
+  public void test_createSchedules_invalid() {
+    PeriodicSchedule valid = PeriodicSchedule.of(START, END, P3M, BDA, StubConvention.SHORT_INITIAL, false);
+    PeriodicSchedule invalid = PeriodicSchedule.of(START, END, P3M, BDA, StubConvention.NONE, false);
+    assertThrows(
+        () -> ScheduleGenerator.ofCommonPool().createSchedules(ImmutableList.of(valid, invalid)),
+        ScheduleException.class);
+  }
+
+  public void test_createSchedules_null() {
+    assertThrows(() -> ScheduleGenerator.of(null), IllegalArgumentException.class);
+    assertThrows(() -> ScheduleGenerator.ofCommonPool().createSchedules(null), IllegalArgumentException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  // creates valid definitions with a mixture of shared and distinct properties
+  private static List<PeriodicSchedule> definitions(int size, long seed) {
+    Random random = new Random(seed);
+    Frequency[] frequencies = {P1W, P1M, P3M, P6M, P12M, TERM};
+    StubConvention[] stubs = {StubConvention.SHORT_INITIAL, StubConvention.LONG_INITIAL,
+        StubConvention.SHORT_FINAL, StubConvention.LONG_FINAL};
+    BusinessDayAdjustment[] adjustments = {
+        BDA, BusinessDayAdjustment.of(FOLLOWING, HolidayCalendars.GBLO), BusinessDayAdjustment.NONE};
+    List<PeriodicSchedule> definitions = new ArrayList<>();
+    while (definitions.size() < size) {
+      LocalDate start = START.plusDays(random.nextInt(400));
+      PeriodicSchedule.Builder builder = PeriodicSchedule.builder()
+          .startDate(start)
+          .endDate(start.plusMonths(1 + random.nextInt(120)).plusDays(random.nextInt(5)))
+          .frequency(frequencies[random.nextInt(frequencies.length)])
+          .businessDayAdjustment(adjustments[random.nextInt(adjustments.length)])
+          .stubConvention(stubs[random.nextInt(stubs.length)])
+          .rollConvention(random.nextBoolean() ? RollConventions.EOM : null);
+      if (random.nextInt(10) == 0) {
+        builder.startDateBusinessDayAdjustment(BusinessDayAdjustment.NONE);
+      }
+      PeriodicSchedule definition = builder.build();
+      try {
+        definition.createSchedule();
+      } catch (ScheduleException ex) {
+        continue;
+      }
+      definitions.add(definition);
+      if (random.nextInt(4) == 0) {
+        definitions.add(definition);
+      }
+    }
+    return definitions;
+  }
+
+}
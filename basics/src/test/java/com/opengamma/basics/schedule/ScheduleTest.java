@@ -22,13 +22,20 @@ import static java.time.Month.NOVEMBER;
 import static java.time.Month.OCTOBER;
 import static java.time.Month.SEPTEMBER;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
+import java.io.ObjectStreamClass;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.basics.date.BusinessDayAdjustment;
+import com.opengamma.collect.TestHelper;
 
 /**
  * Test {@link Schedule}.
@@ -209,6 +216,29 @@ public class ScheduleTest {
     assertThrows(() -> test.getPeriod(4), IndexOutOfBoundsException.class);
   }
 
+  public void test_of_packedMatchesPeriods() {
+    PeriodicSchedule definition = PeriodicSchedule.of(
+        JUL_04, DEC_17, P1M, BusinessDayAdjustment.NONE, StubConvention.SHORT_INITIAL, false);
+    Schedule test = definition.createSchedule();
+    Schedule expected = Schedule.builder()
+        .periods(ImmutableList.of(P1_STUB, P2_NORMAL, P3_NORMAL, P4_NORMAL, P5_NORMAL, P6_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    assertEquals(test, expected);
+    assertEquals(test.hashCode(), expected.hashCode());
+    assertEquals(test.toBuilder().build(), test);
+    assertEquals(test.getPeriod(0), P1_STUB);
+    assertEquals(test.getPeriod(5), P6_NORMAL);
+    assertThrows(() -> test.getPeriod(-1), IndexOutOfBoundsException.class);
+    assertThrows(() -> test.getPeriod(6), IndexOutOfBoundsException.class);
+  }
+
+  public void test_of_dateOutOfRange() {
+    SchedulePeriod period = SchedulePeriod.of(LocalDate.MIN, JUL_04);
+    assertThrowsIllegalArg(() -> Schedule.ofTerm(period));
+  }
+
   //-------------------------------------------------------------------------
   public void test_isEndOfMonthConvention_eom() {
     // schedule doesn't make sense, but test only requires roll convention of EOM
@@ -235,6 +265,108 @@ public class ScheduleTest {
     assertThrowsIllegalArg(() -> test.getPeriodEndDate(P2_NORMAL.getStartDate().minusDays(1)));
   }
 
+  public void test_getPeriodEndEpochDay() {
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P1_STUB, P2_NORMAL, P3_NORMAL, P4_NORMAL, P5_NORMAL, P6_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    for (LocalDate date = JUL_04; date.isBefore(DEC_17); date = date.plusDays(1)) {
+      LocalDate base = date;
+      LocalDate expected = test.getPeriods().stream().filter(p -> p.contains(base)).findFirst().get().getEndDate();
+      assertEquals(test.getPeriodEndDate(date), expected);
+      assertEquals(test.getPeriodEndEpochDay(date.toEpochDay()), expected.toEpochDay());
+    }
+    assertThrowsIllegalArg(() -> test.getPeriodEndEpochDay(JUL_04.toEpochDay() - 1));
+    assertThrowsIllegalArg(() -> test.getPeriodEndEpochDay(DEC_17.toEpochDay()));
+    assertThrowsIllegalArg(() -> test.getPeriodEndDate(DEC_17));
+    assertThrowsIllegalArg(() -> test.getPeriodEndDate(null));
+  }
+
+  public void test_getPeriodEndEpochDay_gap() {
+    // schedule doesn't make sense, but test requires a gap between periods
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P2_NORMAL, P4_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    assertEquals(test.getPeriodEndEpochDay(AUG_17.toEpochDay() - 1), AUG_17.toEpochDay());
+    assertThrowsIllegalArg(() -> test.getPeriodEndEpochDay(AUG_17.toEpochDay()));
+    assertThrowsIllegalArg(() -> test.getPeriodEndEpochDay(SEP_17.toEpochDay() - 1));
+    assertEquals(test.getPeriodEndEpochDay(SEP_17.toEpochDay()), OCT_17.toEpochDay());
+  }
+
+  public void test_getPeriodEndEpochDay_notOrdered() {
+    // schedule doesn't make sense, but test requires periods that overlap and are out of order
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P4_5, P2_NORMAL, P1_3, P6_NORMAL, P3_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    List<LocalDate> dates = new ArrayList<>();
+    for (LocalDate date = JUL_04.minusDays(3); date.isBefore(DEC_17.plusDays(3)); date = date.plusDays(1)) {
+      LocalDate base = date;
+      Optional<SchedulePeriod> expected = test.getPeriods().stream().filter(p -> p.contains(base)).findFirst();
+      OptionalInt expectedIndex = (expected.isPresent() ?
+          OptionalInt.of(test.getPeriods().indexOf(expected.get())) : OptionalInt.empty());
+      assertEquals(test.findPeriodIndex(date), expectedIndex);
+      if (expected.isPresent()) {
+        assertEquals(test.getPeriodEndDate(date), expected.get().getEndDate());
+        assertEquals(test.getPeriodEndEpochDay(date.toEpochDay()), expected.get().getEndDate().toEpochDay());
+      } else {
+        assertThrowsIllegalArg(() -> test.getPeriodEndEpochDay(base.toEpochDay()));
+      }
+      dates.add(date);
+    }
+    int[] indices = test.findPeriodIndices(dates.toArray(new LocalDate[dates.size()]));
+    for (int i = 0; i < dates.size(); i++) {
+      assertEquals(indices[i], test.findPeriodIndex(dates.get(i)).orElse(-1));
+    }
+    assertEquals(test.getPeriodEndDate(JUL_17), AUG_17);
+    assertEquals(test.getPeriodEndDate(OCT_17), NOV_17);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_findPeriodIndex() {
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P2_NORMAL, P4_NORMAL, P5_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    assertEquals(test.findPeriodIndex(JUL_17), OptionalInt.of(0));
+    assertEquals(test.findPeriodIndex(AUG_17.minusDays(1)), OptionalInt.of(0));
+    assertEquals(test.findPeriodIndex(AUG_17), OptionalInt.empty());
+    assertEquals(test.findPeriodIndex(SEP_17), OptionalInt.of(1));
+    assertEquals(test.findPeriodIndex(OCT_17), OptionalInt.of(2));
+    assertEquals(test.findPeriodIndex(NOV_17), OptionalInt.empty());
+    assertEquals(test.findPeriodIndex(JUL_04), OptionalInt.empty());
+    assertThrowsIllegalArg(() -> test.findPeriodIndex(null));
+  }
+
+  public void test_findPeriodIndices() {
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P1_STUB, P2_NORMAL, P3_NORMAL, P4_NORMAL, P5_NORMAL, P6_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    List<LocalDate> dates = new ArrayList<>();
+    for (LocalDate date = JUL_04.minusDays(3); date.isBefore(DEC_17.plusDays(3)); date = date.plusDays(2)) {
+      dates.add(date);
+      if (date.getDayOfMonth() % 5 == 0) {
+        dates.add(date);
+      }
+    }
+    int[] indices = test.findPeriodIndices(dates.toArray(new LocalDate[dates.size()]));
+    assertEquals(indices.length, dates.size());
+    for (int i = 0; i < dates.size(); i++) {
+      assertEquals(indices[i], test.findPeriodIndex(dates.get(i)).orElse(-1));
+    }
+    assertEquals(test.findPeriodIndices(new LocalDate[0]).length, 0);
+    assertThrowsIllegalArg(() -> test.findPeriodIndices(new LocalDate[] {AUG_17, JUL_17}));
+    assertThrowsIllegalArg(() -> test.findPeriodIndices(new LocalDate[] {AUG_17, null}));
+    assertThrowsIllegalArg(() -> test.findPeriodIndices(null));
+  }
+
   //-------------------------------------------------------------------------
   public void test_mergeToTerm() {
     Schedule testNormal = Schedule.builder()
@@ -461,4 +593,54 @@ public class ScheduleTest {
     assertSerialization(test);
   }
 
+  public void test_serialization_earlierForm() {
+    // written by an earlier version, which stored the periods as an ImmutableList
+    String serialized =
+      "rO0ABXNyACZjb20ub3BlbmdhbW1hLmJhc2ljcy5zY2hlZHVsZS5TY2hlZHVsZQAAAAAAAAABAgADTAAJZnJlcXVlbmN5dAAp" +
+      "TGNvbS9vcGVuZ2FtbWEvYmFzaWNzL3NjaGVkdWxlL0ZyZXF1ZW5jeTtMAAdwZXJpb2RzdAApTGNvbS9nb29nbGUvY29tbW9u" +
+      "L2NvbGxlY3QvSW1tdXRhYmxlTGlzdDtMAA5yb2xsQ29udmVudGlvbnQALkxjb20vb3BlbmdhbW1hL2Jhc2ljcy9zY2hlZHVs" +
+      "ZS9Sb2xsQ29udmVudGlvbjt4cHNyACdjb20ub3BlbmdhbW1hLmJhc2ljcy5zY2hlZHVsZS5GcmVxdWVuY3kAAAAAAAAAAQIA" +
+      "AkwABG5hbWV0ABJMamF2YS9sYW5nL1N0cmluZztMAAZwZXJpb2R0ABJMamF2YS90aW1lL1BlcmlvZDt4cHQAA1AxTXNyAA1q" +
+      "YXZhLnRpbWUuU2VylV2EuhsiSLIMAAB4cHcNDgAAAAAAAAABAAAAAHhzcgA2Y29tLmdvb2dsZS5jb21tb24uY29sbGVjdC5J" +
+      "bW11dGFibGVMaXN0JFNlcmlhbGl6ZWRGb3JtAAAAAAAAAAACAAFbAAhlbGVtZW50c3QAE1tMamF2YS9sYW5nL09iamVjdDt4" +
+      "cHVyABNbTGphdmEubGFuZy5PYmplY3Q7kM5YnxBzKWwCAAB4cAAAAAJzcgAsY29tLm9wZW5nYW1tYS5iYXNpY3Muc2NoZWR1" +
+      "bGUuU2NoZWR1bGVQZXJpb2QAAAAAAAAAAQIABEwAB2VuZERhdGV0ABVMamF2YS90aW1lL0xvY2FsRGF0ZTtMAAlzdGFydERh" +
+      "dGVxAH4AEkwAEXVuYWRqdXN0ZWRFbmREYXRlcQB+ABJMABN1bmFkanVzdGVkU3RhcnREYXRlcQB+ABJ4cHNxAH4ACncHAwAA" +
+      "B94HEXhzcQB+AAp3BwMAAAfeBwR4cQB+ABRxAH4AFXNxAH4AEXNxAH4ACncHAwAAB94IEnhzcQB+AAp3BwMAAAfeBxF4c3EA" +
+      "fgAKdwcDAAAH3ggReHNxAH4ACncHAwAAB94HEXhzcgA0Y29tLm9wZW5nYW1tYS5iYXNpY3Muc2NoZWR1bGUuRGF5Um9sbENv" +
+      "bnZlbnRpb25zJERvbQAAAAAAAAABAgACSQADZGF5TAAEbmFtZXEAfgAGeHAAAAARdAAFRGF5MTc=";
+    Schedule expected = Schedule.builder()
+        .periods(ImmutableList.of(P1_STUB, SchedulePeriod.of(JUL_17, date(2014, AUGUST, 18), JUL_17, AUG_17)))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    assertEquals(TestHelper.deserialize(serialized), expected);
+    String serializedTerm =
+      "rO0ABXNyACZjb20ub3BlbmdhbW1hLmJhc2ljcy5zY2hlZHVsZS5TY2hlZHVsZQAAAAAAAAABAgADTAAJZnJlcXVlbmN5dAAp" +
+      "TGNvbS9vcGVuZ2FtbWEvYmFzaWNzL3NjaGVkdWxlL0ZyZXF1ZW5jeTtMAAdwZXJpb2RzdAApTGNvbS9nb29nbGUvY29tbW9u" +
+      "L2NvbGxlY3QvSW1tdXRhYmxlTGlzdDtMAA5yb2xsQ29udmVudGlvbnQALkxjb20vb3BlbmdhbW1hL2Jhc2ljcy9zY2hlZHVs" +
+      "ZS9Sb2xsQ29udmVudGlvbjt4cHNyACdjb20ub3BlbmdhbW1hLmJhc2ljcy5zY2hlZHVsZS5GcmVxdWVuY3kAAAAAAAAAAQIA" +
+      "AkwABG5hbWV0ABJMamF2YS9sYW5nL1N0cmluZztMAAZwZXJpb2R0ABJMamF2YS90aW1lL1BlcmlvZDt4cHQABFRlcm1zcgAN" +
+      "amF2YS50aW1lLlNlcpVdhLobIkiyDAAAeHB3DQ4AACcQAAAAAAAAAAB4c3IANmNvbS5nb29nbGUuY29tbW9uLmNvbGxlY3Qu" +
+      "SW1tdXRhYmxlTGlzdCRTZXJpYWxpemVkRm9ybQAAAAAAAAAAAgABWwAIZWxlbWVudHN0ABNbTGphdmEvbGFuZy9PYmplY3Q7" +
+      "eHB1cgATW0xqYXZhLmxhbmcuT2JqZWN0O5DOWJ8QcylsAgAAeHAAAAABc3IALGNvbS5vcGVuZ2FtbWEuYmFzaWNzLnNjaGVk" +
+      "dWxlLlNjaGVkdWxlUGVyaW9kAAAAAAAAAAECAARMAAdlbmREYXRldAAVTGphdmEvdGltZS9Mb2NhbERhdGU7TAAJc3RhcnRE" +
+      "YXRlcQB+ABJMABF1bmFkanVzdGVkRW5kRGF0ZXEAfgASTAATdW5hZGp1c3RlZFN0YXJ0RGF0ZXEAfgASeHBzcQB+AAp3BwMA" +
+      "AAfeBxF4c3EAfgAKdwcDAAAH3gcEeHEAfgAUcQB+ABV+cgA1Y29tLm9wZW5nYW1tYS5iYXNpY3Muc2NoZWR1bGUuU3RhbmRh" +
+      "cmRSb2xsQ29udmVudGlvbnMAAAAAAAAAABIAAHhyAA5qYXZhLmxhbmcuRW51bQAAAAAAAAAAEgAAeHB0AAROT05F";
+    assertEquals(TestHelper.deserialize(serializedTerm), Schedule.ofTerm(P1_STUB));
+    ObjectStreamClass streamClass = ObjectStreamClass.lookup(Schedule.class);
+    assertEquals(streamClass.getField("periods").getType(), ImmutableList.class);
+    assertEquals(streamClass.getSerialVersionUID(), 1L);
+  }
+
+  public void test_getPeriods_retained() {
+    Schedule test = Schedule.builder()
+        .periods(ImmutableList.of(P1_STUB, P2_NORMAL))
+        .frequency(P1M)
+        .rollConvention(DAY_17)
+        .build();
+    assertSame(test.getPeriods(), test.getPeriods());
+  }
+
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+import com.opengamma.basics.date.BusinessDayAdjustment;
+import com.opengamma.basics.date.BusinessDayConvention;
+import com.opengamma.basics.date.HolidayCalendar;
+import com.opengamma.basics.schedule.Frequency;
+import com.opengamma.basics.schedule.PeriodicSchedule;
+import com.opengamma.basics.schedule.StubConvention;
+import com.opengamma.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * Generator of the data used by the benchmarks.
+ * <p>
+ * All data is generated from a fixed seed, so that each run operates on the same data.
+ */
+public final class BenchmarkData {
+
+  /**
+   * The number of trades in a realistic book.
+   */
+  public static final int TRADE_COUNT = 10_000;
+  /**
+   * The seed used to generate the data.
+   */
+  private static final long SEED = 20141201L;
+  /**
+   * The earliest trade date.
+   */
+  private static final LocalDate BASE_DATE = LocalDate.of(2015, 1, 1);
+
+  /**
+   * Restricted constructor.
+   */
+  private BenchmarkData() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an array of trade dates, spread over the ten years from 2015.
+   * 
+   * @param count  the number of dates
+   * @return the dates, not sorted
+   */
+  public static LocalDate[] tradeDates(int count) {
+    Random random = new Random(SEED);
+    LocalDate[] dates = new LocalDate[count];
+    for (int i = 0; i < count; i++) {
+      dates[i] = BASE_DATE.plusDays(random.nextInt(3652));
+    }
+    return dates;
+  }
+
+  /**
+   * Creates a 40 year quarterly schedule definition.
+   * 
+   * @param startDate  the start date
+   * @param convention  the business day convention
+   * @param calendar  the holiday calendar
+   * @param stubConvention  the stub convention
+   * @return the schedule definition
+   */
+  public static PeriodicSchedule schedule(
+      LocalDate startDate,
+      BusinessDayConvention convention,
+      HolidayCalendar calendar,
+      StubConvention stubConvention) {
+
+    return PeriodicSchedule.builder()
+        .startDate(startDate)
+        .endDate(startDate.plusYears(40).plusDays(17))
+        .frequency(Frequency.P3M)
+        .businessDayAdjustment(BusinessDayAdjustment.of(convention, calendar))
+        .stubConvention(stubConvention)
+        .build();
+  }
+
+  /**
+   * Creates a 20 year daily time-series, with a point on each weekday.
+   * <p>
+   * The values are a random walk.
+   * The fraction of weekdays present can be controlled, which allows series
+   * with different sets of dates to be created.
+   * 
+   * @param seedOffset  the offset to the seed, allowing different series to be created
+   * @param density  the fraction of weekdays present, from 0 to 1
+   * @return the time-series
+   */
+  public static LocalDateDoubleTimeSeries dailySeries(int seedOffset, double density) {
+    Random random = new Random(SEED + seedOffset);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    double value = 100d;
+    for (LocalDate date = BASE_DATE.minusYears(20); date.isBefore(BASE_DATE); date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+        value += random.nextGaussian();
+        if (random.nextDouble() < density) {
+          builder.put(date, value);
+        }
+      }
+    }
+    return builder.build();
+  }
+
+}
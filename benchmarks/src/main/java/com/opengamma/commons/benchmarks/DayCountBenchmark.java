@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.basics.date.BusinessDayConventions;
+import com.opengamma.basics.date.DayCount;
+import com.opengamma.basics.date.HolidayCalendars;
+import com.opengamma.basics.schedule.Schedule;
+import com.opengamma.basics.schedule.SchedulePeriod;
+import com.opengamma.basics.schedule.StubConvention;
+
+/**
+ * Benchmarks {@link DayCount}, calculating the year fraction of an accrual period of each trade in a book.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayCountBenchmark {
+
+  /**
+   * The number of distinct schedules that the trades are based on.
+   */
+  private static final int SCHEDULE_COUNT = 100;
+
+  /**
+   * The day count.
+   */
+  @Param({"Act/360", "Act/365F", "Act/Act ISDA", "Act/Act ICMA", "30/360 ISDA", "30E/360"})
+  private String dayCountName;
+
+  private DayCount dayCount;
+  private Schedule[] schedules;
+  private LocalDate[] startDates;
+  private LocalDate[] endDates;
+  private long[] startEpochDays;
+  private long[] endEpochDays;
+
+  @Setup
+  public void setup() {
+    dayCount = DayCount.of(dayCountName);
+    LocalDate[] scheduleStartDates = BenchmarkData.tradeDates(SCHEDULE_COUNT);
+    Schedule[] distinct = new Schedule[SCHEDULE_COUNT];
+    for (int i = 0; i < SCHEDULE_COUNT; i++) {
+      distinct[i] = BenchmarkData.schedule(
+          scheduleStartDates[i],
+          BusinessDayConventions.MODIFIED_FOLLOWING,
+          HolidayCalendars.GBLO,
+          StubConvention.SHORT_INITIAL).createSchedule();
+    }
+    // each trade accrues over one period of one of the schedules
+    Random random = new Random(1);
+    int count = BenchmarkData.TRADE_COUNT;
+    schedules = new Schedule[count];
+    startDates = new LocalDate[count];
+    endDates = new LocalDate[count];
+    startEpochDays = new long[count];
+    endEpochDays = new long[count];
+    for (int i = 0; i < count; i++) {
+      Schedule schedule = distinct[random.nextInt(SCHEDULE_COUNT)];
+      SchedulePeriod period = schedule.getPeriod(random.nextInt(schedule.size()));
+      schedules[i] = schedule;
+      startDates[i] = period.getStartDate();
+      endDates[i] = period.getEndDate();
+      startEpochDays[i] = startDates[i].toEpochDay();
+      endEpochDays[i] = endDates[i].toEpochDay();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public void yearFraction(Blackhole bh) {
+    for (int i = 0; i < schedules.length; i++) {
+      bh.consume(dayCount.yearFraction(startDates[i], endDates[i], schedules[i]));
+    }
+  }
+
+  @Benchmark
+  public void yearFractionEpochDay(Blackhole bh) {
+    for (int i = 0; i < schedules.length; i++) {
+      bh.consume(dayCount.yearFraction(startEpochDays[i], endEpochDays[i], schedules[i]));
+    }
+  }
+
+}
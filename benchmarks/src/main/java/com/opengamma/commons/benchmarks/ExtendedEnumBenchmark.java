@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.basics.date.BusinessDayConvention;
+import com.opengamma.basics.date.DayCount;
+import com.opengamma.basics.date.HolidayCalendar;
+import com.opengamma.collect.named.ExtendedEnum;
+
+/**
+ * Benchmarks {@link ExtendedEnum}, looking up conventions by name as happens when loading trades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtendedEnumBenchmark {
+
+  private static final String[] DAY_COUNTS = {"Act/360", "Act/365F", "Act/Act ISDA", "30/360 ISDA", "30E/360"};
+  private static final String[] CONVENTIONS = {"Following", "ModifiedFollowing", "Preceding", "NoAdjust"};
+  private static final String[] CALENDARS = {"GBLO", "USNY", "EUTA", "JPTO"};
+  private static final String[] COMBINED_CALENDARS = {"GBLO+USNY", "EUTA+GBLO", "USNY+JPTO", "GBLO+USNY+JPTO"};
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public void lookupDayCount(Blackhole bh) {
+    for (String name : DAY_COUNTS) {
+      bh.consume(DayCount.of(name));
+    }
+  }
+
+  @Benchmark
+  public void lookupBusinessDayConvention(Blackhole bh) {
+    for (String name : CONVENTIONS) {
+      bh.consume(BusinessDayConvention.of(name));
+    }
+  }
+
+  @Benchmark
+  public void lookupHolidayCalendar(Blackhole bh) {
+    for (String name : CALENDARS) {
+      bh.consume(HolidayCalendar.of(name));
+    }
+  }
+
+  @Benchmark
+  public void lookupCombinedHolidayCalendar(Blackhole bh) {
+    for (String name : COMBINED_CALENDARS) {
+      bh.consume(HolidayCalendar.of(name));
+    }
+  }
+
+}
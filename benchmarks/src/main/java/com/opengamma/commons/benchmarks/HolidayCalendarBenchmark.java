@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.basics.date.HolidayCalendar;
+
+/**
+ * Benchmarks {@link HolidayCalendar}, querying the dates of a book of trades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayCalendarBenchmark {
+
+  /**
+   * The calendar, which may be combined.
+   */
+  @Param({"GBLO", "USNY", "EUTA", "JPTO", "GBLO+USNY", "GBLO+USNY+EUTA+JPTO"})
+  private String calendarName;
+  /**
+   * The number of business days to shift by.
+   */
+  @Param({"-2", "1", "10"})
+  private int shiftAmount;
+
+  private HolidayCalendar calendar;
+  private LocalDate[] dates;
+
+  @Setup
+  public void setup() {
+    calendar = HolidayCalendar.of(calendarName);
+    dates = BenchmarkData.tradeDates(BenchmarkData.TRADE_COUNT);
+  }
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public void isHoliday(Blackhole bh) {
+    for (LocalDate date : dates) {
+      bh.consume(calendar.isHoliday(date));
+    }
+  }
+
+  @Benchmark
+  public void shift(Blackhole bh) {
+    for (LocalDate date : dates) {
+      bh.consume(calendar.shift(date, shiftAmount));
+    }
+  }
+
+  @Benchmark
+  public void next(Blackhole bh) {
+    for (LocalDate date : dates) {
+      bh.consume(calendar.next(date));
+    }
+  }
+
+  @Benchmark
+  public void daysBetween(Blackhole bh) {
+    for (int i = 1; i < dates.length; i++) {
+      LocalDate first = dates[i - 1];
+      LocalDate second = dates[i];
+      bh.consume(first.isBefore(second) ? calendar.daysBetween(first, second) : calendar.daysBetween(second, first));
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * Benchmarks {@link LocalDateDoubleTimeSeries}, operating on 20 year daily series.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateDoubleTimeSeriesBenchmark {
+
+  /**
+   * The fraction of weekdays present in the second series.
+   * A value of one results in both series having the same dates.
+   */
+  @Param({"1", "0.9", "0.5"})
+  private double density;
+
+  private LocalDateDoubleTimeSeries series;
+  private LocalDateDoubleTimeSeries other;
+  private LocalDate[] dates;
+
+  @Setup
+  public void setup() {
+    series = BenchmarkData.dailySeries(0, 1d);
+    other = BenchmarkData.dailySeries(1, density);
+    dates = other.dates().toArray(new LocalDate[other.size()]);
+  }
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public LocalDateDoubleTimeSeries combineWith() {
+    return series.combineWith(other, (a, b) -> a + b);
+  }
+
+  @Benchmark
+  public LocalDateDoubleTimeSeries mapValues() {
+    return series.mapValues(a -> a * 2);
+  }
+
+  @Benchmark
+  public LocalDateDoubleTimeSeries subSeries() {
+    return series.subSeries(dates[dates.length / 4], dates[dates.length / 2]);
+  }
+
+  @Benchmark
+  public void get(Blackhole bh) {
+    for (LocalDate date : dates) {
+      bh.consume(series.get(date));
+    }
+  }
+
+  @Benchmark
+  public LocalDateDoubleTimeSeries build() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    series.forEach((date, value) -> builder.put(date, value));
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.basics.currency.Currency;
+import com.opengamma.basics.currency.CurrencyAmount;
+import com.opengamma.basics.currency.MultiCurrencyAmount;
+
+/**
+ * Benchmarks {@link MultiCurrencyAmount}, summing the amounts of a book of trades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiCurrencyAmountBenchmark {
+
+  /**
+   * The currencies that the trades may be in.
+   */
+  private static final Currency[] CURRENCIES = {
+      Currency.USD, Currency.EUR, Currency.GBP, Currency.JPY, Currency.CHF, Currency.AUD, Currency.CAD};
+
+  /**
+   * The number of distinct currencies in the book.
+   */
+  @Param({"1", "3", "7"})
+  private int currencyCount;
+
+  private CurrencyAmount[] amounts;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1);
+    amounts = new CurrencyAmount[BenchmarkData.TRADE_COUNT];
+    for (int i = 0; i < amounts.length; i++) {
+      amounts[i] = CurrencyAmount.of(CURRENCIES[random.nextInt(currencyCount)], random.nextDouble() * 1_000_000d);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public MultiCurrencyAmount plus() {
+    MultiCurrencyAmount total = MultiCurrencyAmount.of();
+    for (CurrencyAmount amount : amounts) {
+      total = total.plus(amount);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public MultiCurrencyAmount total() {
+    return MultiCurrencyAmount.total(Arrays.asList(amounts));
+  }
+
+  @Benchmark
+  public MultiCurrencyAmount collector() {
+    return Arrays.stream(amounts).collect(MultiCurrencyAmount.collector());
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.commons.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.basics.date.BusinessDayConvention;
+import com.opengamma.basics.date.HolidayCalendar;
+import com.opengamma.basics.schedule.PeriodicSchedule;
+import com.opengamma.basics.schedule.StubConvention;
+
+/**
+ * Benchmarks {@link PeriodicSchedule}, generating 40 year quarterly schedules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeriodicScheduleBenchmark {
+
+  /**
+   * The number of schedules generated by each invocation.
+   */
+  private static final int SCHEDULE_COUNT = 100;
+
+  /**
+   * The calendar, which may be combined.
+   */
+  @Param({"GBLO", "USNY", "GBLO+USNY"})
+  private String calendarName;
+  /**
+   * The business day convention.
+   */
+  @Param({"Following", "ModifiedFollowing", "Preceding"})
+  private String conventionName;
+  /**
+   * The stub convention.
+   */
+  @Param({"SHORT_INITIAL", "SHORT_FINAL"})
+  private StubConvention stubConvention;
+
+  private PeriodicSchedule[] definitions;
+
+  @Setup
+  public void setup() {
+    HolidayCalendar calendar = HolidayCalendar.of(calendarName);
+    BusinessDayConvention convention = BusinessDayConvention.of(conventionName);
+    LocalDate[] startDates = BenchmarkData.tradeDates(SCHEDULE_COUNT);
+    definitions = new PeriodicSchedule[SCHEDULE_COUNT];
+    for (int i = 0; i < SCHEDULE_COUNT; i++) {
+      definitions[i] = BenchmarkData.schedule(startDates[i], convention, calendar, stubConvention);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Benchmark
+  public void createSchedule(Blackhole bh) {
+    for (PeriodicSchedule definition : definitions) {
+      bh.consume(definition.createSchedule());
+    }
+  }
+
+  @Benchmark
+  public void createUnadjustedDates(Blackhole bh) {
+    for (PeriodicSchedule definition : definitions) {
+      bh.consume(definition.createUnadjustedDates());
+    }
+  }
+
+}
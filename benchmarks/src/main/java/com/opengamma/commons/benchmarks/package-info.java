@@ -0,0 +1,15 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+
+/**
+ * JMH benchmarks for the performance sensitive parts of OG-Commons.
+ * <p>
+ * The benchmarks operate on data of a realistic size, such as a book of 10,000 trades,
+ * 40 year quarterly schedules and 20 year daily time-series.
+ * The data is generated by {@code BenchmarkData} using a fixed seed, so that results
+ * can be compared between runs.
+ */
+package com.opengamma.commons.benchmarks;
@@ -0,0 +1,32 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.function;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * A function of an array of {@code double} values that returns a {@code double}.
+ * <p>
+ * This takes an array of values and returns a single {@code double} result.
+ * It is typically used to combine the values of several time-series at a single date.
+ * <p>
+ * The array passed to the function may be reused between calls.
+ * As such, implementations must not retain or modify the array.
+ *
+ * @see DoubleBinaryOperator
+ */
+@FunctionalInterface
+public interface DoubleArrayFunction {
+
+  /**
+   * Applies the function.
+   *
+   * @param values  the values, which must not be retained or modified
+   * @return the result of the function
+   */
+  double applyAsDouble(double[] values);
+
+}
@@ -0,0 +1,463 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.opengamma.collect.ArgChecker;
+
+/**
+ * An immutable time-series of {@code double} values keyed by {@code LocalDate},
+ * held in a compressed form.
+ * <p>
+ * The points are encoded into a bit stream using the approach of the Gorilla time-series database.
+ * Each date is stored as the change in the gap between consecutive dates, known as the delta-of-delta,
+ * which takes a single bit where the gap is unchanged, as in most of a daily or business-day series.
+ * Each value is stored as the exclusive-or of the bits of the value with those of the previous value,
+ * which takes a single bit if the value is unchanged and few bits if the value changes slowly.
+ * <p>
+ * The stream is divided into blocks of a fixed number of points, where the first point of each
+ * block is stored in full. The first date of each block is held as a checkpoint, allowing
+ * {@link #get(LocalDate)} to binary search for the block before decoding only that block.
+ * <p>
+ * This class is intended for archiving series where memory usage is more important than speed.
+ * Use {@link #of(LocalDateDoubleTimeSeries)} and {@link #toTimeSeries()} to convert
+ * to and from the standard time-series.
+ */
+public final class CompressedLocalDateDoubleTimeSeries
+    implements DoubleTimeSeries<LocalDate>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+  /**
+   * The number of points in each block.
+   */
+  private static final int BLOCK_SIZE = 64;
+  /**
+   * An empty time-series.
+   */
+  public static final CompressedLocalDateDoubleTimeSeries EMPTY_SERIES =
+      new CompressedLocalDateDoubleTimeSeries(new byte[0], 0, new int[0], new int[0]);
+
+  /**
+   * The encoded bit stream.
+   */
+  private final byte[] data;
+  /**
+   * The number of points.
+   */
+  private final int size;
+  /**
+   * The first date of each block, as epoch-days.
+   */
+  private final int[] blockDates;
+  /**
+   * The bit offset of each block in the stream.
+   */
+  private final int[] blockOffsets;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a compressed time-series from a standard time-series.
+   *
+   * @param series  the time-series to compress
+   * @return the compressed time-series
+   */
+  public static CompressedLocalDateDoubleTimeSeries of(LocalDateDoubleTimeSeries series) {
+    ArgChecker.notNull(series, "series");
+    if (series.isEmpty()) {
+      return EMPTY_SERIES;
+    }
+    int[] dates = series.epochDaysUnsafe();
+    double[] values = series.valuesUnsafe();
+    int blockCount = (dates.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    int[] blockDates = new int[blockCount];
+    int[] blockOffsets = new int[blockCount];
+    BitWriter writer = new BitWriter(dates.length * 4);
+    long prevDelta = 0;
+    long prevBits = 0;
+    int prevLeading = -1;
+    int prevTrailing = 0;
+    for (int i = 0; i < dates.length; i++) {
+      long bits = Double.doubleToRawLongBits(values[i]);
+      if (i % BLOCK_SIZE == 0) {
+        // first point of block is stored in full
+        blockDates[i / BLOCK_SIZE] = dates[i];
+        blockOffsets[i / BLOCK_SIZE] = writer.position();
+        writer.write(dates[i], 32);
+        writer.write(bits, 64);
+        prevDelta = 0;
+        prevLeading = -1;
+      } else {
+        long delta = (long) dates[i] - dates[i - 1];
+        writeDeltaOfDelta(writer, delta - prevDelta);
+        prevDelta = delta;
+        long xor = bits ^ prevBits;
+        if (xor == 0) {
+          writer.write(0, 1);
+        } else {
+          int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+          int trailing = Long.numberOfTrailingZeros(xor);
+          if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+            // meaningful bits fit in the window of the previous value
+            writer.write(0b10, 2);
+            writer.write(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+          } else {
+            int meaningful = 64 - leading - trailing;
+            writer.write(0b11, 2);
+            writer.write(leading, 5);
+            writer.write(meaningful - 1, 6);
+            writer.write(xor >>> trailing, meaningful);
+            prevLeading = leading;
+            prevTrailing = trailing;
+          }
+        }
+      }
+      prevBits = bits;
+    }
+    return new CompressedLocalDateDoubleTimeSeries(writer.toByteArray(), dates.length, blockDates, blockOffsets);
+  }
+
+  // writes the delta-of-delta using a variable length prefix code
+  private static void writeDeltaOfDelta(BitWriter writer, long deltaOfDelta) {
+    if (deltaOfDelta == 0) {
+      writer.write(0, 1);
+    } else if (deltaOfDelta >= -4 && deltaOfDelta < 4) {
+      writer.write(0b10, 2);
+      writer.write(deltaOfDelta + 4, 3);
+    } else if (deltaOfDelta >= -64 && deltaOfDelta < 64) {
+      writer.write(0b110, 3);
+      writer.write(deltaOfDelta + 64, 7);
+    } else if (deltaOfDelta >= -2048 && deltaOfDelta < 2048) {
+      writer.write(0b1110, 4);
+      writer.write(deltaOfDelta + 2048, 12);
+    } else {
+      writer.write(0b1111, 4);
+      writer.write(deltaOfDelta, 64);
+    }
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param data  the encoded bit stream, not altered
+   * @param size  the number of points
+   * @param blockDates  the first date of each block, not altered
+   * @param blockOffsets  the bit offset of each block, not altered
+   */
+  private CompressedLocalDateDoubleTimeSeries(byte[] data, int size, int[] blockDates, int[] blockOffsets) {
+    this.data = data;
+    this.size = size;
+    this.blockDates = blockDates;
+    this.blockOffsets = blockOffsets;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Return the size of this time-series.
+   *
+   * @return the size of the time-series
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Indicates if this time-series is empty.
+   *
+   * @return true if the time-series contains no entries
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of bytes used by the encoded points.
+   * <p>
+   * This excludes the small overhead of the block checkpoints.
+   *
+   * @return the number of bytes of encoded data
+   */
+  public int encodedSize() {
+    return data.length;
+  }
+
+  /**
+   * Gets the value associated with the specified date.
+   * <p>
+   * This finds the block that may contain the date using a binary search,
+   * then decodes the points of that block until the date is found.
+   *
+   * @param date  the date to get the value for
+   * @return the value associated with the date, optional empty if the date is not present
+   */
+  public OptionalDouble get(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    long epochDay = date.toEpochDay();
+    if (size == 0 || epochDay < blockDates[0] || epochDay > Integer.MAX_VALUE) {
+      return OptionalDouble.empty();
+    }
+    int block = Arrays.binarySearch(blockDates, (int) epochDay);
+    block = (block >= 0 ? block : -block - 2);
+    Decoder decoder = new Decoder(block);
+    while (decoder.hasNext()) {
+      decoder.next();
+      if (decoder.date >= epochDay) {
+        return (decoder.date == epochDay ? OptionalDouble.of(decoder.value) : OptionalDouble.empty());
+      }
+      if (decoder.index % BLOCK_SIZE == BLOCK_SIZE - 1) {
+        break;
+      }
+    }
+    return OptionalDouble.empty();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Applies an action to each pair in the time series, decoding the points in order.
+   *
+   * @param action  the action to be applied to each pair
+   */
+  public void forEach(ObjDoubleConsumer<LocalDate> action) {
+    ArgChecker.notNull(action, "action");
+    Decoder decoder = new Decoder(0);
+    while (decoder.hasNext()) {
+      decoder.next();
+      action.accept(LocalDate.ofEpochDay(decoder.date), decoder.value);
+    }
+  }
+
+  /**
+   * Returns a stream over the points of this time-series, decoding the points in order.
+   *
+   * @return a stream over the points of this time-series
+   */
+  public Stream<LocalDateDoublePoint> stream() {
+    Decoder decoder = new Decoder(0);
+    Iterator<LocalDateDoublePoint> iterator = new Iterator<LocalDateDoublePoint>() {
+      @Override
+      public boolean hasNext() {
+        return decoder.hasNext();
+      }
+
+      @Override
+      public LocalDateDoublePoint next() {
+        if (!decoder.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        decoder.next();
+        return LocalDateDoublePoint.of(LocalDate.ofEpochDay(decoder.date), decoder.value);
+      }
+    };
+    int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+    return StreamSupport.stream(Spliterators.spliterator(iterator, size, characteristics), false);
+  }
+
+  /**
+   * Decompresses this time-series.
+   *
+   * @return the standard time-series
+   */
+  public LocalDateDoubleTimeSeries toTimeSeries() {
+    int[] dates = new int[size];
+    double[] values = new double[size];
+    Decoder decoder = new Decoder(0);
+    while (decoder.hasNext()) {
+      decoder.next();
+      dates[decoder.index] = decoder.date;
+      values[decoder.index] = decoder.value;
+    }
+    return LocalDateDoubleTimeSeries.createUnsafe(dates, values);
+  }
+
+  /**
+   * Returns a map of dates and values in this time-series.
+   *
+   * @return a map of the elements of this time-series
+   */
+  @Override
+  public ImmutableSortedMap<LocalDate, Double> toMap() {
+    ImmutableSortedMap.Builder<LocalDate, Double> builder = ImmutableSortedMap.naturalOrder();
+    forEach(builder::put);
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this time-series is equal to another time-series.
+   * <p>
+   * Compressed time-series are equal if they contain the same dates and values.
+   *
+   * @param obj  the object to check, null returns false
+   * @return true if this is equal to the other time-series
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof CompressedLocalDateDoubleTimeSeries) {
+      // the encoding is deterministic, thus equal series have equal data
+      CompressedLocalDateDoubleTimeSeries other = (CompressedLocalDateDoubleTimeSeries) obj;
+      return size == other.size && Arrays.equals(data, other.data);
+    }
+    return false;
+  }
+
+  /**
+   * A hash code for this time-series.
+   *
+   * @return a suitable hash code
+   */
+  @Override
+  public int hashCode() {
+    return size ^ Arrays.hashCode(data);
+  }
+
+  /**
+   * Returns a string representation of the time-series.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return toTimeSeries().toString();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writer of a bit stream.
+   */
+  private static final class BitWriter {
+    private byte[] buffer;
+    private int position;
+
+    private BitWriter(int initialCapacity) {
+      buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    private int position() {
+      return position;
+    }
+
+    // writes the lowest bits of the value, most significant bit first
+    private void write(long value, int bits) {
+      if (((position + bits + 7) >>> 3) > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, (position + bits + 7) >>> 3));
+      }
+      int remaining = bits;
+      while (remaining > 0) {
+        int free = 8 - (position & 7);
+        int count = Math.min(free, remaining);
+        int chunk = (int) (value >>> (remaining - count)) & ((1 << count) - 1);
+        buffer[position >>> 3] |= chunk << (free - count);
+        position += count;
+        remaining -= count;
+      }
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, (position + 7) >>> 3);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sequential decoder of the bit stream, starting from a block.
+   */
+  private final class Decoder {
+    private int position;
+    private int index;
+    private int date;
+    private double value;
+    private long prevDelta;
+    private long prevBits;
+    private int prevLeading;
+    private int prevTrailing;
+
+    private Decoder(int block) {
+      index = block * BLOCK_SIZE - 1;
+      position = (size == 0 ? 0 : blockOffsets[block]);
+    }
+
+    private boolean hasNext() {
+      return index + 1 < size;
+    }
+
+    // decodes the next point
+    private void next() {
+      index++;
+      if (index % BLOCK_SIZE == 0) {
+        date = (int) read(32);
+        prevBits = read(64);
+        prevDelta = 0;
+        prevLeading = -1;
+      } else {
+        long delta = prevDelta + readDeltaOfDelta();
+        date = (int) (date + delta);
+        prevDelta = delta;
+        if (read(1) != 0) {
+          if (read(1) == 0) {
+            prevBits ^= read(64 - prevLeading - prevTrailing) << prevTrailing;
+          } else {
+            prevLeading = (int) read(5);
+            int meaningful = (int) read(6) + 1;
+            prevTrailing = 64 - prevLeading - meaningful;
+            prevBits ^= read(meaningful) << prevTrailing;
+          }
+        }
+      }
+      value = Double.longBitsToDouble(prevBits);
+    }
+
+    // reads the delta-of-delta
+    private long readDeltaOfDelta() {
+      if (read(1) == 0) {
+        return 0;
+      }
+      if (read(1) == 0) {
+        return read(3) - 4;
+      }
+      if (read(1) == 0) {
+        return read(7) - 64;
+      }
+      if (read(1) == 0) {
+        return read(12) - 2048;
+      }
+      return read(64);
+    }
+
+    // reads the specified number of bits, most significant bit first
+    private long read(int bits) {
+      long result = 0;
+      int remaining = bits;
+      while (remaining > 0) {
+        int available = 8 - (position & 7);
+        int count = Math.min(available, remaining);
+        int chunk = ((data[position >>> 3] & 0xFF) >>> (available - count)) & ((1 << count) - 1);
+        result = (result << count) | chunk;
+        position += count;
+        remaining -= count;
+      }
+      return result;
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+
+import com.google.common.base.CaseFormat;
+import com.opengamma.collect.ArgChecker;
+
+/**
+ * A policy defining how to handle a date that is missing from a time-series.
+ * <p>
+ * When time-series are joined, a date may be present in one series but not another.
+ * The policy determines whether a value is used in place of the missing value,
+ * or whether the date is dropped from the result.
+ */
+public enum FillPolicy {
+
+  /**
+   * Fills the missing value with the previous value in the same time-series.
+   * <p>
+   * If there is no earlier value in the same time-series, the date is dropped.
+   */
+  PREVIOUS_VALUE {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return hasPrevious;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      return previous;
+    }
+  },
+  /**
+   * Fills the missing value with the next value in the same time-series.
+   * <p>
+   * If there is no later value in the same time-series, the date is dropped.
+   */
+  NEXT_VALUE {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return hasNext;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      return next;
+    }
+  },
+  /**
+   * Fills the missing value by linear interpolation between the previous and next
+   * values in the same time-series, based on the number of days between the dates.
+   * <p>
+   * If there is no earlier or no later value in the same time-series, the date is dropped.
+   */
+  LINEAR_INTERPOLATION {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return hasPrevious && hasNext;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      return previous + fraction * (next - previous);
+    }
+  },
+  /**
+   * Fills the missing value with zero.
+   */
+  ZERO {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return true;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      return 0d;
+    }
+  },
+  /**
+   * Fills the missing value with {@code Double.NaN}.
+   */
+  NAN {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return true;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      return Double.NaN;
+    }
+  },
+  /**
+   * Drops the date from the result.
+   * <p>
+   * The result only contains dates where all the time-series being joined have a value.
+   */
+  DROP {
+    @Override
+    boolean canFill(boolean hasPrevious, boolean hasNext) {
+      return false;
+    }
+
+    @Override
+    double fill(double previous, double next, double fraction) {
+      throw new UnsupportedOperationException("Fill policy 'Drop' cannot fill a value");
+    }
+  };
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the type from a unique name.
+   * 
+   * @param uniqueName  the unique name
+   * @return the type
+   * @throws IllegalArgumentException if the name is not known
+   */
+  @FromString
+  public static FillPolicy of(String uniqueName) {
+    ArgChecker.notNull(uniqueName, "uniqueName");
+    return valueOf(CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, uniqueName));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if a missing value can be filled.
+   * 
+   * @param hasPrevious  true if the time-series has a value before the missing date
+   * @param hasNext  true if the time-series has a value after the missing date
+   * @return true if the missing value can be filled, false if the date is to be dropped
+   */
+  abstract boolean canFill(boolean hasPrevious, boolean hasNext);
+
+  /**
+   * Gets the value to use in place of a missing value.
+   * <p>
+   * This must only be called if {@link #canFill(boolean, boolean)} returns true.
+   * The previous and next values are NaN if not present, as is the fraction unless both are present.
+   * 
+   * @param previous  the previous value in the time-series
+   * @param next  the next value in the time-series
+   * @param fraction  the fraction of the days between the previous and next dates that have
+   *  elapsed at the missing date
+   * @return the value to use
+   */
+  abstract double fill(double previous, double next, double fraction);
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the formatted unique name of the type.
+   * 
+   * @return the formatted string representing the type
+   */
+  @ToString
+  @Override
+  public String toString() {
+    return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, name());
+  }
+
+}
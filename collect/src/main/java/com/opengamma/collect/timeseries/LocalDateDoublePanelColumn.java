@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import java.time.LocalDate;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+/**
+ * A view of a single column of a {@code LocalDateDoubleTimeSeriesPanel}.
+ * <p>
+ * This shares the arrays of the panel, excluding the dates where the column value is NaN.
+ */
+final class LocalDateDoublePanelColumn
+    implements DoubleTimeSeries<LocalDate> {
+
+  /**
+   * The dates of the panel axis, as epoch-days.
+   */
+  private final int[] dates;
+  /**
+   * The values of the column, NaN where missing.
+   */
+  private final double[] values;
+  /**
+   * The number of values that are present.
+   */
+  private final int size;
+
+  /**
+   * Creates an instance.
+   *
+   * @param dates  the dates of the panel axis, not altered
+   * @param values  the values of the column, not altered
+   */
+  LocalDateDoublePanelColumn(int[] dates, double[] values) {
+    this.dates = dates;
+    this.values = values;
+    int count = 0;
+    for (double value : values) {
+      if (!Double.isNaN(value)) {
+        count++;
+      }
+    }
+    this.size = count;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public ImmutableSortedMap<LocalDate, Double> toMap() {
+    ImmutableSortedMap.Builder<LocalDate, Double> builder = ImmutableSortedMap.naturalOrder();
+    for (int i = 0; i < dates.length; i++) {
+      if (!Double.isNaN(values[i])) {
+        builder.put(LocalDate.ofEpochDay(dates[i]), values[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64).append('[');
+    for (int i = 0; i < dates.length; i++) {
+      if (!Double.isNaN(values[i])) {
+        buf.append(LocalDateDoublePoint.of(LocalDate.ofEpochDay(dates[i]), values[i])).append(", ");
+      }
+    }
+    if (size > 0) {
+      buf.setLength(buf.length() - 2);
+    }
+    return buf.append(']').toString();
+  }
+
+}
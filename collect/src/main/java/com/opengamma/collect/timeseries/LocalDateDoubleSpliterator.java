@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the points of a {@code LocalDateDoubleTimeSeries}.
+ * <p>
+ * This operates directly on the primitive arrays of the time-series, splitting by index range.
+ * As the size of each half is known exactly, parallel streams split evenly.
+ * Points are only created as they are consumed.
+ */
+final class LocalDateDoubleSpliterator
+    implements Spliterator<LocalDateDoublePoint> {
+
+  /**
+   * The characteristics of the spliterator.
+   */
+  private static final int CHARACTERISTICS =
+      ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT | SORTED;
+
+  /**
+   * The dates, as epoch-days.
+   */
+  private final int[] dates;
+  /**
+   * The values.
+   */
+  private final double[] values;
+  /**
+   * The current index, inclusive.
+   */
+  private int index;
+  /**
+   * The end index, exclusive.
+   */
+  private final int fence;
+
+  /**
+   * Creates an instance.
+   *
+   * @param dates  the dates, as epoch-days, not altered
+   * @param values  the values, not altered
+   * @param index  the start index, inclusive
+   * @param fence  the end index, exclusive
+   */
+  LocalDateDoubleSpliterator(int[] dates, double[] values, int index, int fence) {
+    this.dates = dates;
+    this.values = values;
+    this.index = index;
+    this.fence = fence;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean tryAdvance(Consumer<? super LocalDateDoublePoint> action) {
+    if (index < fence) {
+      action.accept(point(index));
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super LocalDateDoublePoint> action) {
+    int end = fence;
+    for (int i = index; i < end; i++) {
+      action.accept(point(i));
+    }
+    index = end;
+  }
+
+  @Override
+  public Spliterator<LocalDateDoublePoint> trySplit() {
+    int start = index;
+    int mid = (start + fence) >>> 1;
+    if (start >= mid) {
+      return null;
+    }
+    index = mid;
+    return new LocalDateDoubleSpliterator(dates, values, start, mid);
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return CHARACTERISTICS;
+  }
+
+  @Override
+  public Comparator<? super LocalDateDoublePoint> getComparator() {
+    // points are sorted by their natural order
+    return null;
+  }
+
+  // creates the point at the index
+  private LocalDateDoublePoint point(int i) {
+    return LocalDateDoublePoint.of(LocalDate.ofEpochDay(dates[i]), values[i]);
+  }
+
+}
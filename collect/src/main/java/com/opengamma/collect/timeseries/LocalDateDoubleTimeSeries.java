@@ -5,10 +5,17 @@
  */
 package com.opengamma.collect.timeseries;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -17,11 +24,12 @@ import java.util.Set;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
@@ -42,32 +50,61 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.primitives.Doubles;
 import com.opengamma.collect.ArgChecker;
 import com.opengamma.collect.Guavate;
+import com.opengamma.collect.Messages;
+import com.opengamma.collect.function.DoubleArrayFunction;
 import com.opengamma.collect.function.ObjDoublePredicate;
+import com.opengamma.collect.range.LocalDateRange;
 
 /**
  * Standard immutable implementation of {@code DoubleTimeSeries}.
  * <p>
  * This implementation uses arrays internally.
+ * The dates are stored as an array of epoch-days, as per {@link LocalDate#toEpochDay()},
+ * with {@code LocalDate} instances only created when requested.
+ * Sub-series are views that share the arrays of the series they were created from,
+ * see {@link #compact()}.
  */
 @BeanDefinition(builderScope = "private")
 public final class LocalDateDoubleTimeSeries
     implements ImmutableBean, DoubleTimeSeries<LocalDate>, Serializable {
 
+  /**
+   * The serialized form, which matches earlier versions, with the dates as a {@code LocalDate[]}.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("dates", LocalDate[].class),
+      new ObjectStreamField("values", double[].class),
+  };
+
   /** Empty instance. */
-  public static final LocalDateDoubleTimeSeries EMPTY_SERIES = createUnsafe(new LocalDate[0], new double[0]);
+  public static final LocalDateDoubleTimeSeries EMPTY_SERIES = createUnsafe(new int[0], new double[0]);
 
   /**
    * The dates in the series.
    * The dates are ordered from earliest to latest.
+   * Each date is stored as an epoch-day, but exposed as a {@code LocalDate}.
    */
-  @PropertyDefinition(get = "manual", validate = "notNull")
-  private final LocalDate[] dates;
+  @PropertyDefinition(get = "manual", validate = "notNull", type = "LocalDate[]")
+  private final int[] dates;
   /**
    * The values in the series.
    * The date for each value is at the matching array index.
    */
   @PropertyDefinition(get = "manual", validate = "notNull")
   private final double[] values;
+  /**
+   * The index of the first point in the arrays.
+   * This is non-zero when the series is a view of part of another series.
+   */
+  private final transient int offset;
+  /**
+   * The number of points in the series.
+   */
+  private final transient int size;
+  /**
+   * The series read during deserialization, only set on the instance that is then resolved.
+   */
+  private transient LocalDateDoubleTimeSeries deserialized;
 
   //-------------------------------------------------------------------------
   /**
@@ -83,6 +120,10 @@ public final class LocalDateDoubleTimeSeries
 
   /**
    * Returns a collector that can be used to create a time-series from a stream of points.
+   * <p>
+   * When used with a parallel stream, each chunk of the stream is collected into
+   * sorted arrays, which are then merged in linear time.
+   * If a date is duplicated, the point later in the stream wins.
    *
    * @return the time-series collector
    */
@@ -90,7 +131,7 @@ public final class LocalDateDoubleTimeSeries
     return Collector.of(
         LocalDateDoubleTimeSeriesBuilder::new,
         LocalDateDoubleTimeSeriesBuilder::put,
-        LocalDateDoubleTimeSeriesBuilder::putAll,
+        LocalDateDoubleTimeSeriesBuilder::merge,
         LocalDateDoubleTimeSeriesBuilder::build);
   }
 
@@ -118,7 +159,7 @@ public final class LocalDateDoubleTimeSeries
   public static LocalDateDoubleTimeSeries of(Collection<LocalDate> dates, Collection<Double> values) {
     ArgChecker.noNulls(dates, "dates");
     ArgChecker.noNulls(values, "values");
-    LocalDate[] datesArray = dates.toArray(new LocalDate[dates.size()]);
+    int[] datesArray = toEpochDays(dates.toArray(new LocalDate[dates.size()]));
     double[] valuesArray = Doubles.toArray(values);
     validate(datesArray, valuesArray);
     return createUnsafe(datesArray, valuesArray);
@@ -133,11 +174,11 @@ public final class LocalDateDoubleTimeSeries
   public static LocalDateDoubleTimeSeries of(Map<LocalDate, Double> map) {
     ArgChecker.noNulls(map, "map");
     Set<Entry<LocalDate, Double>> set = map.entrySet();
-    LocalDate[] datesArray = new LocalDate[set.size()];
+    int[] datesArray = new int[set.size()];
     double[] valuesArray = new double[set.size()];
     int i = 0;
     for (Entry<LocalDate, Double> entry : set) {
-      datesArray[i] = entry.getKey();
+      datesArray[i] = toEpochDay(entry.getKey());
       valuesArray[i] = entry.getValue();
       i++;
     }
@@ -155,9 +196,9 @@ public final class LocalDateDoubleTimeSeries
    */
   public static LocalDateDoubleTimeSeries of(Collection<LocalDateDoublePoint> points) {
     ArgChecker.noNulls(points, "points");
-    LocalDate[] datesArray = points.stream()
-        .map(LocalDateDoublePoint::getDate)
-        .toArray(LocalDate[]::new);
+    int[] datesArray = points.stream()
+        .mapToInt(point -> toEpochDay(point.getDate()))
+        .toArray();
     double[] valuesArray = points.stream()
         .mapToDouble(LocalDateDoublePoint::getValue)
         .toArray();
@@ -167,20 +208,66 @@ public final class LocalDateDoubleTimeSeries
 
   // creates time-series by directly assigning the input arrays
   // must only be called when safe to do so
-  private static LocalDateDoubleTimeSeries createUnsafe(LocalDate[] dates, double[] values) {
-    return new LocalDateDoubleTimeSeries(dates, values, true);
+  static LocalDateDoubleTimeSeries createUnsafe(int[] dates, double[] values) {
+    return new LocalDateDoubleTimeSeries(dates, values, 0, dates.length);
+  }
+
+  // gets the dates as epoch-days by directly returning the internal array, copied only if this is a view
+  // the result must not be altered
+  int[] epochDaysUnsafe() {
+    return isView() ? Arrays.copyOfRange(dates, offset, offset + size) : dates;
+  }
+
+  // gets the values by directly returning the internal array, copied only if this is a view
+  // the result must not be altered
+  double[] valuesUnsafe() {
+    return isView() ? Arrays.copyOfRange(values, offset, offset + size) : values;
+  }
+
+  // checks if this is a view of part of the arrays
+  private boolean isView() {
+    return offset != 0 || size != dates.length;
+  }
+
+  // gets the date at the index, relative to the offset
+  private int date(int index) {
+    return dates[offset + index];
+  }
+
+  // gets the value at the index, relative to the offset
+  private double value(int index) {
+    return values[offset + index];
   }
 
   // validates the arrays are same length and in order
-  private static void validate(LocalDate[] dates, double[] values) {
+  private static void validate(int[] dates, double[] values) {
     ArgChecker.isTrue(dates.length == values.length,
         "Arrays are of different sizes - dates: {}, values: {}", dates.length, values.length);
-    LocalDate maxDate = LocalDate.MIN;
-    for (LocalDate date : dates) {
-      ArgChecker.isTrue(date.isAfter(maxDate),
-          "Dates must be in ascending order but: {} is not after: {}", date, maxDate);
-      maxDate = date;
+    for (int i = 1; i < dates.length; i++) {
+      if (dates[i] <= dates[i - 1]) {
+        throw new IllegalArgumentException(Messages.format(
+            "Dates must be in ascending order but: {} is not after: {}",
+            LocalDate.ofEpochDay(dates[i]), LocalDate.ofEpochDay(dates[i - 1])));
+      }
+    }
+  }
+
+  // converts the dates to epoch-days, which must fit in an int
+  private static int[] toEpochDays(LocalDate[] dates) {
+    int[] epochDays = new int[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      epochDays[i] = toEpochDay(dates[i]);
+    }
+    return epochDays;
+  }
+
+  // converts the date to an epoch-day, which must fit in an int
+  static int toEpochDay(LocalDate date) {
+    long epochDay = date.toEpochDay();
+    if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Date is outside the range supported by the time-series: " + date);
     }
+    return (int) epochDay;
   }
 
   //-------------------------------------------------------------------------
@@ -196,24 +283,31 @@ public final class LocalDateDoubleTimeSeries
   private LocalDateDoubleTimeSeries(LocalDate[] dates, double[] values) {
     ArgChecker.noNulls(dates, "dates");
     ArgChecker.notNull(values, "values");
-    validate(dates, values);
-    this.dates = dates.clone();
+    int[] epochDays = toEpochDays(dates);
+    validate(epochDays, values);
+    this.dates = epochDays;
     this.values = values.clone();
+    this.offset = 0;
+    this.size = epochDays.length;
   }
 
   /**
    * Creates an instance without validating the supplied arrays.
+   * <p>
+   * The instance is a view of the arrays from the offset for the size.
    *
    * @param dates  the dates
    * @param values  the values
-   * @param trusted  flag to distinguish constructor
+   * @param offset  the index of the first point
+   * @param size  the number of points
    */
-  private LocalDateDoubleTimeSeries(LocalDate[] dates, double[] values, boolean trusted) {
+  private LocalDateDoubleTimeSeries(int[] dates, double[] values, int offset, int size) {
     // constructor exists to avoid clones where possible
-    // because Joda-Beans owns the main constructor, this one has a weird flag
-    // use createUnsafe() instead of calling this directly
+    // use createUnsafe() or view() instead of calling this directly
     this.dates = dates;
     this.values = values;
+    this.offset = offset;
+    this.size = size;
   }
 
   /**
@@ -223,8 +317,54 @@ public final class LocalDateDoubleTimeSeries
    * @param value  the value
    */
   private LocalDateDoubleTimeSeries(LocalDate date, double value) {
-    dates = new LocalDate[] {ArgChecker.notNull(date, "date")};
+    dates = new int[] {toEpochDay(ArgChecker.notNull(date, "date"))};
     values = new double[] {value};
+    offset = 0;
+    size = 1;
+  }
+
+  /**
+   * Writes the series using the serialized form of earlier versions, with the dates as a {@code LocalDate[]}.
+   * <p>
+   * A view is written as a compact series.
+   *
+   * @param out  the output stream
+   * @throws IOException if an IO error occurs
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("dates", getDates());
+    fields.put("values", getValues());
+    out.writeFields();
+  }
+
+  /**
+   * Reads the series from the serialized form, validating the dates and values.
+   *
+   * @param in  the input stream
+   * @throws IOException if an IO error occurs
+   * @throws ClassNotFoundException if a class cannot be found
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    LocalDate[] serializedDates = (LocalDate[]) fields.get("dates", null);
+    double[] serializedValues = (double[]) fields.get("values", null);
+    try {
+      deserialized = new LocalDateDoubleTimeSeries(serializedDates, serializedValues);
+    } catch (IllegalArgumentException ex) {
+      InvalidObjectException ioe = new InvalidObjectException(ex.getMessage());
+      ioe.initCause(ex);
+      throw ioe;
+    }
+  }
+
+  /**
+   * Resolves the series read by {@link #readObject(ObjectInputStream)}.
+   *
+   * @return the resolved instance
+   */
+  private Object readResolve() {
+    return deserialized;
   }
 
   //-----------------------------------------------------------------------
@@ -234,7 +374,11 @@ public final class LocalDateDoubleTimeSeries
    * @return the value of the property, not null
    */
   private LocalDate[] getDates() {
-    return dates.clone();
+    LocalDate[] result = new LocalDate[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = LocalDate.ofEpochDay(date(i));
+    }
+    return result;
   }
 
   /**
@@ -243,7 +387,7 @@ public final class LocalDateDoubleTimeSeries
    * @return the value of the property, not null
    */
   private double[] getValues() {
-    return values.clone();
+    return Arrays.copyOfRange(values, offset, offset + size);
   }
 
   /**
@@ -255,7 +399,7 @@ public final class LocalDateDoubleTimeSeries
    * @return the list of dates in this time-series
    */
   public ImmutableList<LocalDate> dates() {
-    return ImmutableList.copyOf(dates);
+    return ImmutableList.copyOf(getDates());
   }
 
   /**
@@ -267,7 +411,7 @@ public final class LocalDateDoubleTimeSeries
    * @return the list of values in this time-series
    */
   public ImmutableList<Double> values() {
-    return ImmutableList.copyOf(Doubles.asList(values));
+    return ImmutableList.copyOf(Doubles.asList(values).subList(offset, offset + size));
   }
 
   //-------------------------------------------------------------------------
@@ -278,7 +422,7 @@ public final class LocalDateDoubleTimeSeries
    */
   @Override
   public int size() {
-    return dates.length;
+    return size;
   }
 
   /**
@@ -287,7 +431,7 @@ public final class LocalDateDoubleTimeSeries
    * @return true if the time-series contains no entries
    */
   public boolean isEmpty() {
-    return dates.length == 0;
+    return size == 0;
   }
 
   /**
@@ -312,11 +456,109 @@ public final class LocalDateDoubleTimeSeries
    */
   public OptionalDouble get(LocalDate date) {
     int position = findDatePosition(date);
-    return (position >= 0 ? OptionalDouble.of(values[position]) : OptionalDouble.empty());
+    return (position >= 0 ? OptionalDouble.of(value(position)) : OptionalDouble.empty());
   }
 
+  /**
+   * Gets the values associated with each of the specified dates.
+   * <p>
+   * The dates must be sorted from earliest to latest, but may contain duplicates.
+   * The result has the same size as the input, holding the value for each date,
+   * or {@code Double.NaN} if the date is not present.
+   * <p>
+   * The dates are merged with the dates of this series in a single forward pass,
+   * galloping over the dates of this series between each requested date.
+   * This is much faster than calling {@link #get(LocalDate)} for each date.
+   *
+   * @param dates  the dates to get the values for, sorted from earliest to latest
+   * @return the values associated with the dates, {@code Double.NaN} where the date is not present
+   * @throws IllegalArgumentException if the dates are not sorted
+   */
+  public double[] getAll(LocalDate[] dates) {
+    return getAll(dates, false);
+  }
+
+  /**
+   * Gets the latest value on or before each of the specified dates.
+   * <p>
+   * The dates must be sorted from earliest to latest, but may contain duplicates.
+   * The result has the same size as the input, holding the value of the latest date
+   * in this series that is on or before each date, or {@code Double.NaN} if there is none.
+   * <p>
+   * The dates are merged with the dates of this series in a single forward pass,
+   * as per {@link #getAll(LocalDate[])}.
+   *
+   * @param dates  the dates to get the values for, sorted from earliest to latest
+   * @return the values as of the dates, {@code Double.NaN} where there is no date on or before
+   * @throws IllegalArgumentException if the dates are not sorted
+   */
+  public double[] getAllAsOf(LocalDate[] dates) {
+    return getAll(dates, true);
+  }
+
+  // gets the value at each date, or the value before each date if as-of
+  private double[] getAll(LocalDate[] dates, boolean asOf) {
+    ArgChecker.noNulls(dates, "dates");
+    double[] result = new double[dates.length];
+    int position = 0;
+    long previous = Long.MIN_VALUE;
+    for (int k = 0; k < dates.length; k++) {
+      long epochDay = dates[k].toEpochDay();
+      if (epochDay < previous) {
+        throw new IllegalArgumentException(Messages.format(
+            "Dates must be sorted but: {} is before: {}", dates[k], dates[k - 1]));
+      }
+      previous = epochDay;
+      position = gallop(position, epochDay);
+      if (position < size && date(position) == epochDay) {
+        result[k] = value(position);
+      } else if (asOf && position > 0) {
+        result[k] = value(position - 1);
+      } else {
+        result[k] = Double.NaN;
+      }
+    }
+    return result;
+  }
+
+  // finds the index of the first date on or after the epoch-day, searching forward from the index
+  // the step doubles until the epoch-day is passed, then the last step is binary searched
+  private int gallop(int from, long epochDay) {
+    if (from >= size || date(from) >= epochDay) {
+      return from;
+    }
+    // the date at low is before the epoch-day, the date at high is on or after it, or high is the size
+    int low = from;
+    int step = 1;
+    int high = from + 1;
+    while (high < size && date(high) < epochDay) {
+      low = high;
+      step <<= 1;
+      high = (step < size - low ? low + step : size);
+    }
+    while (high - low > 1) {
+      int mid = (low + high) >>> 1;
+      if (date(mid) < epochDay) {
+        low = mid;
+      } else {
+        high = mid;
+      }
+    }
+    return high;
+  }
+
+  // finds the position of the date, as per Arrays.binarySearch()
+  // dates outside the range of an int cannot be in the series, and sort before or after all dates
   private int findDatePosition(LocalDate date) {
-    return Arrays.binarySearch(dates, date);
+    long epochDay = date.toEpochDay();
+    if (epochDay < Integer.MIN_VALUE) {
+      return -1;
+    }
+    if (epochDay > Integer.MAX_VALUE) {
+      return -size - 1;
+    }
+    int position = Arrays.binarySearch(dates, offset, offset + size, (int) epochDay);
+    return (position >= 0 ? position - offset : position + offset);
   }
 
   //-------------------------------------------------------------------------
@@ -332,7 +574,7 @@ public final class LocalDateDoubleTimeSeries
     if (isEmpty()) {
       throw new NoSuchElementException("Unable to return earliest, time-series is empty");
     }
-    return dates[0];
+    return LocalDate.ofEpochDay(date(0));
   }
 
   /**
@@ -347,7 +589,7 @@ public final class LocalDateDoubleTimeSeries
     if (isEmpty()) {
       throw new NoSuchElementException("Unable to return earliest, time-series is empty");
     }
-    return values[0];
+    return value(0);
   }
 
   /**
@@ -362,7 +604,7 @@ public final class LocalDateDoubleTimeSeries
     if (isEmpty()) {
       throw new NoSuchElementException("Unable to return latest, time-series is empty");
     }
-    return dates[dates.length - 1];
+    return LocalDate.ofEpochDay(date(size - 1));
   }
 
   /**
@@ -377,7 +619,7 @@ public final class LocalDateDoubleTimeSeries
     if (isEmpty()) {
       throw new NoSuchElementException("Unable to return latest, time-series is empty");
     }
-    return values[values.length - 1];
+    return value(size - 1);
   }
 
   //-------------------------------------------------------------------------
@@ -409,14 +651,11 @@ public final class LocalDateDoubleTimeSeries
       return EMPTY_SERIES;
     }
     // where in the array would start/end be (whether or not it's actually in the series)
-    int startPos = Arrays.binarySearch(dates, startInclusive);
+    int startPos = findDatePosition(startInclusive);
     startPos = startPos >= 0 ? startPos : -startPos - 1;
-    int endPos = Arrays.binarySearch(dates, endExclusive);
+    int endPos = findDatePosition(endExclusive);
     endPos = endPos >= 0 ? endPos : -endPos - 1;
-    // create sub-series
-    LocalDate[] timesArray = Arrays.copyOfRange(dates, startPos, endPos);
-    double[] valuesArray = Arrays.copyOfRange(values, startPos, endPos);
-    return createUnsafe(timesArray, valuesArray);
+    return view(startPos, endPos - startPos);
   }
 
   /**
@@ -436,9 +675,7 @@ public final class LocalDateDoubleTimeSeries
     } else if (numPoints >= size()) {
       return this;
     }
-    LocalDate[] datesArray = Arrays.copyOfRange(dates, 0, numPoints);
-    double[] valuesArray = Arrays.copyOfRange(values, 0, numPoints);
-    return createUnsafe(datesArray, valuesArray);
+    return view(0, numPoints);
   }
 
   /**
@@ -458,9 +695,34 @@ public final class LocalDateDoubleTimeSeries
     } else if (numPoints >= size()) {
       return this;
     }
-    LocalDate[] datesArray = Arrays.copyOfRange(dates, size() - numPoints, size());
-    double[] valuesArray = Arrays.copyOfRange(values, size() - numPoints, size());
-    return createUnsafe(datesArray, valuesArray);
+    return view(size - numPoints, numPoints);
+  }
+
+  // creates a view of part of this series, sharing the arrays, where the index is relative to the offset
+  private LocalDateDoubleTimeSeries view(int index, int length) {
+    if (length == 0) {
+      return EMPTY_SERIES;
+    }
+    return new LocalDateDoubleTimeSeries(dates, values, offset + index, length);
+  }
+
+  /**
+   * Returns a compact copy of this series if it is a view of part of a larger series.
+   * <p>
+   * The methods {@link #subSeries(LocalDate, LocalDate)}, {@link #headSeries(int)} and
+   * {@link #tailSeries(int)} return views that share the data of this series, avoiding a copy.
+   * A view retains the data of the whole series it was created from, thus a small view
+   * of a large series that is retained for a long time should be compacted.
+   * <p>
+   * If this series is not a view, it is returned unaltered.
+   *
+   * @return a series that only holds the data of its own points
+   */
+  public LocalDateDoubleTimeSeries compact() {
+    if (!isView()) {
+      return this;
+    }
+    return createUnsafe(epochDaysUnsafe(), valuesUnsafe());
   }
 
   //-------------------------------------------------------------------------
@@ -468,11 +730,13 @@ public final class LocalDateDoubleTimeSeries
    * Returns a stream over the points of this time-series.
    * <p>
    * This provides access to the entire time-series.
+   * <p>
+   * The stream is sized and ordered, splitting evenly when used in parallel.
    *
    * @return a stream over the points of this time-series
    */
   public Stream<LocalDateDoublePoint> stream() {
-    return IntStream.range(0, size()).mapToObj(i -> LocalDateDoublePoint.of(dates[i], values[i]));
+    return StreamSupport.stream(new LocalDateDoubleSpliterator(dates, values, offset, offset + size), false);
   }
 
   /**
@@ -484,7 +748,7 @@ public final class LocalDateDoubleTimeSeries
    * @return a stream over the values of this time-series
    */
   public Stream<LocalDate> dateStream() {
-    return Stream.of(dates);
+    return Arrays.stream(dates, offset, offset + size).mapToObj(LocalDate::ofEpochDay);
   }
 
   /**
@@ -492,11 +756,13 @@ public final class LocalDateDoubleTimeSeries
    * <p>
    * This is most useful to summarize the values in the stream, such as calculating
    * the maximum, minimum or average value, or searching for a specific value.
+   * <p>
+   * The stream is sized and ordered, splitting evenly when used in parallel.
    *
    * @return a stream over the values of this time-series
    */
   public DoubleStream valueStream() {
-    return DoubleStream.of(values);
+    return Arrays.stream(values, offset, offset + size);
   }
 
   //-------------------------------------------------------------------------
@@ -514,7 +780,7 @@ public final class LocalDateDoubleTimeSeries
   public void forEach(ObjDoubleConsumer<LocalDate> action) {
     ArgChecker.notNull(action, "action");
     for (int i = 0; i < size(); i++) {
-      action.accept(dates[i], values[i]);
+      action.accept(LocalDate.ofEpochDay(date(i)), value(i));
     }
   }
 
@@ -532,7 +798,7 @@ public final class LocalDateDoubleTimeSeries
    */
   public LocalDateDoubleTimeSeries mapValues(DoubleUnaryOperator mapper) {
     ArgChecker.notNull(mapper, "mapper");
-    return createUnsafe(dates, DoubleStream.of(values).map(mapper).toArray());
+    return createUnsafe(epochDaysUnsafe(), valueStream().map(mapper).toArray());
   }
 
   /**
@@ -548,13 +814,13 @@ public final class LocalDateDoubleTimeSeries
   public LocalDateDoubleTimeSeries filter(ObjDoublePredicate<LocalDate> predicate) {
     ArgChecker.notNull(predicate, "predicate");
     // build up result in arrays keeping track of count of retained dates
-    LocalDate[] resDates = new LocalDate[size()];
+    int[] resDates = new int[size()];
     double[] resValues = new double[size()];
     int resCount = 0;
     for (int i = 0; i < size(); i++) {
-      if (predicate.test(dates[i], values[i])) {
-        resDates[resCount] = dates[i];
-        resValues[resCount] = values[i];
+      if (predicate.test(LocalDate.ofEpochDay(date(i)), value(i))) {
+        resDates[resCount] = date(i);
+        resValues[resCount] = value(i);
         resCount++;
       }
     }
@@ -574,7 +840,7 @@ public final class LocalDateDoubleTimeSeries
     ArgChecker.notNull(other, "other");
     ArgChecker.notNull(mapper, "mapper");
     // build up result in arrays keeping track of actual matching dates
-    LocalDate[] resDates = new LocalDate[Math.min(size(), other.size())];
+    int[] resDates = new int[Math.min(size(), other.size())];
     double[] resValues = new double[resDates.length];
     int resCount = 0;
     // index into the arrays in this time-series
@@ -585,15 +851,15 @@ public final class LocalDateDoubleTimeSeries
     int jMax = other.size();
     // loop around and exhaust each input
     while (i < iMax && j < jMax) {
-      LocalDate date = dates[i];
-      LocalDate otherDate = other.dates[j];
-      if (date.equals(otherDate)) {
+      int date = date(i);
+      int otherDate = other.date(j);
+      if (date == otherDate) {
         resDates[resCount] = date;
-        resValues[resCount] = mapper.applyAsDouble(values[i], other.values[j]);
+        resValues[resCount] = mapper.applyAsDouble(value(i), other.value(j));
         resCount++;
         i++;
         j++;
-      } else if (date.isBefore(otherDate)) {
+      } else if (date < otherDate) {
         i++;
       } else { // date is after otherDate
         j++;
@@ -602,6 +868,731 @@ public final class LocalDateDoubleTimeSeries
     return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
   }
 
+  /**
+   * Combines a pair of time series, using all the dates in either series and
+   * applying a function to combine the values.
+   * <p>
+   * Where a date is only present in one of the two series, the value of the other
+   * series is determined by the fill policy. If the policy cannot fill the value,
+   * the date is not included in the result.
+   * <p>
+   * For example, the previous value fill policy fills the missing value with the
+   * value from the previous date in the same series.
+   * Using the drop fill policy is equivalent to {@link #combineWith}.
+   *
+   * @param other  the time-series to combine with
+   * @param mapper  the function to be used to combine the values
+   * @param fillPolicy  the policy used to fill missing values
+   * @return a new time-series containing the dates in either input series
+   *  with their values combined together using the function
+   */
+  public LocalDateDoubleTimeSeries union(
+      LocalDateDoubleTimeSeries other,
+      DoubleBinaryOperator mapper,
+      FillPolicy fillPolicy) {
+
+    ArgChecker.notNull(other, "other");
+    ArgChecker.notNull(mapper, "mapper");
+    ArgChecker.notNull(fillPolicy, "fillPolicy");
+    // build up result in arrays keeping track of actual dates
+    int[] resDates = new int[size() + other.size()];
+    double[] resValues = new double[resDates.length];
+    int resCount = 0;
+    // index into the arrays in this time-series
+    int i = 0;
+    int iMax = size();
+    // index into the arrays in the other time-series
+    int j = 0;
+    int jMax = other.size();
+    // loop around until both inputs are exhausted
+    while (i < iMax || j < jMax) {
+      boolean present = (i < iMax && (j == jMax || date(i) <= other.date(j)));
+      boolean otherPresent = (j < jMax && (i == iMax || other.date(j) <= date(i)));
+      int date = (present ? date(i) : other.date(j));
+      if ((present || canFill(fillPolicy, i)) && (otherPresent || other.canFill(fillPolicy, j))) {
+        double value = (present ? value(i) : fill(fillPolicy, i, date));
+        double otherValue = (otherPresent ? other.value(j) : other.fill(fillPolicy, j, date));
+        resDates[resCount] = date;
+        resValues[resCount] = mapper.applyAsDouble(value, otherValue);
+        resCount++;
+      }
+      if (present) {
+        i++;
+      }
+      if (otherPresent) {
+        j++;
+      }
+    }
+    return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  /**
+   * Combines a pair of time series, using the dates in this series and
+   * applying a function to combine the values.
+   * <p>
+   * Where a date in this series is not present in the other series, the value of the
+   * other series is determined by the fill policy. If the policy cannot fill the value,
+   * the date is not included in the result. Dates only present in the other series are ignored.
+   * <p>
+   * For example, the previous value fill policy fills the missing value with the
+   * latest value from the other series before the date.
+   *
+   * @param other  the time-series to combine with
+   * @param mapper  the function to be used to combine the values
+   * @param fillPolicy  the policy used to fill missing values
+   * @return a new time-series containing the dates in this series
+   *  with their values combined together using the function
+   */
+  public LocalDateDoubleTimeSeries leftJoin(
+      LocalDateDoubleTimeSeries other,
+      DoubleBinaryOperator mapper,
+      FillPolicy fillPolicy) {
+
+    ArgChecker.notNull(other, "other");
+    ArgChecker.notNull(mapper, "mapper");
+    ArgChecker.notNull(fillPolicy, "fillPolicy");
+    // build up result in arrays keeping track of actual dates
+    int[] resDates = new int[size()];
+    double[] resValues = new double[size()];
+    int resCount = 0;
+    // index into the arrays in the other time-series
+    int j = 0;
+    int jMax = other.size();
+    for (int i = 0; i < size(); i++) {
+      int date = date(i);
+      while (j < jMax && other.date(j) < date) {
+        j++;
+      }
+      if (j < jMax && other.date(j) == date) {
+        resDates[resCount] = date;
+        resValues[resCount] = mapper.applyAsDouble(value(i), other.value(j));
+        resCount++;
+      } else if (other.canFill(fillPolicy, j)) {
+        resDates[resCount] = date;
+        resValues[resCount] = mapper.applyAsDouble(value(i), other.fill(fillPolicy, j, date));
+        resCount++;
+      }
+    }
+    return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  /**
+   * Obtains the part of this time series with dates that are not in the other series.
+   * <p>
+   * The values in the result are those of this series.
+   * The values of the other series are ignored.
+   *
+   * @param other  the time-series to compare to
+   * @return a new time-series containing the dates in this series that are not in the other series
+   */
+  public LocalDateDoubleTimeSeries difference(LocalDateDoubleTimeSeries other) {
+    ArgChecker.notNull(other, "other");
+    // build up result in arrays keeping track of actual dates
+    int[] resDates = new int[size()];
+    double[] resValues = new double[size()];
+    int resCount = 0;
+    // index into the arrays in the other time-series
+    int j = 0;
+    int jMax = other.size();
+    for (int i = 0; i < size(); i++) {
+      int date = date(i);
+      while (j < jMax && other.date(j) < date) {
+        j++;
+      }
+      if (j == jMax || other.date(j) != date) {
+        resDates[resCount] = date;
+        resValues[resCount] = value(i);
+        resCount++;
+      }
+    }
+    return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  /**
+   * Aligns this time-series to the dates in a range that match a predicate.
+   * <p>
+   * The result contains the dates in the range that match the predicate, such as business days.
+   * Where a date in the result is not present in this series, the value is determined
+   * by the fill policy. The fill uses values from this series outside the range where necessary.
+   * If the policy cannot fill the value, the date is not included in the result.
+   * Dates in this series that are not in the range or do not match the predicate are ignored.
+   * <p>
+   * For example, to align a series to the business days of a holiday calendar,
+   * filling missing days with the previous value:
+   * <pre>
+   *   aligned = base.alignTo(range, calendar::isBusinessDay, FillPolicy.PREVIOUS_VALUE);
+   * </pre>
+   * The dates in the range are merged with the dates in this series in a single pass.
+   *
+   * @param range  the range of dates to align to, which must be bounded
+   * @param predicate  the predicate selecting the dates to align to
+   * @param fillPolicy  the policy used to fill missing values
+   * @return a new time-series containing the selected dates in the range
+   * @throws IllegalArgumentException if the range is unbounded
+   */
+  public LocalDateDoubleTimeSeries alignTo(
+      LocalDateRange range,
+      Predicate<LocalDate> predicate,
+      FillPolicy fillPolicy) {
+
+    ArgChecker.notNull(range, "range");
+    ArgChecker.notNull(predicate, "predicate");
+    ArgChecker.notNull(fillPolicy, "fillPolicy");
+    ArgChecker.isFalse(range.isUnboundedStart() || range.isUnboundedEnd(), "Range must be bounded: {}", range);
+    int start = toEpochDay(range.getStart());
+    int end = toEpochDay(range.getEndExclusive());
+    // build up result in arrays keeping track of actual dates
+    int[] resDates = new int[Math.max(end - start, 0)];
+    double[] resValues = new double[resDates.length];
+    int resCount = 0;
+    // index into the arrays in this time-series
+    int i = findDatePosition(range.getStart());
+    i = (i >= 0 ? i : -i - 1);
+    for (int date = start; date < end; date++) {
+      if (!predicate.test(LocalDate.ofEpochDay(date))) {
+        continue;
+      }
+      while (i < size() && date(i) < date) {
+        i++;
+      }
+      if (i < size() && date(i) == date) {
+        resDates[resCount] = date;
+        resValues[resCount] = value(i);
+        resCount++;
+      } else if (canFill(fillPolicy, i)) {
+        resDates[resCount] = date;
+        resValues[resCount] = fill(fillPolicy, i, date);
+        resCount++;
+      }
+    }
+    return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Combines a list of time series, extracting the dates common to all and
+   * applying a function to combine the values.
+   * <p>
+   * The function is passed an array containing the value of each series at the date,
+   * in the same order as the list.
+   * The array may be reused, thus the function must not retain or modify it.
+   * <p>
+   * This is equivalent to {@link #combineAll(List, DoubleArrayFunction, FillPolicy)}
+   * with the drop fill policy.
+   *
+   * @param series  the time-series to combine
+   * @param function  the function to be used to combine the values
+   * @return a new time-series containing the dates in common between the
+   *  input series with their values combined together using the function
+   */
+  public static LocalDateDoubleTimeSeries combineAll(List<LocalDateDoubleTimeSeries> series, DoubleArrayFunction function) {
+    return combineAll(series, function, FillPolicy.DROP);
+  }
+
+  /**
+   * Combines a list of time series, using all the dates in any series and
+   * applying a function to combine the values.
+   * <p>
+   * The function is passed an array containing the value of each series at the date,
+   * in the same order as the list.
+   * The array may be reused, thus the function must not retain or modify it.
+   * <p>
+   * Where a date is not present in a series, the value of that series is determined
+   * by the fill policy. If the policy cannot fill the value, the date is not included in the result.
+   * <p>
+   * The series are merged in a single pass, using a heap ordered by the next date of each series.
+   *
+   * @param series  the time-series to combine
+   * @param function  the function to be used to combine the values
+   * @param fillPolicy  the policy used to fill missing values
+   * @return a new time-series containing the dates in any input series
+   *  with their values combined together using the function
+   */
+  public static LocalDateDoubleTimeSeries combineAll(
+      List<LocalDateDoubleTimeSeries> series,
+      DoubleArrayFunction function,
+      FillPolicy fillPolicy) {
+
+    ArgChecker.noNulls(series, "series");
+    ArgChecker.notNull(function, "function");
+    ArgChecker.notNull(fillPolicy, "fillPolicy");
+    int count = series.size();
+    if (count == 0) {
+      return EMPTY_SERIES;
+    }
+    LocalDateDoubleTimeSeries[] seriesArray = series.toArray(new LocalDateDoubleTimeSeries[count]);
+    int[][] seriesDates = new int[count][];
+    double[][] seriesValues = new double[count][];
+    int maxSize = 0;
+    // the current index into the arrays of each series, and the end index
+    int[] positions = new int[count];
+    int[] ends = new int[count];
+    for (int s = 0; s < count; s++) {
+      seriesDates[s] = seriesArray[s].dates;
+      seriesValues[s] = seriesArray[s].values;
+      positions[s] = seriesArray[s].offset;
+      ends[s] = seriesArray[s].offset + seriesArray[s].size;
+      maxSize += seriesArray[s].size;
+    }
+    // the heap of series ordered by the current date
+    int[] heap = new int[count];
+    int heapSize = 0;
+    for (int s = 0; s < count; s++) {
+      if (positions[s] < ends[s]) {
+        heap[heapSize] = s;
+        heapUp(heap, heapSize, seriesDates, positions);
+        heapSize++;
+      }
+    }
+    // build up result in arrays keeping track of actual dates
+    int[] resDates = new int[maxSize];
+    double[] resValues = new double[maxSize];
+    int resCount = 0;
+    double[] row = new double[count];
+    boolean[] present = new boolean[count];
+    while (heapSize > 0) {
+      // extract each series with the earliest date
+      int date = seriesDates[heap[0]][positions[heap[0]]];
+      while (heapSize > 0 && seriesDates[heap[0]][positions[heap[0]]] == date) {
+        int s = heap[0];
+        row[s] = seriesValues[s][positions[s]];
+        present[s] = true;
+        positions[s]++;
+        if (positions[s] == ends[s]) {
+          heapSize--;
+          heap[0] = heap[heapSize];
+        }
+        heapDown(heap, heapSize, seriesDates, positions);
+      }
+      // fill missing values
+      boolean include = true;
+      for (int s = 0; s < count; s++) {
+        if (present[s]) {
+          present[s] = false;
+        } else if (include && seriesArray[s].canFill(fillPolicy, positions[s] - seriesArray[s].offset)) {
+          row[s] = seriesArray[s].fill(fillPolicy, positions[s] - seriesArray[s].offset, date);
+        } else {
+          include = false;
+        }
+      }
+      if (include) {
+        resDates[resCount] = date;
+        resValues[resCount] = function.applyAsDouble(row);
+        resCount++;
+      }
+    }
+    return createUnsafe(Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  // checks if a missing value can be filled, where the index is that of the next date in the series
+  private boolean canFill(FillPolicy fillPolicy, int index) {
+    return fillPolicy.canFill(index > 0, index < size);
+  }
+
+  // fills a missing value, where the index is that of the next date in the series
+  private double fill(FillPolicy fillPolicy, int index, int date) {
+    boolean hasPrevious = index > 0;
+    boolean hasNext = index < size;
+    double previous = (hasPrevious ? value(index - 1) : Double.NaN);
+    double next = (hasNext ? value(index) : Double.NaN);
+    double fraction = (hasPrevious && hasNext ?
+        (date - (double) date(index - 1)) / (date(index) - (double) date(index - 1)) :
+        Double.NaN);
+    return fillPolicy.fill(previous, next, fraction);
+  }
+
+  // moves the last element of the heap up to its correct position
+  private static void heapUp(int[] heap, int last, int[][] seriesDates, int[] positions) {
+    int index = last;
+    int s = heap[index];
+    int date = seriesDates[s][positions[s]];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      int parentSeries = heap[parent];
+      if (seriesDates[parentSeries][positions[parentSeries]] <= date) {
+        break;
+      }
+      heap[index] = parentSeries;
+      index = parent;
+    }
+    heap[index] = s;
+  }
+
+  // moves the first element of the heap down to its correct position
+  private static void heapDown(int[] heap, int heapSize, int[][] seriesDates, int[] positions) {
+    if (heapSize == 0) {
+      return;
+    }
+    int index = 0;
+    int s = heap[0];
+    int date = seriesDates[s][positions[s]];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      int childSeries = heap[child];
+      int childDate = seriesDates[childSeries][positions[childSeries]];
+      if (child + 1 < heapSize) {
+        int rightSeries = heap[child + 1];
+        int rightDate = seriesDates[rightSeries][positions[rightSeries]];
+        if (rightDate < childDate) {
+          child++;
+          childSeries = rightSeries;
+          childDate = rightDate;
+        }
+      }
+      if (date <= childDate) {
+        break;
+      }
+      heap[index] = childSeries;
+      index = child;
+    }
+    heap[index] = s;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the rolling sum over a window of a fixed number of points.
+   * <p>
+   * The result contains a point for each date where the window is full.
+   * The first {@code windowSize - 1} dates of this series are therefore not present in the result.
+   *
+   * @param windowSize  the number of points in the window, one or greater
+   * @return the rolling sum
+   * @throws IllegalArgumentException if the window size is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingSum(int windowSize) {
+    return rollingSum(countWindowStarts(windowSize), false);
+  }
+
+  /**
+   * Calculates the rolling sum over a calendar period.
+   * <p>
+   * The window for a date includes all points after the date minus the period, up to and including the date.
+   * For example, the window of a one week period for Friday 2014-01-10 starts on Saturday 2014-01-04.
+   * The result contains a point for each date where the window starts on or after the earliest date.
+   *
+   * @param window  the calendar period of the window, positive
+   * @return the rolling sum
+   * @throws IllegalArgumentException if the period is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingSum(Period window) {
+    return rollingSum(periodWindowStarts(window), false);
+  }
+
+  /**
+   * Calculates the rolling mean over a window of a fixed number of points.
+   * <p>
+   * The result contains a point for each date where the window is full.
+   *
+   * @param windowSize  the number of points in the window, one or greater
+   * @return the rolling mean
+   * @throws IllegalArgumentException if the window size is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMean(int windowSize) {
+    return rollingSum(countWindowStarts(windowSize), true);
+  }
+
+  /**
+   * Calculates the rolling mean over a calendar period.
+   * <p>
+   * See {@link #rollingSum(Period)} for the definition of the window.
+   *
+   * @param window  the calendar period of the window, positive
+   * @return the rolling mean
+   * @throws IllegalArgumentException if the period is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMean(Period window) {
+    return rollingSum(periodWindowStarts(window), true);
+  }
+
+  /**
+   * Calculates the rolling sample variance over a window of a fixed number of points.
+   * <p>
+   * The sample variance divides by one less than the number of points in the window.
+   * The result contains a point for each date where the window is full.
+   * If the window only contains a single point the variance is NaN.
+   *
+   * @param windowSize  the number of points in the window, one or greater
+   * @return the rolling sample variance
+   * @throws IllegalArgumentException if the window size is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingVariance(int windowSize) {
+    return rollingVariance(countWindowStarts(windowSize));
+  }
+
+  /**
+   * Calculates the rolling sample variance over a calendar period.
+   * <p>
+   * See {@link #rollingSum(Period)} for the definition of the window.
+   * If the window only contains a single point the variance is NaN.
+   *
+   * @param window  the calendar period of the window, positive
+   * @return the rolling sample variance
+   * @throws IllegalArgumentException if the period is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingVariance(Period window) {
+    return rollingVariance(periodWindowStarts(window));
+  }
+
+  /**
+   * Calculates the rolling minimum over a window of a fixed number of points.
+   * <p>
+   * The result contains a point for each date where the window is full.
+   *
+   * @param windowSize  the number of points in the window, one or greater
+   * @return the rolling minimum
+   * @throws IllegalArgumentException if the window size is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMin(int windowSize) {
+    return rollingExtreme(countWindowStarts(windowSize), false);
+  }
+
+  /**
+   * Calculates the rolling minimum over a calendar period.
+   * <p>
+   * See {@link #rollingSum(Period)} for the definition of the window.
+   *
+   * @param window  the calendar period of the window, positive
+   * @return the rolling minimum
+   * @throws IllegalArgumentException if the period is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMin(Period window) {
+    return rollingExtreme(periodWindowStarts(window), false);
+  }
+
+  /**
+   * Calculates the rolling maximum over a window of a fixed number of points.
+   * <p>
+   * The result contains a point for each date where the window is full.
+   *
+   * @param windowSize  the number of points in the window, one or greater
+   * @return the rolling maximum
+   * @throws IllegalArgumentException if the window size is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMax(int windowSize) {
+    return rollingExtreme(countWindowStarts(windowSize), true);
+  }
+
+  /**
+   * Calculates the rolling maximum over a calendar period.
+   * <p>
+   * See {@link #rollingSum(Period)} for the definition of the window.
+   *
+   * @param window  the calendar period of the window, positive
+   * @return the rolling maximum
+   * @throws IllegalArgumentException if the period is zero or negative
+   */
+  public LocalDateDoubleTimeSeries rollingMax(Period window) {
+    return rollingExtreme(periodWindowStarts(window), true);
+  }
+
+  /**
+   * Calculates the exponentially weighted moving average.
+   * <p>
+   * The first value of the result is the first value of this series.
+   * Each subsequent value is {@code smoothing * value + (1 - smoothing) * previousAverage}.
+   *
+   * @param smoothing  the smoothing factor, greater than zero and less than or equal to one
+   * @return the exponentially weighted moving average
+   * @throws IllegalArgumentException if the smoothing factor is invalid
+   */
+  public LocalDateDoubleTimeSeries exponentialMovingAverage(double smoothing) {
+    ArgChecker.isTrue(smoothing > 0 && smoothing <= 1, "Smoothing factor must be in the range (0, 1]: {}", smoothing);
+    double[] resValues = new double[size()];
+    double average = size() > 0 ? value(0) : 0;
+    for (int i = 0; i < size(); i++) {
+      average += smoothing * (value(i) - average);
+      resValues[i] = average;
+    }
+    return createUnsafe(epochDaysUnsafe(), resValues);
+  }
+
+  /**
+   * Calculates the cumulative sum of the values.
+   *
+   * @return the cumulative sum
+   */
+  public LocalDateDoubleTimeSeries cumulativeSum() {
+    double[] resValues = new double[size()];
+    double total = 0;
+    for (int i = 0; i < size(); i++) {
+      total += value(i);
+      resValues[i] = total;
+    }
+    return createUnsafe(epochDaysUnsafe(), resValues);
+  }
+
+  /**
+   * Calculates the cumulative product of the values.
+   *
+   * @return the cumulative product
+   */
+  public LocalDateDoubleTimeSeries cumulativeProduct() {
+    double[] resValues = new double[size()];
+    double total = 1;
+    for (int i = 0; i < size(); i++) {
+      total *= value(i);
+      resValues[i] = total;
+    }
+    return createUnsafe(epochDaysUnsafe(), resValues);
+  }
+
+  /**
+   * Calculates the difference between each value and the previous value.
+   * <p>
+   * The earliest date of this series is not present in the result.
+   *
+   * @return the series of differences
+   */
+  public LocalDateDoubleTimeSeries diff() {
+    return mapConsecutive((previous, value) -> value - previous);
+  }
+
+  /**
+   * Calculates the ratio of each value to the previous value.
+   * <p>
+   * The earliest date of this series is not present in the result.
+   *
+   * @return the series of ratios
+   */
+  public LocalDateDoubleTimeSeries ratio() {
+    return mapConsecutive((previous, value) -> value / previous);
+  }
+
+  /**
+   * Calculates the natural logarithm of the ratio of each value to the previous value.
+   * <p>
+   * The earliest date of this series is not present in the result.
+   *
+   * @return the series of log returns
+   */
+  public LocalDateDoubleTimeSeries logReturn() {
+    return mapConsecutive((previous, value) -> Math.log(value / previous));
+  }
+
+  // applies the operator to each value and the previous value
+  private LocalDateDoubleTimeSeries mapConsecutive(DoubleBinaryOperator operator) {
+    if (size() < 2) {
+      return EMPTY_SERIES;
+    }
+    double[] resValues = new double[size() - 1];
+    for (int i = 1; i < size(); i++) {
+      resValues[i - 1] = operator.applyAsDouble(value(i - 1), value(i));
+    }
+    return createUnsafe(Arrays.copyOfRange(dates, offset + 1, offset + size), resValues);
+  }
+
+  // finds the index of the first point in the window ending at each point, -1 if the window is not full
+  private int[] countWindowStarts(int windowSize) {
+    ArgChecker.notNegativeOrZero(windowSize, "windowSize");
+    int[] starts = new int[size()];
+    for (int i = 0; i < size(); i++) {
+      starts[i] = i - windowSize + 1;
+    }
+    return starts;
+  }
+
+  // finds the index of the first point in the window ending at each point, -1 if the window is not full
+  private int[] periodWindowStarts(Period window) {
+    ArgChecker.notNull(window, "window");
+    ArgChecker.isFalse(window.isNegative() || window.isZero(), "Window must be positive: {}", window);
+    int[] starts = new int[size()];
+    int start = 0;
+    for (int i = 0; i < size(); i++) {
+      long windowStart = LocalDate.ofEpochDay(date(i)).minus(window).toEpochDay() + 1;
+      if (windowStart < date(0)) {
+        starts[i] = -1;
+      } else {
+        while (date(start) < windowStart) {
+          start++;
+        }
+        starts[i] = start;
+      }
+    }
+    return starts;
+  }
+
+  // finds the first index where the window is full
+  private static int firstFullWindow(int[] starts) {
+    int first = 0;
+    while (first < starts.length && starts[first] < 0) {
+      first++;
+    }
+    return first;
+  }
+
+  // calculates the rolling sum or mean, adding and removing values from a running total
+  private LocalDateDoubleTimeSeries rollingSum(int[] starts, boolean mean) {
+    int first = firstFullWindow(starts);
+    double[] resValues = new double[size() - first];
+    double total = 0;
+    int start = 0;
+    for (int i = 0; i < size(); i++) {
+      total += value(i);
+      if (i >= first) {
+        while (start < starts[i]) {
+          total -= value(start++);
+        }
+        resValues[i - first] = mean ? total / (i - start + 1) : total;
+      }
+    }
+    return createUnsafe(Arrays.copyOfRange(dates, offset + first, offset + size), resValues);
+  }
+
+  // calculates the rolling sample variance, using Welford's method to add and remove values
+  private LocalDateDoubleTimeSeries rollingVariance(int[] starts) {
+    int first = firstFullWindow(starts);
+    double[] resValues = new double[size() - first];
+    double mean = 0;
+    double sumSquares = 0;
+    int count = 0;
+    int start = 0;
+    for (int i = 0; i < size(); i++) {
+      double value = value(i);
+      count++;
+      double delta = value - mean;
+      mean += delta / count;
+      sumSquares += delta * (value - mean);
+      if (i >= first) {
+        while (start < starts[i]) {
+          double removed = value(start++);
+          count--;
+          double removedDelta = removed - mean;
+          mean -= removedDelta / count;
+          sumSquares -= removedDelta * (removed - mean);
+        }
+        resValues[i - first] = count > 1 ? Math.max(sumSquares, 0) / (count - 1) : Double.NaN;
+      }
+    }
+    return createUnsafe(Arrays.copyOfRange(dates, offset + first, offset + size), resValues);
+  }
+
+  // calculates the rolling minimum or maximum, using a deque of indices whose values are monotonic
+  private LocalDateDoubleTimeSeries rollingExtreme(int[] starts, boolean max) {
+    int first = firstFullWindow(starts);
+    double[] resValues = new double[size() - first];
+    // each index is added once, so the deque does not need to wrap
+    int[] deque = new int[size()];
+    int head = 0;
+    int tail = 0;
+    for (int i = 0; i < size(); i++) {
+      double value = value(i);
+      while (tail > head && (max ? value(deque[tail - 1]) <= value : value(deque[tail - 1]) >= value)) {
+        tail--;
+      }
+      deque[tail++] = i;
+      if (i >= first) {
+        while (deque[head] < starts[i]) {
+          head++;
+        }
+        resValues[i - first] = value(deque[head]);
+      }
+    }
+    return createUnsafe(Arrays.copyOfRange(dates, offset + first, offset + size), resValues);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Return a builder populated with the values from this series.
@@ -609,7 +1600,7 @@ public final class LocalDateDoubleTimeSeries
    * @return a time-series builder
    */
   public LocalDateDoubleTimeSeriesBuilder toBuilder() {
-    return new LocalDateDoubleTimeSeriesBuilder(dates, values);
+    return new LocalDateDoubleTimeSeriesBuilder(epochDaysUnsafe(), valuesUnsafe());
   }
 
   /**
@@ -640,7 +1631,16 @@ public final class LocalDateDoubleTimeSeries
     }
     if (obj instanceof LocalDateDoubleTimeSeries) {
       LocalDateDoubleTimeSeries other = (LocalDateDoubleTimeSeries) obj;
-      return Arrays.equals(dates, other.dates) && Arrays.equals(values, other.values);
+      if (size != other.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (date(i) != other.date(i) ||
+            Double.doubleToLongBits(value(i)) != Double.doubleToLongBits(other.value(i))) {
+          return false;
+        }
+      }
+      return true;
     }
     return false;
   }
@@ -652,7 +1652,14 @@ public final class LocalDateDoubleTimeSeries
    */
   @Override
   public int hashCode() {
-    return 31 * Arrays.hashCode(dates) + Arrays.hashCode(values);
+    // matches the hash code of the arrays of a compact series
+    int datesHash = 1;
+    int valuesHash = 1;
+    for (int i = 0; i < size; i++) {
+      datesHash = 31 * datesHash + date(i);
+      valuesHash = 31 * valuesHash + Double.hashCode(value(i));
+    }
+    return 31 * datesHash + valuesHash;
   }
 
   /**
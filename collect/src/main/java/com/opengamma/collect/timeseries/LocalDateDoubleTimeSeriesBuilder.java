@@ -6,11 +6,10 @@
 package com.opengamma.collect.timeseries;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.OptionalDouble;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import com.opengamma.collect.ArgChecker;
@@ -22,14 +21,39 @@ import com.opengamma.collect.ArgChecker;
  * Entries can be added to the builder in any order.
  * If a date is duplicated it will overwrite an earlier entry.
  * <p>
+ * The entries are held in primitive arrays, with dates stored as epoch-days.
+ * Adding entries in date order is the fast path, simply appending to the arrays.
+ * Entries added out of order are sorted, and duplicates removed, when required.
+ * <p>
  * Use {@link LocalDateDoubleTimeSeries#builder()} to create an instance.
  */
 public final class LocalDateDoubleTimeSeriesBuilder {
 
   /**
-   * The entries for the time-series.
+   * The initial capacity of the arrays.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * The dates of the entries, as epoch-days.
+   */
+  private int[] dates;
+  /**
+   * The values of the entries.
+   */
+  private double[] values;
+  /**
+   * The number of entries.
+   */
+  private int size;
+  /**
+   * Whether the entries are in date order without duplicates.
+   */
+  private boolean sorted = true;
+  /**
+   * Whether the arrays are shared with a time-series, and must be copied before being altered.
    */
-  private final SortedMap<LocalDate, Double> entries = new TreeMap<>();
+  private boolean shared;
 
   //-------------------------------------------------------------------------
   /**
@@ -38,20 +62,24 @@ public final class LocalDateDoubleTimeSeriesBuilder {
    * Use {@link LocalDateDoubleTimeSeries#builder()}.
    */
   LocalDateDoubleTimeSeriesBuilder() {
+    dates = new int[INITIAL_CAPACITY];
+    values = new double[INITIAL_CAPACITY];
   }
 
   /**
    * Creates an instance.
    * <p>
    * Use {@link LocalDateDoubleTimeSeries#toBuilder()}.
+   * The arrays are shared with the time-series until the builder is altered.
    * 
-   * @param dates  the dates to initialize with
+   * @param dates  the dates to initialize with, as epoch-days
    * @param values  the values to initialize with
    */
-  LocalDateDoubleTimeSeriesBuilder(LocalDate[] dates, double[] values) {
-    for (int i = 0; i < dates.length; i++) {
-      entries.put(dates[i], values[i]);
-    }
+  LocalDateDoubleTimeSeriesBuilder(int[] dates, double[] values) {
+    this.dates = dates;
+    this.values = values;
+    this.size = dates.length;
+    this.shared = true;
   }
 
   //-------------------------------------------------------------------------
@@ -66,8 +94,13 @@ public final class LocalDateDoubleTimeSeriesBuilder {
    * @return the value associated with the date, optional empty if the date is not present
    */
   public OptionalDouble get(LocalDate date) {
-    Double value = entries.get(date);
-    return (value != null ? OptionalDouble.of(value) : OptionalDouble.empty());
+    long epochDay = date.toEpochDay();
+    if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+      return OptionalDouble.empty();
+    }
+    sort();
+    int position = Arrays.binarySearch(dates, 0, size, (int) epochDay);
+    return (position >= 0 ? OptionalDouble.of(values[position]) : OptionalDouble.empty());
   }
 
   //-------------------------------------------------------------------------
@@ -80,7 +113,7 @@ public final class LocalDateDoubleTimeSeriesBuilder {
    */
   public LocalDateDoubleTimeSeriesBuilder put(LocalDate date, double value) {
     ArgChecker.notNull(date, "date");
-    entries.put(date, value);
+    put(LocalDateDoubleTimeSeries.toEpochDay(date), value);
     return this;
   }
 
@@ -92,10 +125,37 @@ public final class LocalDateDoubleTimeSeriesBuilder {
    */
   public LocalDateDoubleTimeSeriesBuilder put(LocalDateDoublePoint point) {
     ArgChecker.notNull(point, "point");
-    entries.put(point.getDate(), point.getValue());
+    put(point.getDate(), point.getValue());
     return this;
   }
 
+  // puts the epoch-day and value, appending to the arrays
+  private void put(int date, double value) {
+    if (size > 0 && date <= dates[size - 1]) {
+      if (date == dates[size - 1]) {
+        // overwrite the last entry, which is common when correcting data
+        ensureCapacity(size);
+        values[size - 1] = value;
+        return;
+      }
+      sorted = false;
+    }
+    ensureCapacity(size + 1);
+    dates[size] = date;
+    values[size] = value;
+    size++;
+  }
+
+  // ensures the arrays are not shared and have the specified capacity
+  private void ensureCapacity(int capacity) {
+    if (shared || capacity > dates.length) {
+      int newCapacity = Math.max(capacity, shared ? dates.length : dates.length + (dates.length >> 1));
+      dates = Arrays.copyOf(dates, Math.max(newCapacity, INITIAL_CAPACITY));
+      values = Arrays.copyOf(values, dates.length);
+      shared = false;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Puts all the specified dates and values into this builder.
@@ -112,10 +172,11 @@ public final class LocalDateDoubleTimeSeriesBuilder {
   public LocalDateDoubleTimeSeriesBuilder putAll(Collection<LocalDate> dates, Collection<Double> values) {
     ArgChecker.isTrue(dates.size() == values.size(),
         "Arrays are of different sizes - dates: {}, values: {}", dates.size(), values.size());
+    ensureCapacity(size + dates.size());
     Iterator<LocalDate> itDate = dates.iterator();
     Iterator<Double> itValue = values.iterator();
     for (int i = 0; i < dates.size(); i++) {
-      entries.put(itDate.next(), itValue.next());
+      put(itDate.next(), itValue.next());
     }
     return this;
   }
@@ -146,18 +207,108 @@ public final class LocalDateDoubleTimeSeriesBuilder {
    */
   public LocalDateDoubleTimeSeriesBuilder putAll(LocalDateDoubleTimeSeriesBuilder other) {
     ArgChecker.notNull(other, "other");
-    entries.putAll(other.entries);
+    ensureCapacity(size + other.size);
+    for (int i = 0; i < other.size; i++) {
+      put(other.dates[i], other.values[i]);
+    }
+    return this;
+  }
+
+  // merges the specified builder into this builder, as used by the parallel collector
+  // the entries of the other builder win if a date is duplicated
+  LocalDateDoubleTimeSeriesBuilder merge(LocalDateDoubleTimeSeriesBuilder other) {
+    other.sort();
+    if (other.size == 0) {
+      return this;
+    }
+    sort();
+    if (size == 0 || dates[size - 1] < other.dates[0]) {
+      // chunks of an ordered stream are typically already in order
+      return putAll(other);
+    }
+    // linear merge of the two sorted arrays
+    int[] mergedDates = new int[size + other.size];
+    double[] mergedValues = new double[mergedDates.length];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < size && j < other.size) {
+      int date = dates[i];
+      int otherDate = other.dates[j];
+      if (date < otherDate) {
+        mergedDates[count] = date;
+        mergedValues[count++] = values[i++];
+      } else {
+        if (date == otherDate) {
+          i++;
+        }
+        mergedDates[count] = otherDate;
+        mergedValues[count++] = other.values[j++];
+      }
+    }
+    int remaining = size - i;
+    System.arraycopy(dates, i, mergedDates, count, remaining);
+    System.arraycopy(values, i, mergedValues, count, remaining);
+    count += remaining;
+    remaining = other.size - j;
+    System.arraycopy(other.dates, j, mergedDates, count, remaining);
+    System.arraycopy(other.values, j, mergedValues, count, remaining);
+    count += remaining;
+    dates = mergedDates;
+    values = mergedValues;
+    size = count;
+    shared = false;
     return this;
   }
 
   //-------------------------------------------------------------------------
   /**
    * Build the time-series from the builder.
+   * <p>
+   * The arrays of the builder are passed to the time-series without copying where possible.
+   * The builder may continue to be used, with the arrays copied if it is altered.
    *
    * @return a time-series containing the entries from the builder
    */
   public LocalDateDoubleTimeSeries build() {
-    return LocalDateDoubleTimeSeries.of(entries.keySet(), entries.values());
+    sort();
+    if (size != dates.length) {
+      dates = Arrays.copyOf(dates, size);
+      values = Arrays.copyOf(values, size);
+    }
+    shared = true;
+    return LocalDateDoubleTimeSeries.createUnsafe(dates, values);
+  }
+
+  //-------------------------------------------------------------------------
+  // sorts the entries by date, removing duplicates such that the last entry for a date wins
+  private void sort() {
+    if (sorted) {
+      return;
+    }
+    // sort the date and index of each entry, as the index is unique the sort order is stable
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = ((long) dates[i] << 32) | i;
+    }
+    Arrays.sort(keys);
+    int[] sortedDates = new int[Math.max(size, INITIAL_CAPACITY)];
+    double[] sortedValues = new double[sortedDates.length];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      int date = (int) (keys[i] >> 32);
+      if (i + 1 < size && (int) (keys[i + 1] >> 32) == date) {
+        continue;  // a later entry for the same date wins
+      }
+      sortedDates[count] = date;
+      sortedValues[count] = values[(int) keys[i]];
+      count++;
+    }
+    dates = sortedDates;
+    values = sortedValues;
+    size = count;
+    sorted = true;
+    shared = false;
   }
 
 }
@@ -0,0 +1,332 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import com.opengamma.collect.ArgChecker;
+import com.opengamma.collect.Messages;
+
+/**
+ * Reads and writes a {@code LocalDateDoubleTimeSeries} in a compact binary file format.
+ * <p>
+ * The file consists of a header followed by one or more chunks of points.
+ * Each chunk holds the dates as epoch-days followed by the values, in the same layout as
+ * the arrays of the time-series. This allows a file to be read by copying the dates and
+ * values of each chunk in bulk, without parsing individual points.
+ * The time-series that is read holds its own copy of the data, independent of the file.
+ * <p>
+ * The dates of a chunk may optionally be delta-encoded, storing each date as the number
+ * of days since the previous date in two bytes. This halves the size of the dates for
+ * daily and similar series, and is ignored if any gap is too large to be encoded.
+ * <p>
+ * New points can be appended to a file without rewriting it, by adding a new chunk and
+ * updating the header. The points must be after the latest date already in the file.
+ * The header records the length of the valid data, so any bytes after it, such as those
+ * left by an append that failed before the header was updated, are ignored and overwritten.
+ * <p>
+ * The header is 24 bytes, consisting of the magic number 'OGTS', the format version as
+ * a short, a reserved short, the number of chunks, the number of points, the latest
+ * epoch-day and the length of the valid data in bytes, including the header.
+ * Each chunk consists of the encoding as an int, the number of points as an int,
+ * the dates padded to a multiple of eight bytes and the values.
+ * All numbers are big-endian.
+ */
+public final class LocalDateDoubleTimeSeriesFile {
+
+  /**
+   * The magic number at the start of the file, 'OGTS'.
+   */
+  private static final int MAGIC = 0x4F475453;
+  /**
+   * The version of the file format.
+   */
+  private static final short VERSION = 1;
+  /**
+   * The size of the header in bytes.
+   */
+  private static final int HEADER_SIZE = 24;
+  /**
+   * The size of the header of each chunk in bytes.
+   */
+  private static final int CHUNK_HEADER_SIZE = 8;
+  /**
+   * The encoding of a chunk where dates are stored as epoch-days.
+   */
+  private static final int ENCODING_RAW = 0;
+  /**
+   * The encoding of a chunk where dates are stored as the first epoch-day and the gaps between dates.
+   */
+  private static final int ENCODING_DELTA = 1;
+  /**
+   * The largest gap between dates that can be delta-encoded.
+   */
+  private static final int MAX_DELTA = Character.MAX_VALUE;
+
+  /**
+   * Restricted constructor.
+   */
+  private LocalDateDoubleTimeSeriesFile() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Reads a time-series from a file.
+   * <p>
+   * The dates and values of each chunk are copied in bulk directly into the arrays
+   * of the resulting time-series. The result does not refer to the file once read.
+   *
+   * @param file  the file to read
+   * @return the time-series
+   * @throws IllegalArgumentException if the file is not in the expected format
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static LocalDateDoubleTimeSeries read(Path file) {
+    ArgChecker.notNull(file, "file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_SIZE));
+      readHeader(header);
+      int length = header.getInt(20);
+      if (length > channel.size()) {
+        throw new IllegalArgumentException("Invalid time-series file, file is truncated");
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      buffer.put(header);
+      return read(readFully(channel, buffer));
+    } catch (IndexOutOfBoundsException | BufferUnderflowException ex) {
+      throw new IllegalArgumentException("Invalid time-series file, file is truncated", ex);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // reads the time-series from the buffer
+  private static LocalDateDoubleTimeSeries read(ByteBuffer buffer) {
+    int chunkCount = readHeader(buffer);
+    int size = buffer.getInt(12);
+    // each point occupies at least ten bytes, so a larger size cannot be valid
+    if (size > (buffer.limit() - HEADER_SIZE) / 10) {
+      throw new IllegalArgumentException("Invalid time-series file, file is truncated");
+    }
+    int[] dates = new int[size];
+    double[] values = new double[size];
+    int position = HEADER_SIZE;
+    int offset = 0;
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      int encoding = buffer.getInt(position);
+      int count = buffer.getInt(position + 4);
+      if (count < 0 || count > size - offset) {
+        throw new IllegalArgumentException("Invalid time-series file, point count does not match header");
+      }
+      position += CHUNK_HEADER_SIZE;
+      if (encoding == ENCODING_RAW) {
+        buffer.position(position);
+        buffer.asIntBuffer().get(dates, offset, count);
+      } else if (encoding == ENCODING_DELTA) {
+        int date = buffer.getInt(position);
+        dates[offset] = date;
+        for (int i = 1; i < count; i++) {
+          date += buffer.getChar(position + 4 + (i - 1) * 2);
+          dates[offset + i] = date;
+        }
+      } else {
+        throw new IllegalArgumentException(Messages.format("Invalid time-series file, unknown encoding: {}", encoding));
+      }
+      position += datesLength(encoding, count);
+      buffer.position(position);
+      buffer.asDoubleBuffer().get(values, offset, count);
+      position += count * 8;
+      offset += count;
+    }
+    if (offset != size) {
+      throw new IllegalArgumentException("Invalid time-series file, point count does not match header");
+    }
+    if (position != buffer.limit()) {
+      throw new IllegalArgumentException("Invalid time-series file, data length does not match header");
+    }
+    for (int i = 1; i < size; i++) {
+      if (dates[i] <= dates[i - 1]) {
+        throw new IllegalArgumentException("Invalid time-series file, dates must be in order");
+      }
+    }
+    return LocalDateDoubleTimeSeries.createUnsafe(dates, values);
+  }
+
+  // validates the header, returning the number of chunks
+  // the number of chunks and points must not be negative, and the data must include the header
+  private static int readHeader(ByteBuffer buffer) {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Invalid time-series file, header not found");
+    }
+    short version = buffer.getShort(4);
+    if (version != VERSION) {
+      throw new IllegalArgumentException(Messages.format("Invalid time-series file, unsupported version: {}", version));
+    }
+    int chunkCount = buffer.getInt(8);
+    int size = buffer.getInt(12);
+    if (chunkCount < 0 || size < 0) {
+      throw new IllegalArgumentException(Messages.format(
+          "Invalid time-series file, negative count in header: {} chunks, {} points", chunkCount, size));
+    }
+    int length = buffer.getInt(20);
+    if (length < HEADER_SIZE) {
+      throw new IllegalArgumentException(Messages.format("Invalid time-series file, invalid data length: {}", length));
+    }
+    return chunkCount;
+  }
+
+  // reads from the start of the file until the buffer is full, returning the flipped buffer
+  private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a time-series to a file, replacing any existing file.
+   *
+   * @param file  the file to write
+   * @param series  the time-series to write
+   * @param deltaEncode  whether to delta-encode the dates where possible
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static void write(Path file, LocalDateDoubleTimeSeries series, boolean deltaEncode) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(series, "series");
+    try (FileChannel channel = FileChannel.open(
+        file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      int chunkCount = (series.isEmpty() ? 0 : 1);
+      int latest = (series.isEmpty() ? 0 : series.epochDaysUnsafe()[series.size() - 1]);
+      int length = HEADER_SIZE;
+      if (chunkCount > 0) {
+        ByteBuffer chunk = chunk(series, deltaEncode);
+        length += chunk.remaining();
+        writeFully(channel, chunk, HEADER_SIZE);
+      }
+      writeFully(channel, header(chunkCount, series.size(), latest, length), 0);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Appends the points of a time-series to an existing file.
+   * <p>
+   * The points are written as a new chunk at the end of the valid data, and the header updated.
+   * The existing points in the file are not rewritten. Any bytes after the valid data,
+   * such as those left by an earlier append that failed, are discarded.
+   *
+   * @param file  the file to append to
+   * @param series  the time-series to append, with dates after those in the file
+   * @param deltaEncode  whether to delta-encode the dates where possible
+   * @throws IllegalArgumentException if the file is not in the expected format,
+   *  or the time-series has dates on or before the latest date in the file
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static void append(Path file, LocalDateDoubleTimeSeries series, boolean deltaEncode) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(series, "series");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_SIZE));
+      int chunkCount = readHeader(header);
+      int size = header.getInt(12);
+      int latest = header.getInt(16);
+      int length = header.getInt(20);
+      if (length > channel.size()) {
+        throw new IllegalArgumentException("Invalid time-series file, file is truncated");
+      }
+      if (series.isEmpty()) {
+        return;
+      }
+      if (size > 0 && series.epochDaysUnsafe()[0] <= latest) {
+        throw new IllegalArgumentException(Messages.format(
+            "Time-series to append must start after the latest date in the file: {}", LocalDate.ofEpochDay(latest)));
+      }
+      ByteBuffer chunk = chunk(series, deltaEncode);
+      int newLength = length + chunk.remaining();
+      channel.truncate(length);
+      writeFully(channel, chunk, length);
+      int newLatest = series.epochDaysUnsafe()[series.size() - 1];
+      writeFully(channel, header(chunkCount + 1, size + series.size(), newLatest, newLength), 0);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // creates the header
+  private static ByteBuffer header(int chunkCount, int size, int latest, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+    buffer.putInt(MAGIC);
+    buffer.putShort(VERSION);
+    buffer.putShort((short) 0);
+    buffer.putInt(chunkCount);
+    buffer.putInt(size);
+    buffer.putInt(latest);
+    buffer.putInt(length);
+    buffer.flip();
+    return buffer;
+  }
+
+  // creates a chunk containing the whole time-series
+  private static ByteBuffer chunk(LocalDateDoubleTimeSeries series, boolean deltaEncode) {
+    int[] dates = series.epochDaysUnsafe();
+    int count = dates.length;
+    int encoding = (deltaEncode && canDeltaEncode(dates) ? ENCODING_DELTA : ENCODING_RAW);
+    int datesLength = datesLength(encoding, count);
+    ByteBuffer buffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE + datesLength + count * 8);
+    buffer.putInt(encoding);
+    buffer.putInt(count);
+    if (encoding == ENCODING_RAW) {
+      buffer.asIntBuffer().put(dates);
+    } else {
+      buffer.putInt(dates[0]);
+      for (int i = 1; i < count; i++) {
+        buffer.putChar((char) (dates[i] - dates[i - 1]));
+      }
+    }
+    buffer.position(CHUNK_HEADER_SIZE + datesLength);
+    buffer.asDoubleBuffer().put(series.valuesUnsafe());
+    buffer.position(0);
+    return buffer;
+  }
+
+  // checks if the gaps between dates all fit in two bytes
+  private static boolean canDeltaEncode(int[] dates) {
+    for (int i = 1; i < dates.length; i++) {
+      if ((long) dates[i] - dates[i - 1] > MAX_DELTA) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // the number of bytes used by the dates, padded so that the values are aligned
+  private static int datesLength(int encoding, int count) {
+    int length = (encoding == ENCODING_RAW ? count * 4 : 4 + Math.max(count - 1, 0) * 2);
+    return (length + 7) & ~7;
+  }
+
+  // writes the whole buffer at the position
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    long pos = position;
+    while (buffer.hasRemaining()) {
+      pos += channel.write(buffer, pos);
+    }
+  }
+
+}
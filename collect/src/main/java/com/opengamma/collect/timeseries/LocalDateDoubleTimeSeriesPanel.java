@@ -0,0 +1,404 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.collect.ArgChecker;
+import com.opengamma.collect.Messages;
+import com.opengamma.collect.function.DoubleArrayFunction;
+
+/**
+ * An immutable panel of named time-series sharing a single date axis.
+ * <p>
+ * The panel holds a single sorted array of dates, stored as epoch-days, and one array
+ * of values per time-series, known as a column. Each column has a value for every date
+ * on the axis, with {@code Double.NaN} used where the time-series has no value.
+ * This avoids duplicating the dates when many time-series share the same dates.
+ * <p>
+ * Operations across the columns, such as row sums, are performed as tight loops over the arrays.
+ * Each column can be viewed as a {@link DoubleTimeSeries} without copying.
+ */
+public final class LocalDateDoubleTimeSeriesPanel {
+
+  /**
+   * An empty panel.
+   */
+  public static final LocalDateDoubleTimeSeriesPanel EMPTY_PANEL =
+      new LocalDateDoubleTimeSeriesPanel(new int[0], ImmutableList.of(), new double[0][]);
+
+  /**
+   * The dates of the axis, as epoch-days.
+   */
+  private final int[] dates;
+  /**
+   * The column names.
+   */
+  private final ImmutableList<String> names;
+  /**
+   * The index of each column, keyed by name.
+   */
+  private final ImmutableMap<String, Integer> indices;
+  /**
+   * The values of each column, indexed by column then by date.
+   */
+  private final double[][] columns;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a panel from a map of time-series keyed by column name.
+   * <p>
+   * The axis of the panel is the union of the dates of all the time-series.
+   * The columns are in the iteration order of the map.
+   * A value of {@code Double.NaN} in a time-series is treated as missing.
+   *
+   * @param series  the time-series keyed by column name
+   * @return the panel
+   */
+  public static LocalDateDoubleTimeSeriesPanel of(Map<String, LocalDateDoubleTimeSeries> series) {
+    ArgChecker.noNulls(series, "series");
+    if (series.isEmpty()) {
+      return EMPTY_PANEL;
+    }
+    // build the axis by sorting all the dates and removing duplicates
+    int total = 0;
+    for (LocalDateDoubleTimeSeries ts : series.values()) {
+      total += ts.size();
+    }
+    int[] allDates = new int[total];
+    int pos = 0;
+    for (LocalDateDoubleTimeSeries ts : series.values()) {
+      int[] tsDates = ts.epochDaysUnsafe();
+      System.arraycopy(tsDates, 0, allDates, pos, tsDates.length);
+      pos += tsDates.length;
+    }
+    Arrays.sort(allDates);
+    int axisSize = 0;
+    for (int i = 0; i < total; i++) {
+      if (axisSize == 0 || allDates[i] != allDates[axisSize - 1]) {
+        allDates[axisSize++] = allDates[i];
+      }
+    }
+    int[] axis = Arrays.copyOf(allDates, axisSize);
+    // fill each column by walking the time-series along the axis
+    double[][] columns = new double[series.size()][];
+    int c = 0;
+    for (LocalDateDoubleTimeSeries ts : series.values()) {
+      int[] tsDates = ts.epochDaysUnsafe();
+      double[] tsValues = ts.valuesUnsafe();
+      double[] column = new double[axisSize];
+      int j = 0;
+      for (int i = 0; i < axisSize; i++) {
+        if (j < tsDates.length && tsDates[j] == axis[i]) {
+          column[i] = tsValues[j++];
+        } else {
+          column[i] = Double.NaN;
+        }
+      }
+      columns[c++] = column;
+    }
+    return new LocalDateDoubleTimeSeriesPanel(axis, ImmutableList.copyOf(series.keySet()), columns);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param dates  the dates of the axis, as epoch-days, not altered
+   * @param names  the column names
+   * @param columns  the values of each column, not altered
+   */
+  private LocalDateDoubleTimeSeriesPanel(int[] dates, ImmutableList<String> names, double[][] columns) {
+    this.dates = dates;
+    this.names = names;
+    this.columns = columns;
+    ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < names.size(); i++) {
+      builder.put(names.get(i), i);
+    }
+    this.indices = builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dates of the axis.
+   *
+   * @return the dates, in order
+   */
+  public ImmutableList<LocalDate> dates() {
+    ImmutableList.Builder<LocalDate> builder = ImmutableList.builder();
+    for (int date : dates) {
+      builder.add(LocalDate.ofEpochDay(date));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the column names.
+   *
+   * @return the names, in column order
+   */
+  public ImmutableList<String> names() {
+    return names;
+  }
+
+  /**
+   * Gets the number of dates on the axis.
+   *
+   * @return the number of dates
+   */
+  public int size() {
+    return dates.length;
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int columnCount() {
+    return columns.length;
+  }
+
+  /**
+   * Checks if this panel contains a column with the specified name.
+   *
+   * @param name  the column name
+   * @return true if the column is present
+   */
+  public boolean containsColumn(String name) {
+    return indices.containsKey(name);
+  }
+
+  /**
+   * Gets the value of a column on a date.
+   *
+   * @param name  the column name
+   * @param date  the date
+   * @return the value, empty if the date is not on the axis or the column has no value on the date
+   * @throws IllegalArgumentException if the column is not found
+   */
+  public OptionalDouble get(String name, LocalDate date) {
+    double[] column = columns[index(name)];
+    int position = findDatePosition(date);
+    return (position >= 0 && !Double.isNaN(column[position]) ?
+        OptionalDouble.of(column[position]) :
+        OptionalDouble.empty());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets a view of a column as a time-series.
+   * <p>
+   * The view shares the arrays of this panel, thus no data is copied.
+   * The view excludes the dates where the column has no value.
+   *
+   * @param name  the column name
+   * @return the view of the column
+   * @throws IllegalArgumentException if the column is not found
+   */
+  public DoubleTimeSeries<LocalDate> column(String name) {
+    return new LocalDateDoublePanelColumn(dates, columns[index(name)]);
+  }
+
+  /**
+   * Gets a column as a {@code LocalDateDoubleTimeSeries}.
+   * <p>
+   * The time-series excludes the dates where the column has no value.
+   * Unlike {@link #column(String)}, the dates and values are copied.
+   *
+   * @param name  the column name
+   * @return the time-series of the column
+   * @throws IllegalArgumentException if the column is not found
+   */
+  public LocalDateDoubleTimeSeries toTimeSeries(String name) {
+    double[] column = columns[index(name)];
+    int[] resDates = new int[dates.length];
+    double[] resValues = new double[dates.length];
+    int resCount = 0;
+    for (int i = 0; i < dates.length; i++) {
+      if (!Double.isNaN(column[i])) {
+        resDates[resCount] = dates[i];
+        resValues[resCount] = column[i];
+        resCount++;
+      }
+    }
+    return LocalDateDoubleTimeSeries.createUnsafe(
+        Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the sum of the values on each date.
+   * <p>
+   * Missing values are ignored.
+   * Dates where no column has a value are not included in the result.
+   *
+   * @return the time-series of the sum of each row
+   */
+  public LocalDateDoubleTimeSeries rowSums() {
+    double[] sums = new double[dates.length];
+    int[] counts = new int[dates.length];
+    for (double[] column : columns) {
+      for (int i = 0; i < dates.length; i++) {
+        double value = column[i];
+        if (!Double.isNaN(value)) {
+          sums[i] += value;
+          counts[i]++;
+        }
+      }
+    }
+    return createDroppingMissing(sums, counts, 1);
+  }
+
+  /**
+   * Calculates the weighted sum of the values on each date.
+   * <p>
+   * The weights are in column order.
+   * Dates where any column has no value are not included in the result.
+   *
+   * @param weights  the weight of each column
+   * @return the time-series of the weighted sum of each row
+   * @throws IllegalArgumentException if the number of weights does not match the number of columns
+   */
+  public LocalDateDoubleTimeSeries weightedSum(double... weights) {
+    ArgChecker.notNull(weights, "weights");
+    ArgChecker.isTrue(weights.length == columns.length,
+        "Number of weights must match number of columns - weights: {}, columns: {}", weights.length, columns.length);
+    double[] sums = new double[dates.length];
+    int[] counts = new int[dates.length];
+    for (int c = 0; c < columns.length; c++) {
+      double[] column = columns[c];
+      double weight = weights[c];
+      for (int i = 0; i < dates.length; i++) {
+        double value = column[i];
+        if (!Double.isNaN(value)) {
+          sums[i] += weight * value;
+          counts[i]++;
+        }
+      }
+    }
+    return createDroppingMissing(sums, counts, columns.length);
+  }
+
+  /**
+   * Combines the values on each date using a function.
+   * <p>
+   * The function is passed an array containing the value of each column on the date,
+   * in column order, with {@code Double.NaN} where a column has no value.
+   * The array may be reused, thus the function must not retain or modify it.
+   * The result has a value for every date on the axis.
+   *
+   * @param function  the function to be used to combine the values
+   * @return the time-series of the combined values of each row
+   */
+  public LocalDateDoubleTimeSeries combineRows(DoubleArrayFunction function) {
+    ArgChecker.notNull(function, "function");
+    double[] row = new double[columns.length];
+    double[] resValues = new double[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      for (int c = 0; c < columns.length; c++) {
+        row[c] = columns[c][i];
+      }
+      resValues[i] = function.applyAsDouble(row);
+    }
+    return LocalDateDoubleTimeSeries.createUnsafe(dates, resValues);
+  }
+
+  // creates a time-series from the row results, excluding rows with too few values
+  private LocalDateDoubleTimeSeries createDroppingMissing(double[] rowValues, int[] counts, int minCount) {
+    int[] resDates = new int[dates.length];
+    double[] resValues = new double[dates.length];
+    int resCount = 0;
+    for (int i = 0; i < dates.length; i++) {
+      if (counts[i] >= minCount) {
+        resDates[resCount] = dates[i];
+        resValues[resCount] = rowValues[i];
+        resCount++;
+      }
+    }
+    if (resCount == dates.length) {
+      return LocalDateDoubleTimeSeries.createUnsafe(dates, resValues);
+    }
+    return LocalDateDoubleTimeSeries.createUnsafe(
+        Arrays.copyOf(resDates, resCount), Arrays.copyOf(resValues, resCount));
+  }
+
+  // finds the index of the column
+  private int index(String name) {
+    ArgChecker.notNull(name, "name");
+    Integer index = indices.get(name);
+    if (index == null) {
+      throw new IllegalArgumentException(Messages.format("Column not found: {}", name));
+    }
+    return index;
+  }
+
+  // finds the position of the date on the axis
+  private int findDatePosition(LocalDate date) {
+    ArgChecker.notNull(date, "date");
+    long epochDay = date.toEpochDay();
+    if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+      return -1;
+    }
+    return Arrays.binarySearch(dates, (int) epochDay);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this panel is equal to another panel.
+   * <p>
+   * Panels are equal if they have the same dates, column names and values.
+   *
+   * @param obj  the object to check, null returns false
+   * @return true if this is equal to the other panel
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof LocalDateDoubleTimeSeriesPanel) {
+      LocalDateDoubleTimeSeriesPanel other = (LocalDateDoubleTimeSeriesPanel) obj;
+      return Arrays.equals(dates, other.dates) &&
+          names.equals(other.names) &&
+          Arrays.deepEquals(columns, other.columns);
+    }
+    return false;
+  }
+
+  /**
+   * A hash code for this panel.
+   *
+   * @return a suitable hash code
+   */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(dates) ^ names.hashCode() ^ Arrays.deepHashCode(columns);
+  }
+
+  /**
+   * Returns a string representation of the panel.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64).append("LocalDateDoubleTimeSeriesPanel[");
+    for (String name : names) {
+      buf.append(name).append('=').append(column(name)).append(", ");
+    }
+    if (!names.isEmpty()) {
+      buf.setLength(buf.length() - 2);
+    }
+    return buf.append(']').toString();
+  }
+
+}
@@ -39,6 +39,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -150,6 +151,22 @@ public class TestHelper {
     }
   }
 
+  /**
+   * Deserializes an object from a Base64 encoded Java serialization stream.
+   * <p>
+   * This is used to check that a serialized form written by an earlier version can still be read.
+   * 
+   * @param base64  the Base64 encoded serialization stream
+   * @return the deserialized object
+   */
+  public static Object deserialize(String base64) {
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)))) {
+      return ois.readObject();
+    } catch (IOException | ClassNotFoundException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Asserts that the object can be serialized and deserialized via a string using Joda-Convert.
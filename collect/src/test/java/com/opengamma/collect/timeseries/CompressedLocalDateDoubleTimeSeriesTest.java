@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import static com.opengamma.collect.TestHelper.assertSerialization;
+import static com.opengamma.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.collect.timeseries.CompressedLocalDateDoubleTimeSeries.EMPTY_SERIES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link CompressedLocalDateDoubleTimeSeries}.
+ */
+@Test
+public class CompressedLocalDateDoubleTimeSeriesTest {
+
+  private static final LocalDate DATE_2010_01_01 = LocalDate.of(2010, 1, 1);
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "series")
+  static Object[][] data_series() {
+    Random random = new Random(1);
+    // random gaps and values, including large gaps and special values
+    LocalDateDoubleTimeSeriesBuilder irregular = LocalDateDoubleTimeSeries.builder();
+    LocalDate date = LocalDate.of(-5000, 1, 1);
+    for (int i = 0; i < 500; i++) {
+      date = date.plusDays(random.nextInt(10) == 0 ? random.nextInt(100_000) + 1 : random.nextInt(5) + 1);
+      double value = (random.nextInt(20) == 0 ?
+          Double.NaN :
+          random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10));
+      irregular.put(date, value);
+    }
+    irregular.put(date.plusDays(1), Double.POSITIVE_INFINITY);
+    irregular.put(date.plusDays(2), -0d);
+    return new Object[][] {
+        {LocalDateDoubleTimeSeries.of(DATE_2010_01_01, 1.5d)},
+        {fixings(64)},
+        {fixings(65)},
+        {fixings(1000)},
+        {irregular.build()},
+    };
+  }
+
+  @Test(dataProvider = "series")
+  public void test_roundTrip(LocalDateDoubleTimeSeries series) {
+    CompressedLocalDateDoubleTimeSeries test = CompressedLocalDateDoubleTimeSeries.of(series);
+    assertEquals(test.size(), series.size());
+    assertEquals(test.isEmpty(), false);
+    assertEquals(test.toTimeSeries(), series);
+    assertEquals(test.toMap(), series.toMap());
+    assertEquals(test.stream().collect(Collectors.toList()), series.stream().collect(Collectors.toList()));
+    assertEquals(test.toString(), series.toString());
+    List<LocalDateDoublePoint> points = new ArrayList<>();
+    test.forEach((date, value) -> points.add(LocalDateDoublePoint.of(date, value)));
+    assertEquals(points, series.stream().collect(Collectors.toList()));
+  }
+
+  @Test(dataProvider = "series")
+  public void test_get(LocalDateDoubleTimeSeries series) {
+    CompressedLocalDateDoubleTimeSeries test = CompressedLocalDateDoubleTimeSeries.of(series);
+    series.forEach((date, value) -> {
+      assertEquals(test.get(date), OptionalDouble.of(value));
+      assertEquals(test.get(date.plusDays(1)), series.get(date.plusDays(1)));
+      assertEquals(test.get(date.minusDays(1)), series.get(date.minusDays(1)));
+    });
+    assertEquals(test.get(LocalDate.MIN), OptionalDouble.empty());
+    assertEquals(test.get(LocalDate.MAX), OptionalDouble.empty());
+  }
+
+  public void test_empty() {
+    assertEquals(CompressedLocalDateDoubleTimeSeries.of(LocalDateDoubleTimeSeries.EMPTY_SERIES), EMPTY_SERIES);
+    assertEquals(EMPTY_SERIES.size(), 0);
+    assertEquals(EMPTY_SERIES.isEmpty(), true);
+    assertEquals(EMPTY_SERIES.get(DATE_2010_01_01), OptionalDouble.empty());
+    assertEquals(EMPTY_SERIES.toTimeSeries(), LocalDateDoubleTimeSeries.EMPTY_SERIES);
+    assertEquals(EMPTY_SERIES.stream().count(), 0);
+    assertEquals(EMPTY_SERIES.toString(), "[]");
+  }
+
+  public void test_compression() {
+    LocalDateDoubleTimeSeries series = fixings(2500);
+    CompressedLocalDateDoubleTimeSeries test = CompressedLocalDateDoubleTimeSeries.of(series);
+    // the standard time-series uses twelve bytes per point
+    assertTrue(test.encodedSize() * 5 < series.size() * 12, "Encoded size: " + test.encodedSize());
+  }
+
+  public void test_null() {
+    assertThrowsIllegalArg(() -> CompressedLocalDateDoubleTimeSeries.of(null));
+    CompressedLocalDateDoubleTimeSeries test = CompressedLocalDateDoubleTimeSeries.of(fixings(10));
+    assertThrowsIllegalArg(() -> test.get(null));
+    assertThrowsIllegalArg(() -> test.forEach(null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_equalsHashCode() {
+    CompressedLocalDateDoubleTimeSeries test = CompressedLocalDateDoubleTimeSeries.of(fixings(100));
+    CompressedLocalDateDoubleTimeSeries other = CompressedLocalDateDoubleTimeSeries.of(fixings(100));
+    assertEquals(test, test);
+    assertEquals(test, other);
+    assertEquals(test.hashCode(), other.hashCode());
+    assertNotEquals(test, CompressedLocalDateDoubleTimeSeries.of(fixings(101)));
+    assertNotEquals(test, "");
+    assertNotEquals(test, null);
+  }
+
+  public void test_serialization() {
+    assertSerialization(CompressedLocalDateDoubleTimeSeries.of(fixings(100)));
+  }
+
+  //-------------------------------------------------------------------------
+  // creates a business-day series with values that change on a few days
+  private static LocalDateDoubleTimeSeries fixings(int size) {
+    Random random = new Random(1);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    LocalDate date = DATE_2010_01_01;
+    double value = 0.005;
+    for (int i = 0; i < size; i++) {
+      builder.put(date, value);
+      if (random.nextInt(4) == 0) {
+        value += (random.nextInt(11) - 5) * 0.0001;
+      }
+      date = date.plusDays(date.getDayOfWeek() == DayOfWeek.FRIDAY ? 3 : 1);
+    }
+    return builder.build();
+  }
+
+}
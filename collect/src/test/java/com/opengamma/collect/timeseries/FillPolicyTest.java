@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import static com.opengamma.collect.TestHelper.assertJodaConvert;
+import static com.opengamma.collect.TestHelper.assertSerialization;
+import static com.opengamma.collect.TestHelper.assertThrows;
+import static com.opengamma.collect.TestHelper.coverEnum;
+import static com.opengamma.collect.timeseries.FillPolicy.DROP;
+import static com.opengamma.collect.timeseries.FillPolicy.LINEAR_INTERPOLATION;
+import static com.opengamma.collect.timeseries.FillPolicy.NAN;
+import static com.opengamma.collect.timeseries.FillPolicy.NEXT_VALUE;
+import static com.opengamma.collect.timeseries.FillPolicy.PREVIOUS_VALUE;
+import static com.opengamma.collect.timeseries.FillPolicy.ZERO;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link FillPolicy}.
+ */
+@Test
+public class FillPolicyTest {
+
+  public void test_PREVIOUS_VALUE() {
+    assertEquals(PREVIOUS_VALUE.canFill(true, true), true);
+    assertEquals(PREVIOUS_VALUE.canFill(true, false), true);
+    assertEquals(PREVIOUS_VALUE.canFill(false, true), false);
+    assertEquals(PREVIOUS_VALUE.fill(2d, 4d, 0.25d), 2d, 0d);
+  }
+
+  public void test_NEXT_VALUE() {
+    assertEquals(NEXT_VALUE.canFill(true, true), true);
+    assertEquals(NEXT_VALUE.canFill(true, false), false);
+    assertEquals(NEXT_VALUE.canFill(false, true), true);
+    assertEquals(NEXT_VALUE.fill(2d, 4d, 0.25d), 4d, 0d);
+  }
+
+  public void test_LINEAR_INTERPOLATION() {
+    assertEquals(LINEAR_INTERPOLATION.canFill(true, true), true);
+    assertEquals(LINEAR_INTERPOLATION.canFill(true, false), false);
+    assertEquals(LINEAR_INTERPOLATION.canFill(false, true), false);
+    assertEquals(LINEAR_INTERPOLATION.fill(2d, 4d, 0.25d), 2.5d, 0d);
+  }
+
+  public void test_ZERO() {
+    assertEquals(ZERO.canFill(true, true), true);
+    assertEquals(ZERO.canFill(false, false), true);
+    assertEquals(ZERO.fill(2d, 4d, 0.25d), 0d, 0d);
+  }
+
+  public void test_NAN() {
+    assertEquals(NAN.canFill(true, true), true);
+    assertEquals(NAN.canFill(false, false), true);
+    assertEquals(NAN.fill(2d, 4d, 0.25d), Double.NaN);
+  }
+
+  public void test_DROP() {
+    assertEquals(DROP.canFill(true, true), false);
+    assertEquals(DROP.canFill(false, false), false);
+    assertThrows(() -> DROP.fill(2d, 4d, 0.25d), UnsupportedOperationException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "name")
+  static Object[][] data_name() {
+      return new Object[][] {
+          {PREVIOUS_VALUE, "PreviousValue"},
+          {NEXT_VALUE, "NextValue"},
+          {LINEAR_INTERPOLATION, "LinearInterpolation"},
+          {ZERO, "Zero"},
+          {NAN, "Nan"},
+          {DROP, "Drop"},
+      };
+  }
+
+  @Test(dataProvider = "name")
+  public void test_toString(FillPolicy policy, String name) {
+    assertEquals(policy.toString(), name);
+  }
+
+  @Test(dataProvider = "name")
+  public void test_of_lookup(FillPolicy policy, String name) {
+    assertEquals(FillPolicy.of(name), policy);
+  }
+
+  public void test_of_lookup_notFound() {
+    assertThrows(() -> FillPolicy.of("Rubbish"), IllegalArgumentException.class);
+  }
+
+  public void test_of_lookup_null() {
+    assertThrows(() -> FillPolicy.of(null), IllegalArgumentException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverEnum(FillPolicy.class);
+  }
+
+  public void test_serialization() {
+    assertSerialization(PREVIOUS_VALUE);
+    assertSerialization(DROP);
+  }
+
+  public void test_jodaConvert() {
+    assertJodaConvert(FillPolicy.class, PREVIOUS_VALUE);
+    assertJodaConvert(FillPolicy.class, DROP);
+  }
+
+}
@@ -11,10 +11,14 @@ import static org.testng.Assert.assertEquals;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
 import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.TreeMap;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Doubles;
 
 /**
@@ -137,6 +141,99 @@ public class LocalDateDoubleTimeSeriesBuilderTest {
     assertEquals(test.get(date(2014, 1, 1)), OptionalDouble.of(14d));
   }
 
+  public void test_duplicatesOutOfOrderGetOverwritten() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 3), 3)
+        .put(date(2014, 1, 1), 1)
+        .put(date(2014, 1, 3), 4)
+        .put(date(2014, 1, 2), 2)
+        .put(date(2014, 1, 1), 5);
+    assertEquals(builder.get(date(2014, 1, 1)), OptionalDouble.of(5d));
+    assertEquals(builder.get(date(2014, 1, 4)), OptionalDouble.empty());
+    builder.put(date(2014, 1, 2), 6);
+
+    LocalDateDoubleTimeSeries test = builder.build();
+    assertEquals(test.dates(), ImmutableList.of(date(2014, 1, 1), date(2014, 1, 2), date(2014, 1, 3)));
+    assertEquals(test.values(), ImmutableList.of(5d, 6d, 4d));
+  }
+
+  public void test_matchesSortedMap() {
+    Random random = new Random(1);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    Map<LocalDate, Double> expected = new TreeMap<>();
+    for (int i = 0; i < 2000; i++) {
+      // mostly in order, with some out of order and duplicated dates
+      LocalDate date = date(2010, 1, 1).plusDays(random.nextInt(10) == 0 ? random.nextInt(i + 1) : i);
+      double value = random.nextDouble();
+      builder.put(date, value);
+      expected.put(date, value);
+    }
+    LocalDateDoubleTimeSeries test = builder.build();
+    assertEquals(test, LocalDateDoubleTimeSeries.of(expected.keySet(), expected.values()));
+  }
+
+  public void test_putAll_builderOverwrites() {
+    LocalDateDoubleTimeSeriesBuilder other = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 2), 12)
+        .put(date(2014, 1, 1), 11);
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 1), 1)
+        .put(date(2014, 1, 3), 3)
+        .putAll(other)
+        .build();
+    assertEquals(test.dates(), ImmutableList.of(date(2014, 1, 1), date(2014, 1, 2), date(2014, 1, 3)));
+    assertEquals(test.values(), ImmutableList.of(11d, 12d, 3d));
+  }
+
+  public void test_merge() {
+    LocalDateDoubleTimeSeriesBuilder other = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 4), 14)
+        .put(date(2014, 1, 2), 12);
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 1), 1)
+        .put(date(2014, 1, 2), 2)
+        .put(date(2014, 1, 3), 3)
+        .merge(other)
+        .build();
+    assertEquals(test.dates(), ImmutableList.of(date(2014, 1, 1), date(2014, 1, 2), date(2014, 1, 3), date(2014, 1, 4)));
+    assertEquals(test.values(), ImmutableList.of(1d, 12d, 3d, 14d));
+  }
+
+  public void test_merge_inOrder() {
+    LocalDateDoubleTimeSeriesBuilder other = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 3), 3);
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 1), 1)
+        .merge(other)
+        .merge(LocalDateDoubleTimeSeries.builder())
+        .build();
+    assertEquals(test.dates(), ImmutableList.of(date(2014, 1, 1), date(2014, 1, 3)));
+    assertEquals(test.values(), ImmutableList.of(1d, 3d));
+  }
+
+  public void test_buildThenAlter() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 1), 1)
+        .put(date(2014, 1, 2), 2);
+    LocalDateDoubleTimeSeries first = builder.build();
+    builder.put(date(2014, 1, 2), 3).put(date(2014, 1, 3), 4);
+    LocalDateDoubleTimeSeries second = builder.build();
+
+    assertEquals(first.values(), ImmutableList.of(1d, 2d));
+    assertEquals(second.values(), ImmutableList.of(1d, 3d, 4d));
+  }
+
+  public void test_toBuilderThenAlter() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.builder()
+        .put(date(2014, 1, 1), 1)
+        .put(date(2014, 1, 2), 2)
+        .build();
+    LocalDateDoubleTimeSeries test = base.toBuilder().put(date(2014, 1, 2), 3).build();
+
+    assertEquals(base.values(), ImmutableList.of(1d, 2d));
+    assertEquals(test.values(), ImmutableList.of(1d, 3d));
+  }
+
   //-------------------------------------------------------------------------
   private static LocalDate date(int year, int month, int day) {
     return LocalDate.of(year, month, day);
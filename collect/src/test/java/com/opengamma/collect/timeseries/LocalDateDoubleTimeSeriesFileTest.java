@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import static com.opengamma.collect.TestHelper.assertThrows;
+import static com.opengamma.collect.TestHelper.coverPrivateConstructor;
+import static com.opengamma.collect.timeseries.LocalDateDoubleTimeSeries.EMPTY_SERIES;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link LocalDateDoubleTimeSeriesFile}.
+ */
+@Test
+public class LocalDateDoubleTimeSeriesFileTest {
+
+  private static final LocalDate DATE_2014_01_01 = LocalDate.of(2014, 1, 1);
+
+  private Path file;
+
+  @BeforeMethod
+  public void createFile() throws IOException {
+    file = Files.createTempFile("timeseries", ".bin");
+  }
+
+  @AfterMethod
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "deltaEncode")
+  static Object[][] data_deltaEncode() {
+    return new Object[][] {
+        {true},
+        {false},
+    };
+  }
+
+  @Test(dataProvider = "deltaEncode")
+  public void test_writeRead(boolean deltaEncode) {
+    LocalDateDoubleTimeSeries series = series(DATE_2014_01_01, 1000, 1);
+    LocalDateDoubleTimeSeriesFile.write(file, series, deltaEncode);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series);
+  }
+
+  public void test_writeRead_deltaEncodingSmaller() throws IOException {
+    LocalDateDoubleTimeSeries series = series(DATE_2014_01_01, 1000, 1);
+    LocalDateDoubleTimeSeriesFile.write(file, series, false);
+    long rawSize = Files.size(file);
+    LocalDateDoubleTimeSeriesFile.write(file, series, true);
+    long deltaSize = Files.size(file);
+    assertEquals(rawSize, 24 + 8 + 4000 + 8000);
+    assertEquals(deltaSize, 24 + 8 + 2008 + 8000);  // first date, gaps and padding
+  }
+
+  public void test_writeRead_largeGapNotDeltaEncoded() {
+    LocalDateDoubleTimeSeries series = LocalDateDoubleTimeSeries.builder()
+        .put(LocalDate.of(1800, 1, 1), 1d)
+        .put(LocalDate.of(2000, 1, 1), 2d)
+        .put(LocalDate.of(2000, 1, 2), 3d)
+        .build();
+    LocalDateDoubleTimeSeriesFile.write(file, series, true);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series);
+  }
+
+  @Test(dataProvider = "deltaEncode")
+  public void test_writeRead_single(boolean deltaEncode) {
+    LocalDateDoubleTimeSeries series = LocalDateDoubleTimeSeries.of(DATE_2014_01_01, 2d);
+    LocalDateDoubleTimeSeriesFile.write(file, series, deltaEncode);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series);
+  }
+
+  public void test_writeRead_empty() {
+    LocalDateDoubleTimeSeriesFile.write(file, EMPTY_SERIES, true);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), EMPTY_SERIES);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_append() {
+    LocalDateDoubleTimeSeries series1 = series(DATE_2014_01_01, 100, 1);
+    LocalDateDoubleTimeSeries series2 = series(DATE_2014_01_01.plusDays(200), 100, 2);
+    LocalDateDoubleTimeSeries series3 = series(DATE_2014_01_01.plusDays(400), 1, 3);
+    LocalDateDoubleTimeSeriesFile.write(file, series1, true);
+    LocalDateDoubleTimeSeriesFile.append(file, series2, false);
+    LocalDateDoubleTimeSeriesFile.append(file, EMPTY_SERIES, false);
+    LocalDateDoubleTimeSeriesFile.append(file, series3, true);
+    LocalDateDoubleTimeSeries expected = series1.toBuilder()
+        .putAll(series2.toBuilder())
+        .putAll(series3.toBuilder())
+        .build();
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), expected);
+  }
+
+  public void test_append_toEmpty() {
+    LocalDateDoubleTimeSeries series = series(DATE_2014_01_01, 10, 1);
+    LocalDateDoubleTimeSeriesFile.write(file, EMPTY_SERIES, true);
+    LocalDateDoubleTimeSeriesFile.append(file, series, true);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series);
+  }
+
+  public void test_append_notAfterLatest() {
+    LocalDateDoubleTimeSeries series = series(DATE_2014_01_01, 10, 1);
+    LocalDateDoubleTimeSeriesFile.write(file, series, true);
+    assertThrows(
+        () -> LocalDateDoubleTimeSeriesFile.append(file, series(DATE_2014_01_01.plusDays(9), 10, 2), true),
+        IllegalArgumentException.class);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series);
+  }
+
+  public void test_append_afterFailedAppend() throws IOException {
+    LocalDateDoubleTimeSeries series1 = series(DATE_2014_01_01, 100, 1);
+    LocalDateDoubleTimeSeries series2 = series(DATE_2014_01_01.plusDays(200), 100, 2);
+    LocalDateDoubleTimeSeriesFile.write(file, series1, true);
+    long validSize = Files.size(file);
+    // simulate an append that wrote part of its chunk but failed before updating the header
+    byte[] orphan = new byte[100];
+    Arrays.fill(orphan, (byte) 0x7F);
+    Files.write(file, orphan, StandardOpenOption.APPEND);
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), series1);
+    LocalDateDoubleTimeSeriesFile.append(file, series2, true);
+    LocalDateDoubleTimeSeries expected = series1.toBuilder().putAll(series2.toBuilder()).build();
+    assertEquals(LocalDateDoubleTimeSeriesFile.read(file), expected);
+    assertEquals(Files.size(file), validSize + 8 + 208 + 800);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_read_invalid() throws IOException {
+    Files.write(file, new byte[0]);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*header.*");
+    Files.write(file, "Not a time-series file".getBytes("UTF-8"));
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*header.*");
+  }
+
+  public void test_read_unsupportedVersion() throws IOException {
+    LocalDateDoubleTimeSeriesFile.write(file, series(DATE_2014_01_01, 10, 1), true);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[5] = 2;
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*version.*");
+  }
+
+  public void test_read_truncated() throws IOException {
+    LocalDateDoubleTimeSeriesFile.write(file, series(DATE_2014_01_01, 10, 1), false);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class);
+  }
+
+  public void test_read_negativeCounts() throws IOException {
+    LocalDateDoubleTimeSeriesFile.write(file, series(DATE_2014_01_01, 10, 1), true);
+    byte[] valid = Files.readAllBytes(file);
+    // negative number of points
+    byte[] bytes = valid.clone();
+    ByteBuffer.wrap(bytes).putInt(12, -1);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*negative.*");
+    assertThrows(
+        () -> LocalDateDoubleTimeSeriesFile.append(file, series(DATE_2014_01_01.plusYears(1), 5, 2), true),
+        IllegalArgumentException.class, ".*negative.*");
+    // negative number of chunks
+    bytes = valid.clone();
+    ByteBuffer.wrap(bytes).putInt(8, -1);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*negative.*");
+  }
+
+  public void test_read_sizeTooLarge() throws IOException {
+    LocalDateDoubleTimeSeriesFile.write(file, series(DATE_2014_01_01, 10, 1), true);
+    byte[] bytes = Files.readAllBytes(file);
+    ByteBuffer.wrap(bytes).putInt(12, Integer.MAX_VALUE);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*truncated.*");
+  }
+
+  public void test_read_invalidDataLength() throws IOException {
+    LocalDateDoubleTimeSeriesFile.write(file, series(DATE_2014_01_01, 10, 1), true);
+    byte[] valid = Files.readAllBytes(file);
+    byte[] bytes = valid.clone();
+    ByteBuffer.wrap(bytes).putInt(20, 0);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*data length.*");
+    assertThrows(
+        () -> LocalDateDoubleTimeSeriesFile.append(file, series(DATE_2014_01_01.plusYears(1), 5, 2), true),
+        IllegalArgumentException.class, ".*data length.*");
+    bytes = valid.clone();
+    ByteBuffer.wrap(bytes).putInt(20, valid.length + 8);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*truncated.*");
+    assertThrows(
+        () -> LocalDateDoubleTimeSeriesFile.append(file, series(DATE_2014_01_01.plusYears(1), 5, 2), true),
+        IllegalArgumentException.class, ".*truncated.*");
+    bytes = Arrays.copyOf(valid, valid.length + 8);
+    ByteBuffer.wrap(bytes).putInt(20, valid.length + 8);
+    Files.write(file, bytes);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), IllegalArgumentException.class, ".*data length.*");
+  }
+
+  public void test_read_missingFile() throws IOException {
+    Files.delete(file);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.read(file), UncheckedIOException.class);
+    assertThrows(() -> LocalDateDoubleTimeSeriesFile.append(file, EMPTY_SERIES, true), UncheckedIOException.class);
+  }
+
+  public void coverage() {
+    coverPrivateConstructor(LocalDateDoubleTimeSeriesFile.class);
+  }
+
+  //-------------------------------------------------------------------------
+  // creates a series of weekdays with random values
+  private static LocalDateDoubleTimeSeries series(LocalDate start, int size, long seed) {
+    Random random = new Random(seed);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    LocalDate date = start;
+    for (int i = 0; i < size; i++) {
+      builder.put(date, random.nextDouble());
+      date = date.plusDays(date.getDayOfWeek().getValue() >= 5 ? 8 - date.getDayOfWeek().getValue() : 1);
+    }
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2014 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.collect.timeseries;
+
+import static com.opengamma.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.collect.timeseries.LocalDateDoubleTimeSeriesPanel.EMPTY_PANEL;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.primitives.Doubles;
+
+/**
+ * Test {@link LocalDateDoubleTimeSeriesPanel}.
+ */
+@Test
+public class LocalDateDoubleTimeSeriesPanelTest {
+
+  private static final LocalDate DATE_2014_01_01 = date(2014, 1, 1);
+  private static final LocalDate DATE_2014_01_02 = date(2014, 1, 2);
+  private static final LocalDate DATE_2014_01_03 = date(2014, 1, 3);
+  private static final LocalDate DATE_2014_01_06 = date(2014, 1, 6);
+  private static final LocalDateDoubleTimeSeries SERIES_A = LocalDateDoubleTimeSeries.builder()
+      .put(DATE_2014_01_01, 1)
+      .put(DATE_2014_01_02, 2)
+      .put(DATE_2014_01_03, 3)
+      .build();
+  private static final LocalDateDoubleTimeSeries SERIES_B = LocalDateDoubleTimeSeries.builder()
+      .put(DATE_2014_01_02, 20)
+      .put(DATE_2014_01_03, 30)
+      .put(DATE_2014_01_06, 60)
+      .build();
+  private static final LocalDateDoubleTimeSeriesPanel PANEL =
+      LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of("A", SERIES_A, "B", SERIES_B));
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    assertEquals(PANEL.dates(), ImmutableList.of(DATE_2014_01_01, DATE_2014_01_02, DATE_2014_01_03, DATE_2014_01_06));
+    assertEquals(PANEL.names(), ImmutableList.of("A", "B"));
+    assertEquals(PANEL.size(), 4);
+    assertEquals(PANEL.columnCount(), 2);
+    assertEquals(PANEL.containsColumn("A"), true);
+    assertEquals(PANEL.containsColumn("C"), false);
+  }
+
+  public void test_of_empty() {
+    assertEquals(LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of()), EMPTY_PANEL);
+    assertEquals(EMPTY_PANEL.size(), 0);
+    assertEquals(EMPTY_PANEL.columnCount(), 0);
+    LocalDateDoubleTimeSeriesPanel test =
+        LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of("A", LocalDateDoubleTimeSeries.EMPTY_SERIES));
+    assertEquals(test.size(), 0);
+    assertEquals(test.rowSums(), LocalDateDoubleTimeSeries.EMPTY_SERIES);
+  }
+
+  public void test_of_null() {
+    Map<String, LocalDateDoubleTimeSeries> map = new LinkedHashMap<>();
+    map.put("A", null);
+    assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeriesPanel.of(map));
+    assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeriesPanel.of(null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_get() {
+    assertEquals(PANEL.get("A", DATE_2014_01_01), OptionalDouble.of(1));
+    assertEquals(PANEL.get("A", DATE_2014_01_06), OptionalDouble.empty());
+    assertEquals(PANEL.get("B", DATE_2014_01_06), OptionalDouble.of(60));
+    assertEquals(PANEL.get("B", date(2014, 1, 4)), OptionalDouble.empty());
+    assertEquals(PANEL.get("B", LocalDate.MAX), OptionalDouble.empty());
+    assertThrowsIllegalArg(() -> PANEL.get("C", DATE_2014_01_01));
+    assertThrowsIllegalArg(() -> PANEL.get(null, DATE_2014_01_01));
+  }
+
+  public void test_column() {
+    DoubleTimeSeries<LocalDate> test = PANEL.column("A");
+    assertEquals(test.size(), 3);
+    assertEquals(test.toMap(), SERIES_A.toMap());
+    assertEquals(test.toString(), SERIES_A.toString());
+    assertEquals(PANEL.column("B").toMap(), SERIES_B.toMap());
+    assertThrowsIllegalArg(() -> PANEL.column("C"));
+  }
+
+  public void test_toTimeSeries() {
+    assertEquals(PANEL.toTimeSeries("A"), SERIES_A);
+    assertEquals(PANEL.toTimeSeries("B"), SERIES_B);
+    assertThrowsIllegalArg(() -> PANEL.toTimeSeries("C"));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_rowSums() {
+    LocalDateDoubleTimeSeries expected = LocalDateDoubleTimeSeries.builder()
+        .put(DATE_2014_01_01, 1)
+        .put(DATE_2014_01_02, 22)
+        .put(DATE_2014_01_03, 33)
+        .put(DATE_2014_01_06, 60)
+        .build();
+    assertEquals(PANEL.rowSums(), expected);
+  }
+
+  public void test_weightedSum() {
+    LocalDateDoubleTimeSeries expected = LocalDateDoubleTimeSeries.builder()
+        .put(DATE_2014_01_02, 2 * 2 - 20)
+        .put(DATE_2014_01_03, 2 * 3 - 30)
+        .build();
+    assertEquals(PANEL.weightedSum(2, -1), expected);
+    assertThrowsIllegalArg(() -> PANEL.weightedSum(1));
+    assertThrowsIllegalArg(() -> PANEL.weightedSum((double[]) null));
+  }
+
+  public void test_combineRows() {
+    LocalDateDoubleTimeSeries test = PANEL.combineRows(row -> Doubles.max(row));
+    assertEquals(test.toMap(), ImmutableSortedMap.of(
+        DATE_2014_01_01, Double.NaN,
+        DATE_2014_01_02, 20d,
+        DATE_2014_01_03, 30d,
+        DATE_2014_01_06, Double.NaN));
+    assertEquals(PANEL.combineRows(row -> row.length), PANEL.rowSums().mapValues(v -> 2));
+    assertThrowsIllegalArg(() -> PANEL.combineRows(null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_equalsHashCodeToString() {
+    LocalDateDoubleTimeSeriesPanel other =
+        LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of("A", SERIES_A, "B", SERIES_B));
+    assertEquals(PANEL, PANEL);
+    assertEquals(PANEL, other);
+    assertEquals(PANEL.hashCode(), other.hashCode());
+    assertNotEquals(PANEL, LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of("A", SERIES_A, "C", SERIES_B)));
+    assertNotEquals(PANEL, LocalDateDoubleTimeSeriesPanel.of(ImmutableMap.of("A", SERIES_A)));
+    assertNotEquals(PANEL, "");
+    assertNotEquals(PANEL, null);
+    assertEquals(PANEL.toString(), "LocalDateDoubleTimeSeriesPanel[A=" + SERIES_A + ", B=" + SERIES_B + "]");
+    assertEquals(EMPTY_PANEL.toString(), "LocalDateDoubleTimeSeriesPanel[]");
+  }
+
+  //-------------------------------------------------------------------------
+  private static LocalDate date(int year, int month, int day) {
+    return LocalDate.of(year, month, day);
+  }
+
+}
@@ -8,16 +8,25 @@ package com.opengamma.collect.timeseries;
 import static com.opengamma.collect.timeseries.LocalDateDoubleTimeSeries.EMPTY_SERIES;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
 
+import java.io.ObjectStreamClass;
 import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.DoubleStream;
 
 import org.joda.beans.BeanBuilder;
 import org.testng.annotations.DataProvider;
@@ -27,6 +36,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Doubles;
 import com.opengamma.collect.TestHelper;
+import com.opengamma.collect.range.LocalDateRange;
 
 /**
  * Test LocalDateDoubleTimeSeries.
@@ -268,6 +278,51 @@ public class LocalDateDoubleTimeSeriesTest {
     TestHelper.assertThrows(() -> test.getLatestValue(), NoSuchElementException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_getAll() {
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
+    LocalDate[] dates = {
+        LocalDate.MIN, date(2009, 1, 1), DATE_2010_01_01, DATE_2010_01_01, date(2010, 6, 1),
+        DATE_2012_01_01, date(2013, 1, 1), LocalDate.MAX};
+    double nan = Double.NaN;
+    assertEquals(test.getAll(dates), new double[] {nan, nan, 10, 10, nan, 12, nan, nan});
+    assertEquals(test.getAllAsOf(dates), new double[] {nan, nan, 10, 10, 10, 12, 12, 12});
+    assertEquals(test.getAll(new LocalDate[0]), new double[0]);
+    assertEquals(DoubleStream.of(EMPTY_SERIES.getAll(dates)).allMatch(Double::isNaN), true);
+    assertEquals(DoubleStream.of(EMPTY_SERIES.getAllAsOf(dates)).allMatch(Double::isNaN), true);
+  }
+
+  public void test_getAll_matchesGet() {
+    Random random = new Random(1);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (int i = 0; i < 1000; i++) {
+      builder.put(DATE_2010_01_01.plusDays(random.nextInt(5000)), random.nextDouble());
+    }
+    LocalDateDoubleTimeSeries base = builder.build();
+    for (LocalDateDoubleTimeSeries test : ImmutableList.of(base, base.subSeries(DATE_2011_01_01, DATE_2014_01_01))) {
+      LocalDate[] dates = new LocalDate[3000];
+      for (int i = 0; i < dates.length; i++) {
+        dates[i] = DATE_2010_01_01.plusDays(random.nextInt(6000) - 500);
+      }
+      Arrays.sort(dates);
+      double[] all = test.getAll(dates);
+      double[] asOf = test.getAllAsOf(dates);
+      for (int i = 0; i < dates.length; i++) {
+        LocalDateDoubleTimeSeries upToDate = test.subSeries(LocalDate.MIN, dates[i].plusDays(1));
+        assertEquals(all[i], test.get(dates[i]).orElse(Double.NaN));
+        assertEquals(asOf[i], upToDate.isEmpty() ? Double.NaN : upToDate.getLatestValue());
+      }
+    }
+  }
+
+  public void test_getAll_invalid() {
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
+    TestHelper.assertThrowsIllegalArg(() -> test.getAll(new LocalDate[] {DATE_2011_01_01, DATE_2010_01_01}));
+    TestHelper.assertThrowsIllegalArg(() -> test.getAllAsOf(new LocalDate[] {DATE_2011_01_01, DATE_2010_01_01}));
+    TestHelper.assertThrowsIllegalArg(() -> test.getAll(new LocalDate[] {null}));
+    TestHelper.assertThrowsIllegalArg(() -> test.getAll(null));
+  }
+
   //-------------------------------------------------------------------------
   @DataProvider(name = "subSeries")
   Object[][] data_subSeries() {
@@ -286,6 +341,10 @@ public class LocalDateDoubleTimeSeriesTest {
         {date(2010, 12, 31), date(2013, 1, 2), new int[] {1, 2, 3}},
         // start date just after a base date
         {date(2011, 1, 2), date(2013, 1, 2), new int[] {2, 3}},
+        // unbounded
+        {LocalDate.MIN, DATE_2012_01_01, new int[] {0, 1}},
+        {DATE_2012_01_01, LocalDate.MAX, new int[] {2, 3, 4}},
+        {LocalDate.MIN, LocalDate.MAX, new int[] {0, 1, 2, 3, 4}},
     };
   }
 
@@ -395,6 +454,93 @@ public class LocalDateDoubleTimeSeriesTest {
     base.tailSeries(-1);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_view_equalsCopy() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    LocalDateDoubleTimeSeries test = base.subSeries(DATE_2011_01_01, DATE_2014_01_01);
+    LocalDateDoubleTimeSeries copy = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(11, 12, 13));
+    assertEquals(test, copy);
+    assertEquals(copy, test);
+    assertEquals(test.hashCode(), copy.hashCode());
+    assertEquals(test.toString(), copy.toString());
+    assertEquals(test.dates(), copy.dates());
+    assertEquals(test.values(), copy.values());
+    assertEquals(test.toMap(), copy.toMap());
+    assertNotEquals(test, base);
+    assertNotEquals(test, base.subSeries(DATE_2011_01_01, DATE_2013_01_01));
+  }
+
+  public void test_view_queries() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    LocalDateDoubleTimeSeries test = base.tailSeries(3).headSeries(2);
+    assertEquals(test.size(), 2);
+    assertEquals(test.isEmpty(), false);
+    assertEquals(test.getEarliestDate(), DATE_2012_01_01);
+    assertEquals(test.getEarliestValue(), 12d);
+    assertEquals(test.getLatestDate(), DATE_2013_01_01);
+    assertEquals(test.getLatestValue(), 13d);
+    assertEquals(test.get(DATE_2011_01_01), OptionalDouble.empty());
+    assertEquals(test.get(DATE_2012_01_01), OptionalDouble.of(12d));
+    assertEquals(test.get(DATE_2014_01_01), OptionalDouble.empty());
+    assertEquals(test.containsDate(LocalDate.MAX), false);
+    assertEquals(test.stream().toArray(), new Object[] {
+        LocalDateDoublePoint.of(DATE_2012_01_01, 12), LocalDateDoublePoint.of(DATE_2013_01_01, 13)});
+    assertEquals(test.dateStream().toArray(), new Object[] {DATE_2012_01_01, DATE_2013_01_01});
+    assertEquals(test.valueStream().toArray(), new double[] {12, 13});
+    assertEquals(test.subSeries(DATE_2013_01_01, LocalDate.MAX).values(), values(13));
+    assertEquals(test.toBuilder().put(DATE_2014_01_01, 14).build().values(), values(12, 13, 14));
+  }
+
+  public void test_view_operations() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    LocalDateDoubleTimeSeries test = base.subSeries(DATE_2011_01_01, DATE_2014_01_01);
+    LocalDateDoubleTimeSeries copy = LocalDateDoubleTimeSeries.of(test.dates(), test.values());
+    LocalDateDoubleTimeSeries other = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_01_01, date(2011, 6, 1), DATE_2013_01_01, DATE_2014_01_01), values(1, 2, 3, 4));
+    assertEquals(test.mapValues(v -> v * 2), copy.mapValues(v -> v * 2));
+    assertEquals(test.filter((d, v) -> v > 11), copy.filter((d, v) -> v > 11));
+    assertEquals(test.combineWith(other, Double::sum), copy.combineWith(other, Double::sum));
+    assertEquals(other.combineWith(test, Double::sum), other.combineWith(copy, Double::sum));
+    for (FillPolicy fillPolicy : FillPolicy.values()) {
+      assertEquals(test.union(other, Double::sum, fillPolicy), copy.union(other, Double::sum, fillPolicy));
+      assertEquals(other.union(test, Double::sum, fillPolicy), other.union(copy, Double::sum, fillPolicy));
+      assertEquals(other.leftJoin(test, Double::sum, fillPolicy), other.leftJoin(copy, Double::sum, fillPolicy));
+      assertEquals(
+          LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(other, test), row -> row[0] - row[1], fillPolicy),
+          LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(other, copy), row -> row[0] - row[1], fillPolicy));
+      LocalDateRange range = LocalDateRange.of(DATE_2010_01_01, DATE_2014_01_01.plusDays(1));
+      Predicate<LocalDate> predicate = d -> d.getDayOfMonth() == 1;
+      assertEquals(test.alignTo(range, predicate, fillPolicy), copy.alignTo(range, predicate, fillPolicy));
+    }
+    assertEquals(other.difference(test), other.difference(copy));
+    assertEquals(test.rollingSum(2), copy.rollingSum(2));
+    assertEquals(test.rollingMax(Period.ofYears(2)), copy.rollingMax(Period.ofYears(2)));
+    assertEquals(test.rollingVariance(2), copy.rollingVariance(2));
+    assertEquals(test.exponentialMovingAverage(0.5), copy.exponentialMovingAverage(0.5));
+    assertEquals(test.cumulativeSum(), copy.cumulativeSum());
+    assertEquals(test.diff(), copy.diff());
+  }
+
+  public void test_view_compact() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    assertSame(base.compact(), base);
+    assertSame(base.headSeries(5), base);
+    assertSame(base.subSeries(DATE_2011_01_01, DATE_2011_01_01), EMPTY_SERIES);
+    LocalDateDoubleTimeSeries test = base.headSeries(2);
+    LocalDateDoubleTimeSeries compact = test.compact();
+    assertEquals(compact, test);
+    assertEquals(compact.hashCode(), test.hashCode());
+    assertSame(compact.compact(), compact);
+  }
+
+  public void test_view_serialization() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    TestHelper.assertSerialization(base.tailSeries(2));
+    TestHelper.assertSerialization(base.subSeries(DATE_2011_01_01, DATE_2013_01_01));
+    TestHelper.coverImmutableBean(base.tailSeries(2));
+  }
+
   //-------------------------------------------------------------------------
   public void test_stream() {
     LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
@@ -415,6 +561,44 @@ public class LocalDateDoubleTimeSeriesTest {
     assertEquals(test.get(DATE_2012_01_01), OptionalDouble.of(1.5));
   }
 
+  public void test_stream_spliterator() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    Spliterator<LocalDateDoublePoint> test = base.stream().spliterator();
+    assertEquals(test.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED), true);
+    assertEquals(test.estimateSize(), 5);
+    Spliterator<LocalDateDoublePoint> prefix = test.trySplit();
+    assertEquals(prefix.estimateSize(), 2);
+    assertEquals(test.estimateSize(), 3);
+    prefix.tryAdvance(point -> assertEquals(point, LocalDateDoublePoint.of(DATE_2010_01_01, 10)));
+    test.tryAdvance(point -> assertEquals(point, LocalDateDoublePoint.of(DATE_2012_01_01, 12)));
+    assertEquals(test.estimateSize(), 2);
+  }
+
+  public void test_stream_parallel() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    Random random = new Random(1);
+    for (int i = 0; i < 10_000; i++) {
+      builder.put(DATE_2010_01_01.plusDays(i), random.nextDouble());
+    }
+    LocalDateDoubleTimeSeries base = builder.build();
+    assertEquals(base.stream().parallel().collect(LocalDateDoubleTimeSeries.collector()), base);
+    assertEquals(base.stream().parallel().mapToDouble(LocalDateDoublePoint::getValue).sum(), base.valueStream().sum(), 1e-8);
+    assertEquals(base.valueStream().parallel().toArray(), base.valueStream().toArray());
+  }
+
+  public void test_collector_parallelOverlapping() {
+    // the point later in the stream wins
+    List<LocalDateDoublePoint> points = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      points.add(LocalDateDoublePoint.of(DATE_2010_01_01.plusDays(i % 100), i));
+    }
+    LocalDateDoubleTimeSeries test = points.parallelStream().collect(LocalDateDoubleTimeSeries.collector());
+    assertEquals(test.size(), 100);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(test.get(DATE_2010_01_01.plusDays(i)), OptionalDouble.of(900 + i));
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_dateStream() {
     LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
@@ -497,6 +681,336 @@ public class LocalDateDoubleTimeSeriesTest {
     assertEquals(combined.get(DATE_2014_01_01), OptionalDouble.of(15.4));
   }
 
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "union")
+  Object[][] data_union() {
+    return new Object[][] {
+        {FillPolicy.PREVIOUS_VALUE, dates(DATE_2010_06_01, DATE_2011_01_01, DATE_2011_06_01, DATE_2012_01_01,
+            DATE_2013_01_01, DATE_2013_06_01), values(21, 13, 23, 14, 15, 25)},
+        {FillPolicy.NEXT_VALUE, dates(DATE_2010_01_01, DATE_2010_06_01, DATE_2011_01_01, DATE_2011_06_01,
+            DATE_2012_01_01, DATE_2013_01_01), values(21, 23, 13, 24, 14, 25)},
+        {FillPolicy.ZERO, dates(DATE_2010_01_01, DATE_2010_06_01, DATE_2011_01_01, DATE_2011_06_01, DATE_2012_01_01,
+            DATE_2013_01_01, DATE_2013_06_01), values(1, 20, 13, 20, 14, 5, 20)},
+        {FillPolicy.DROP, dates(DATE_2011_01_01, DATE_2012_01_01), values(13, 14)},
+    };
+  }
+
+  @Test(dataProvider = "union")
+  public void test_union(FillPolicy fillPolicy, List<LocalDate> expectedDates, List<Double> expectedValues) {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_01_01, DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(1, 3, 4, 5));
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_06_01, DATE_2011_01_01, DATE_2011_06_01, DATE_2012_01_01, DATE_2013_06_01),
+        values(20, 10, 20, 10, 20));
+    LocalDateDoubleTimeSeries test = series1.union(series2, (l, r) -> l + r, fillPolicy);
+    assertEquals(test, LocalDateDoubleTimeSeries.of(expectedDates, expectedValues));
+  }
+
+  public void test_union_nan() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(dates(DATE_2010_01_01, DATE_2011_01_01), values(1, 2));
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(dates(DATE_2011_01_01, DATE_2012_01_01), values(3, 4));
+    LocalDateDoubleTimeSeries test = series1.union(series2, (l, r) -> l + r, FillPolicy.NAN);
+    assertEquals(test.dates(), dates(DATE_2010_01_01, DATE_2011_01_01, DATE_2012_01_01));
+    assertEquals(test.get(DATE_2010_01_01), OptionalDouble.of(Double.NaN));
+    assertEquals(test.get(DATE_2011_01_01), OptionalDouble.of(5d));
+    assertEquals(test.get(DATE_2012_01_01), OptionalDouble.of(Double.NaN));
+  }
+
+  public void test_union_dropMatchesCombineWith() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    List<LocalDate> dates2 = dates(DATE_2010_01_01, DATE_2011_06_01, DATE_2012_01_01, DATE_2013_06_01, DATE_2014_01_01);
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(dates2, values(1.0, 1.1, 1.2, 1.3, 1.4));
+    assertEquals(
+        series1.union(series2, (l, r) -> l * r, FillPolicy.DROP),
+        series1.combineWith(series2, (l, r) -> l * r));
+  }
+
+  public void test_union_empty() {
+    LocalDateDoubleTimeSeries series = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
+    assertEquals(series.union(EMPTY_SERIES, (l, r) -> l + r, FillPolicy.ZERO), series);
+    assertEquals(EMPTY_SERIES.union(series, (l, r) -> l + r, FillPolicy.ZERO), series);
+    assertEquals(series.union(EMPTY_SERIES, (l, r) -> l + r, FillPolicy.PREVIOUS_VALUE), EMPTY_SERIES);
+  }
+
+  public void test_union_linearInterpolation() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(
+        dates(date(2014, 1, 1), date(2014, 1, 5)), values(1, 5));
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(
+        dates(date(2014, 1, 2), date(2014, 1, 4), date(2014, 1, 6)), values(20, 40, 60));
+    LocalDateDoubleTimeSeries test = series1.union(series2, (l, r) -> l + r, FillPolicy.LINEAR_INTERPOLATION);
+    assertEquals(test, LocalDateDoubleTimeSeries.of(
+        dates(date(2014, 1, 2), date(2014, 1, 4), date(2014, 1, 5)), values(22, 44, 55)));
+  }
+
+  public void test_leftJoin() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_01_01, DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(1, 3, 4, 5));
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_06_01, DATE_2011_01_01, DATE_2011_06_01, DATE_2013_06_01), values(20, 10, 30, 40));
+    assertEquals(
+        series1.leftJoin(series2, (l, r) -> l + r, FillPolicy.PREVIOUS_VALUE),
+        LocalDateDoubleTimeSeries.of(dates(DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(13, 34, 35)));
+    assertEquals(
+        series1.leftJoin(series2, (l, r) -> l + r, FillPolicy.ZERO),
+        LocalDateDoubleTimeSeries.of(
+            dates(DATE_2010_01_01, DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(1, 13, 4, 5)));
+    assertEquals(
+        series1.leftJoin(series2, (l, r) -> l + r, FillPolicy.DROP),
+        LocalDateDoubleTimeSeries.of(dates(DATE_2011_01_01), values(13)));
+    assertEquals(series1.leftJoin(EMPTY_SERIES, (l, r) -> l + r, FillPolicy.ZERO), series1);
+  }
+
+  public void test_difference() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_06_01, DATE_2011_01_01, DATE_2013_01_01, DATE_2015_06_01), values(1, 2, 3, 4));
+    assertEquals(
+        series1.difference(series2),
+        LocalDateDoubleTimeSeries.of(dates(DATE_2010_01_01, DATE_2012_01_01, DATE_2014_01_01), values(10, 12, 14)));
+    assertEquals(series1.difference(EMPTY_SERIES), series1);
+    assertEquals(series1.difference(series1), EMPTY_SERIES);
+    assertEquals(EMPTY_SERIES.difference(series1), EMPTY_SERIES);
+  }
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "alignTo")
+  Object[][] data_alignTo() {
+    return new Object[][] {
+        {FillPolicy.PREVIOUS_VALUE, dates(date(2014, 1, 6), date(2014, 1, 7), date(2014, 1, 8), date(2014, 1, 10),
+            date(2014, 1, 13)), values(3, 3, 8, 9, 9.5)},
+        {FillPolicy.NEXT_VALUE, dates(date(2014, 1, 6), date(2014, 1, 7), date(2014, 1, 8), date(2014, 1, 10)),
+            values(8, 8, 8, 9)},
+        {FillPolicy.LINEAR_INTERPOLATION, dates(date(2014, 1, 6), date(2014, 1, 7), date(2014, 1, 8),
+            date(2014, 1, 10)), values(6, 7, 8, 9)},
+        {FillPolicy.NAN, dates(date(2014, 1, 6), date(2014, 1, 7), date(2014, 1, 8), date(2014, 1, 10),
+            date(2014, 1, 13)), values(Double.NaN, Double.NaN, 8, 9, Double.NaN)},
+        {FillPolicy.DROP, dates(date(2014, 1, 8), date(2014, 1, 10)), values(8, 9)},
+    };
+  }
+
+  @Test(dataProvider = "alignTo")
+  public void test_alignTo(FillPolicy fillPolicy, List<LocalDate> expectedDates, List<Double> expectedValues) {
+    // business days from Monday 2014-01-06 to Monday 2014-01-13, with Thursday 2014-01-09 a holiday
+    Predicate<LocalDate> businessDays = date -> date.getDayOfWeek().getValue() < 6 && date.getDayOfMonth() != 9;
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(
+        dates(date(2014, 1, 3), date(2014, 1, 8), date(2014, 1, 9), date(2014, 1, 10), date(2014, 1, 11)),
+        values(3, 8, 8.5, 9, 9.5));
+    LocalDateRange range = LocalDateRange.ofClosed(date(2014, 1, 6), date(2014, 1, 13));
+    LocalDateDoubleTimeSeries test = base.alignTo(range, businessDays, fillPolicy);
+    assertEquals(test, LocalDateDoubleTimeSeries.of(expectedDates, expectedValues));
+  }
+
+  public void test_alignTo_empty() {
+    LocalDateRange range = LocalDateRange.ofClosed(date(2014, 1, 6), date(2014, 1, 13));
+    assertEquals(EMPTY_SERIES.alignTo(range, date -> true, FillPolicy.PREVIOUS_VALUE), EMPTY_SERIES);
+    assertEquals(EMPTY_SERIES.alignTo(range, date -> true, FillPolicy.ZERO).size(), 8);
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    assertEquals(base.alignTo(LocalDateRange.of(DATE_2011_01_01, DATE_2011_01_01), date -> true, FillPolicy.ZERO),
+        EMPTY_SERIES);
+  }
+
+  public void test_alignTo_invalid() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    LocalDateRange range = LocalDateRange.ofClosed(DATE_2010_01_01, DATE_2014_01_01);
+    TestHelper.assertThrowsIllegalArg(() -> base.alignTo(LocalDateRange.ALL, date -> true, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> base.alignTo(null, date -> true, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> base.alignTo(range, null, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> base.alignTo(range, date -> true, null));
+  }
+
+  public void test_combineAll() {
+    LocalDateDoubleTimeSeries series1 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_01_01, DATE_2011_01_01, DATE_2012_01_01), values(1, 2, 3));
+    LocalDateDoubleTimeSeries series2 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(10, 20, 30));
+    LocalDateDoubleTimeSeries series3 = LocalDateDoubleTimeSeries.of(
+        dates(DATE_2010_06_01, DATE_2011_01_01, DATE_2012_01_01), values(100, 200, 300));
+    List<LocalDateDoubleTimeSeries> list = ImmutableList.of(series1, series2, series3);
+    assertEquals(
+        LocalDateDoubleTimeSeries.combineAll(list, v -> v[0] + 2 * v[1] + 3 * v[2]),
+        LocalDateDoubleTimeSeries.of(dates(DATE_2011_01_01, DATE_2012_01_01), values(622, 943)));
+    assertEquals(
+        LocalDateDoubleTimeSeries.combineAll(list, v -> v[0] + 2 * v[1] + 3 * v[2], FillPolicy.ZERO),
+        LocalDateDoubleTimeSeries.of(
+            dates(DATE_2010_01_01, DATE_2010_06_01, DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01),
+            values(1, 300, 622, 943, 60)));
+    assertEquals(
+        LocalDateDoubleTimeSeries.combineAll(list, v -> v[0] + 2 * v[1] + 3 * v[2], FillPolicy.PREVIOUS_VALUE),
+        LocalDateDoubleTimeSeries.of(dates(DATE_2011_01_01, DATE_2012_01_01, DATE_2013_01_01), values(622, 943, 963)));
+    assertEquals(LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(), v -> 0d), EMPTY_SERIES);
+    assertEquals(LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(series1), v -> v[0]), series1);
+    assertEquals(LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(series1, EMPTY_SERIES), v -> v[0]), EMPTY_SERIES);
+  }
+
+  public void test_combineAll_matchesUnion() {
+    Random random = new Random(1);
+    for (int trial = 0; trial < 20; trial++) {
+      List<LocalDateDoubleTimeSeries> list = new ArrayList<>();
+      for (int s = 0; s < 1 + random.nextInt(12); s++) {
+        LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+        for (int i = 0; i < 200; i++) {
+          if (random.nextInt(3) > 0) {
+            builder.put(DATE_2010_01_01.plusDays(i), random.nextInt(100));
+          }
+        }
+        list.add(builder.build());
+      }
+      for (FillPolicy fillPolicy : FillPolicy.values()) {
+        // sum pairwise using union, which fills in the same way for two series
+        LocalDateDoubleTimeSeries expected = list.get(0);
+        for (int s = 1; s < list.size(); s++) {
+          expected = expected.union(list.get(s), (l, r) -> l + r, fillPolicy);
+        }
+        LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.combineAll(list, v -> DoubleStream.of(v).sum(), fillPolicy);
+        if (fillPolicy == FillPolicy.LINEAR_INTERPOLATION) {
+          // interpolating the sum differs from the sum of interpolations by rounding
+          assertEquals(test.dates(), expected.dates());
+          for (int i = 0; i < test.size(); i++) {
+            assertEquals(test.values().get(i), expected.values().get(i), TOLERANCE);
+          }
+        } else {
+          assertEquals(test, expected);
+        }
+      }
+    }
+  }
+
+  public void test_joins_null() {
+    LocalDateDoubleTimeSeries series = LocalDateDoubleTimeSeries.of(DATES_2010_12, VALUES_10_12);
+    TestHelper.assertThrowsIllegalArg(() -> series.union(null, (l, r) -> l + r, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> series.union(series, null, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> series.union(series, (l, r) -> l + r, null));
+    TestHelper.assertThrowsIllegalArg(() -> series.leftJoin(null, (l, r) -> l + r, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> series.leftJoin(series, null, FillPolicy.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> series.leftJoin(series, (l, r) -> l + r, null));
+    TestHelper.assertThrowsIllegalArg(() -> series.difference(null));
+    TestHelper.assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.combineAll(null, v -> 0d));
+    TestHelper.assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(series), null));
+    TestHelper.assertThrowsIllegalArg(
+        () -> LocalDateDoubleTimeSeries.combineAll(ImmutableList.of(series), v -> 0d, null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_rolling_count() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, values(10, 14, 11, 13, 12));
+    List<LocalDate> expectedDates = dates(DATE_2012_01_01, DATE_2013_01_01, DATE_2014_01_01);
+    assertEquals(base.rollingSum(3), LocalDateDoubleTimeSeries.of(expectedDates, values(35, 38, 36)));
+    assertEquals(base.rollingMean(3), LocalDateDoubleTimeSeries.of(expectedDates, values(35d / 3, 38d / 3, 12)));
+    assertEquals(base.rollingMin(3), LocalDateDoubleTimeSeries.of(expectedDates, values(10, 11, 11)));
+    assertEquals(base.rollingMax(3), LocalDateDoubleTimeSeries.of(expectedDates, values(14, 14, 13)));
+    LocalDateDoubleTimeSeries variance = base.rollingVariance(3);
+    assertEquals(variance.dates(), expectedDates);
+    assertEquals(variance.get(DATE_2014_01_01).getAsDouble(), 1d, TOLERANCE);
+    assertEquals(base.rollingSum(1), base);
+    assertEquals(base.rollingSum(6), EMPTY_SERIES);
+    assertEquals(base.rollingVariance(1).get(DATE_2010_01_01).getAsDouble(), Double.NaN);
+    assertEquals(EMPTY_SERIES.rollingMax(2), EMPTY_SERIES);
+  }
+
+  public void test_rolling_period() {
+    List<LocalDate> dates = dates(
+        date(2014, 1, 1), date(2014, 1, 2), date(2014, 1, 3), date(2014, 1, 6), date(2014, 1, 7), date(2014, 1, 8));
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(dates, values(1, 2, 3, 4, 5, 6));
+    // windows for 2014-01-06 onwards start on 2014-01-02, 2014-01-03 and 2014-01-04
+    LocalDateDoubleTimeSeries test = base.rollingSum(Period.ofDays(5));
+    assertEquals(test, LocalDateDoubleTimeSeries.of(dates.subList(3, 6), values(9, 12, 15)));
+    assertEquals(base.rollingSum(Period.ofDays(1)), base);
+    assertEquals(base.rollingMax(Period.ofDays(4)), LocalDateDoubleTimeSeries.of(dates.subList(3, 6), values(4, 5, 6)));
+    assertEquals(base.rollingMean(Period.ofWeeks(1)), LocalDateDoubleTimeSeries.of(dates.subList(4, 6), values(3, 4)));
+  }
+
+  public void test_rolling_matchesBruteForce() {
+    Random random = new Random(1);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (int i = 0; i < 500; i++) {
+      if (random.nextInt(4) > 0) {
+        builder.put(DATE_2010_01_01.plusDays(i), random.nextInt(20) - 5d);
+      }
+    }
+    LocalDateDoubleTimeSeries base = builder.build();
+    for (int windowSize : new int[] {1, 2, 7, 30}) {
+      List<LocalDateDoubleTimeSeries> windows = new ArrayList<>();
+      for (int i = windowSize - 1; i < base.size(); i++) {
+        windows.add(base.subSeries(base.dates().get(i - windowSize + 1), base.dates().get(i).plusDays(1)));
+      }
+      assertRolling(windows, base.rollingSum(windowSize), base.rollingMean(windowSize),
+          base.rollingVariance(windowSize), base.rollingMin(windowSize), base.rollingMax(windowSize));
+    }
+    for (Period window : new Period[] {Period.ofDays(1), Period.ofDays(10), Period.ofMonths(1)}) {
+      List<LocalDateDoubleTimeSeries> windows = new ArrayList<>();
+      for (LocalDate date : base.dates()) {
+        LocalDate start = date.minus(window).plusDays(1);
+        if (!start.isBefore(base.getEarliestDate())) {
+          windows.add(base.subSeries(start, date.plusDays(1)));
+        }
+      }
+      assertRolling(windows, base.rollingSum(window), base.rollingMean(window),
+          base.rollingVariance(window), base.rollingMin(window), base.rollingMax(window));
+    }
+  }
+
+  // checks the rolling results against statistics of each window
+  private static void assertRolling(
+      List<LocalDateDoubleTimeSeries> windows,
+      LocalDateDoubleTimeSeries sum,
+      LocalDateDoubleTimeSeries mean,
+      LocalDateDoubleTimeSeries variance,
+      LocalDateDoubleTimeSeries min,
+      LocalDateDoubleTimeSeries max) {
+
+    assertEquals(sum.size(), windows.size());
+    for (int i = 0; i < windows.size(); i++) {
+      LocalDateDoubleTimeSeries window = windows.get(i);
+      LocalDate date = window.getLatestDate();
+      DoubleSummaryStatistics stats = window.valueStream().summaryStatistics();
+      double expectedVariance = window.valueStream().map(v -> (v - stats.getAverage()) * (v - stats.getAverage())).sum() /
+          (stats.getCount() - 1);
+      assertEquals(sum.get(date).getAsDouble(), stats.getSum(), TOLERANCE);
+      assertEquals(mean.get(date).getAsDouble(), stats.getAverage(), TOLERANCE);
+      if (stats.getCount() > 1) {
+        assertEquals(variance.get(date).getAsDouble(), expectedVariance, TOLERANCE);
+      } else {
+        assertEquals(variance.get(date).getAsDouble(), Double.NaN);
+      }
+      assertEquals(min.get(date).getAsDouble(), stats.getMin(), TOLERANCE);
+      assertEquals(max.get(date).getAsDouble(), stats.getMax(), TOLERANCE);
+    }
+  }
+
+  public void test_rolling_invalid() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
+    TestHelper.assertThrowsIllegalArg(() -> base.rollingSum(0));
+    TestHelper.assertThrowsIllegalArg(() -> base.rollingMean(-1));
+    TestHelper.assertThrowsIllegalArg(() -> base.rollingSum(Period.ZERO));
+    TestHelper.assertThrowsIllegalArg(() -> base.rollingMax(Period.ofDays(-1)));
+    TestHelper.assertThrowsIllegalArg(() -> base.rollingMin((Period) null));
+    TestHelper.assertThrowsIllegalArg(() -> base.exponentialMovingAverage(0));
+    TestHelper.assertThrowsIllegalArg(() -> base.exponentialMovingAverage(1.5));
+  }
+
+  public void test_exponentialMovingAverage() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_12, values(10, 20, 10));
+    assertEquals(base.exponentialMovingAverage(0.5), LocalDateDoubleTimeSeries.of(DATES_2010_12, values(10, 15, 12.5)));
+    assertEquals(base.exponentialMovingAverage(1), base);
+    assertEquals(EMPTY_SERIES.exponentialMovingAverage(0.5), EMPTY_SERIES);
+  }
+
+  public void test_cumulative() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_12, values(2, 3, 4));
+    assertEquals(base.cumulativeSum(), LocalDateDoubleTimeSeries.of(DATES_2010_12, values(2, 5, 9)));
+    assertEquals(base.cumulativeProduct(), LocalDateDoubleTimeSeries.of(DATES_2010_12, values(2, 6, 24)));
+    assertEquals(EMPTY_SERIES.cumulativeSum(), EMPTY_SERIES);
+  }
+
+  public void test_consecutive() {
+    LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_12, values(2, 3, 6));
+    List<LocalDate> expectedDates = dates(DATE_2011_01_01, DATE_2012_01_01);
+    assertEquals(base.diff(), LocalDateDoubleTimeSeries.of(expectedDates, values(1, 3)));
+    assertEquals(base.ratio(), LocalDateDoubleTimeSeries.of(expectedDates, values(1.5, 2)));
+    assertEquals(base.logReturn(), LocalDateDoubleTimeSeries.of(expectedDates, values(Math.log(1.5), Math.log(2))));
+    assertEquals(LocalDateDoubleTimeSeries.of(DATE_2010_01_01, 1d).diff(), EMPTY_SERIES);
+  }
+
   //-------------------------------------------------------------------------
   public void test_mapValues_addConstantToSeries() {
     LocalDateDoubleTimeSeries base = LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14);
@@ -584,6 +1098,51 @@ public class LocalDateDoubleTimeSeriesTest {
     assertEquals(test.equals(null), false);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_extremeDates() {
+    LocalDate min = LocalDate.ofEpochDay(Integer.MIN_VALUE);
+    LocalDate max = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.of(dates(min, DATE_2010_01_01, max), values(1, 2, 3));
+    assertEquals(test.getEarliestDate(), min);
+    assertEquals(test.getLatestDate(), max);
+    assertEquals(test.dates(), dates(min, DATE_2010_01_01, max));
+    assertEquals(test.get(max), OptionalDouble.of(3d));
+    assertEquals(test.get(LocalDate.MIN), OptionalDouble.empty());
+    assertEquals(test.get(LocalDate.MAX), OptionalDouble.empty());
+    assertEquals(test.containsDate(LocalDate.MAX), false);
+    assertEquals(test.subSeries(LocalDate.MIN, LocalDate.MAX), test);
+    assertEquals(test.subSeries(min.plusDays(1), max).dates(), dates(DATE_2010_01_01));
+  }
+
+  public void test_extremeDates_outOfRange() {
+    TestHelper.assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.of(LocalDate.MAX, 1d));
+    TestHelper.assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.of(dates(LocalDate.MIN), values(1)));
+    TestHelper.assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.builder().put(LocalDate.MIN, 1d).build());
+  }
+
+  public void test_serialization() {
+    TestHelper.assertSerialization(LocalDateDoubleTimeSeries.of(DATES_2010_14, VALUES_10_14));
+  }
+
+  public void test_serialization_earlierForm() {
+    // written by an earlier version, which stored the dates as a LocalDate[]
+    String serialized =
+      "rO0ABXNyADpjb20ub3BlbmdhbW1hLmNvbGxlY3QudGltZXNlcmllcy5Mb2NhbERhdGVEb3VibGVUaW1lU2VyaWVzAAAAAAAA" +
+      "AAECAAJbAAVkYXRlc3QAFltMamF2YS90aW1lL0xvY2FsRGF0ZTtbAAZ2YWx1ZXN0AAJbRHhwdXIAFltMamF2YS50aW1lLkxv" +
+      "Y2FsRGF0ZTtyls2QzSlwnwIAAHhwAAAAA3NyAA1qYXZhLnRpbWUuU2VylV2EuhsiSLIMAAB4cHcHAwAAB94BAXhzcQB+AAZ3" +
+      "BwMAAAfeAQJ4c3EAfgAGdwcDAAAH3gEGeHVyAAJbRD6mjBSrY1oeAgAAeHAAAAADP/AAAAAAAABAAAAAAAAAAEAMAAAAAAAA";
+    LocalDateDoubleTimeSeries expected = LocalDateDoubleTimeSeries.builder()
+        .put(DATE_2014_01_01, 1d)
+        .put(date(2014, 1, 2), 2d)
+        .put(date(2014, 1, 6), 3.5d)
+        .build();
+    assertEquals(TestHelper.deserialize(serialized), expected);
+    ObjectStreamClass streamClass = ObjectStreamClass.lookup(LocalDateDoubleTimeSeries.class);
+    assertEquals(streamClass.getField("dates").getType(), LocalDate[].class);
+    assertEquals(streamClass.getField("values").getType(), double[].class);
+    assertEquals(streamClass.getSerialVersionUID(), 1L);
+  }
+
   //-------------------------------------------------------------------------
   public void test_coverage() {
     TestHelper.coverImmutableBean(LocalDateDoubleTimeSeries.of(DATE_2014_01_01, 1d));